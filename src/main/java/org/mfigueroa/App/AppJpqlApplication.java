@@ -2,8 +2,10 @@ package org.mfigueroa.App;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class AppJpqlApplication {
 
 	public static void main(String[] args) {
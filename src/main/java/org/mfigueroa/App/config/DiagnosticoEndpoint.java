@@ -0,0 +1,90 @@
+package org.mfigueroa.App.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import org.mfigueroa.App.dto.ConfiguracionLogsDTO;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+/**
+ * Activación en caliente de los logs de diagnóstico, sin reiniciar la aplicación.
+ * <p>
+ * Se publica en {@code /actuator/diagnostico}, junto a {@code /actuator/loggers}, en el puerto de administración
+ * que solo escucha en localhost: GET devuelve el estado y POST con un JSON cambia solo los campos recibidos.
+ */
+@Component
+@Endpoint(id = "diagnostico")
+public class DiagnosticoEndpoint {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(DiagnosticoEndpoint.class);
+
+    // Paquete cuyo nivel se cambia con el campo nivel
+    private static final String PAQUETE = "org.mfigueroa.App";
+
+    // null (404) si el filtro de muestreo no está configurado en logback
+    @ReadOperation
+    public ConfiguracionLogsDTO logs() {
+        MuestreoLogFilter filtro = MuestreoLogFilter.actual();
+        return filtro != null ? estado(filtro) : null;
+    }
+
+    // nivel acepta TRACE, DEBUG, INFO, WARN, ERROR; se valida todo antes de aplicar cualquier cambio
+    @WriteOperation
+    public ConfiguracionLogsDTO actualizarLogs(@Nullable Boolean diagnostico, @Nullable Double tasaMuestreo,
+                                               @Nullable Integer maxPorSegundo, @Nullable String nivel) {
+        MuestreoLogFilter filtro = MuestreoLogFilter.actual();
+        if (filtro == null) {
+            return null;
+        }
+        Level level = null;
+        try {
+            if (tasaMuestreo != null) {
+                MuestreoLogFilter.validarTasaMuestreo(tasaMuestreo);
+            }
+            if (maxPorSegundo != null) {
+                MuestreoLogFilter.validarMaxPorSegundo(maxPorSegundo);
+            }
+            if (nivel != null) {
+                level = Level.toLevel(nivel, null);
+                if (level == null) {
+                    throw new IllegalArgumentException("Nivel de log desconocido: " + nivel);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            logger.warn("Configuración de logs inválida: {}", e.getMessage());
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+
+        if (tasaMuestreo != null) {
+            filtro.setTasaMuestreo(tasaMuestreo);
+        }
+        if (maxPorSegundo != null) {
+            filtro.setMaxPorSegundo(maxPorSegundo);
+        }
+        if (level != null) {
+            paquete().setLevel(level);
+        }
+        if (diagnostico != null) {
+            filtro.setDiagnostico(diagnostico);
+        }
+        ConfiguracionLogsDTO estado = estado(filtro);
+        logger.warn("Logs de diagnóstico: diagnostico={}, tasaMuestreo={}, maxPorSegundo={}, nivel={}",
+                estado.isDiagnostico(), estado.getTasaMuestreo(), estado.getMaxPorSegundo(), estado.getNivel());
+        return estado;
+    }
+
+    private ConfiguracionLogsDTO estado(MuestreoLogFilter filtro) {
+        return new ConfiguracionLogsDTO(filtro.isDiagnostico(), filtro.getTasaMuestreo(), filtro.getMaxPorSegundo(),
+                paquete().getEffectiveLevel().toString(), filtro.getRegistradas(), filtro.getDescartadas());
+    }
+
+    private Logger paquete() {
+        return ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger(PAQUETE);
+    }
+}
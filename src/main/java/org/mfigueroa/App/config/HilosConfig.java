@@ -0,0 +1,65 @@
+package org.mfigueroa.App.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+
+/**
+ * Modo de ejecución de las peticiones. Con {@code app.hilos.virtuales=true} Spring Boot usa hilos virtuales
+ * en Tomcat, en el executor de las respuestas asíncronas ({@code /stream}) y en {@code @Scheduled}.
+ * Con hilos virtuales el límite de concurrencia contra la base de datos es el pool JDBC
+ * ({@code app.jdbc.pool-maximo}); con hilos de plataforma también lo es {@code server.tomcat.threads.max}.
+ * Los hilos virtuales requieren Java 21 o superior en tiempo de ejecución; en versiones anteriores la
+ * propiedad se ignora y se sigue usando el pool de plataforma.
+ */
+@Configuration
+public class HilosConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(HilosConfig.class);
+
+    private final DataSource dataSource;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualesSolicitados;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int hilosTomcat;
+
+    public HilosConfig(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    private int tamanoPool() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class)
+                    ? dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize() : -1;
+        } catch (SQLException ex) {
+            return -1;
+        }
+    }
+
+    public static boolean virtualesDisponibles() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void informarModo() {
+        int pool = tamanoPool();
+        if (virtualesSolicitados && !virtualesDisponibles()) {
+            logger.warn("app.hilos.virtuales=true requiere Java 21+, la JVM es {}; se usan hilos de plataforma",
+                    Runtime.version().feature());
+        }
+        if (virtualesSolicitados && virtualesDisponibles()) {
+            logger.info("Peticiones en hilos virtuales; concurrencia hacia la base de datos limitada por el pool JDBC ({})", pool);
+        } else {
+            logger.info("Peticiones en hilos de plataforma (máximo {}), pool JDBC de {} conexiones", hilosTomcat, pool);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package org.mfigueroa.App.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Lecturas consistentes con las escrituras del mismo cliente. En una petición de escritura (POST, PUT,
+ * PATCH, DELETE) todas las lecturas van a la primaria y se entrega la cookie {@value #COOKIE}, que mantiene
+ * en la primaria las lecturas de ese cliente durante {@code segundos}, el retraso tolerado de la réplica.
+ */
+public class LecturaTrasEscrituraFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "escritura-reciente";
+
+    private final int segundos;
+
+    public LecturaTrasEscrituraFilter(int segundos) {
+        this.segundos = segundos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String metodo = request.getMethod();
+        boolean escritura = !metodo.equals("GET") && !metodo.equals("HEAD") && !metodo.equals("OPTIONS");
+        if (escritura && segundos > 0) {
+            Cookie cookie = new Cookie(COOKIE, "1");
+            cookie.setPath("/");
+            cookie.setMaxAge(segundos);
+            cookie.setHttpOnly(true);
+            response.addCookie(cookie);
+        }
+        if (escritura || (segundos > 0 && escrituraReciente(request))) {
+            RuteoLecturas.forzarPrimaria();
+        }
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            RuteoLecturas.liberar();
+        }
+    }
+
+    private boolean escrituraReciente(HttpServletRequest request) {
+        if (request.getCookies() != null) {
+            for (Cookie cookie : request.getCookies()) {
+                if (COOKIE.equals(cookie.getName())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+}
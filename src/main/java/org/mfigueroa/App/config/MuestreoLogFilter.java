@@ -0,0 +1,152 @@
+package org.mfigueroa.App.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Muestreo de los logs INFO/DEBUG de los controladores. La decisión se toma una vez por petición en
+ * {@link MuestreoLogInterceptor} (probabilidad {@code tasaMuestreo} y como máximo {@code maxPorSegundo}
+ * peticiones registradas por endpoint y segundo) y queda en el MDC, así los mensajes de entrada y salida
+ * de una misma petición se registran juntos. WARN y ERROR se registran siempre, y con
+ * {@code diagnostico=true} se registra todo. Se configura en logback-spring.xml y se puede cambiar en
+ * caliente con PUT /api/diagnostico/logs.
+ */
+public class MuestreoLogFilter extends TurboFilter {
+
+    public static final String MDC_ENDPOINT = "endpoint";
+    public static final String MDC_MUESTRA = "muestra";
+
+    private String prefijo = "org.mfigueroa.App.controller";
+    private volatile boolean diagnostico;
+    private volatile double tasaMuestreo = 1.0;
+    private volatile int maxPorSegundo = 20;
+
+    private final ConcurrentHashMap<String, Ventana> ventanas = new ConcurrentHashMap<>();
+    private final LongAdder registradas = new LongAdder();
+    private final LongAdder descartadas = new LongAdder();
+
+    /**
+     * Filtro registrado en la configuración de logback vigente, o null si no hay ninguno. Se busca en cada
+     * llamada porque Spring Boot reinicia la configuración de logback al arrancar.
+     */
+    public static MuestreoLogFilter actual() {
+        if (LoggerFactory.getILoggerFactory() instanceof LoggerContext contexto) {
+            for (TurboFilter filtro : contexto.getTurboFilterList()) {
+                if (filtro instanceof MuestreoLogFilter muestreo) {
+                    return muestreo;
+                }
+            }
+        }
+        return null;
+    }
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // format == null son las consultas isXxxEnabled()
+        if (diagnostico || format == null || level.isGreaterOrEqual(Level.WARN)
+                || !logger.getName().startsWith(prefijo)) {
+            return FilterReply.NEUTRAL;
+        }
+        String muestra = MDC.get(MDC_MUESTRA);
+        return muestra == null || muestra.equals("1") ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+
+    /**
+     * Indica si la petición actual a {@code endpoint} se registra.
+     */
+    public boolean muestrear(String endpoint) {
+        if (diagnostico) {
+            return true;
+        }
+        double tasa = tasaMuestreo;
+        boolean elegida = tasa >= 1.0 || ThreadLocalRandom.current().nextDouble() < tasa;
+        if (elegida && ventanas.computeIfAbsent(endpoint, e -> new Ventana()).tomar(maxPorSegundo)) {
+            registradas.increment();
+            return true;
+        }
+        descartadas.increment();
+        return false;
+    }
+
+    public String getPrefijo() {
+        return prefijo;
+    }
+
+    public void setPrefijo(String prefijo) {
+        this.prefijo = prefijo;
+    }
+
+    public boolean isDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(boolean diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public double getTasaMuestreo() {
+        return tasaMuestreo;
+    }
+
+    public void setTasaMuestreo(double tasaMuestreo) {
+        validarTasaMuestreo(tasaMuestreo);
+        this.tasaMuestreo = tasaMuestreo;
+    }
+
+    public static void validarTasaMuestreo(double tasaMuestreo) {
+        if (tasaMuestreo < 0 || tasaMuestreo > 1) {
+            throw new IllegalArgumentException("La tasa de muestreo debe estar entre 0 y 1");
+        }
+    }
+
+    public int getMaxPorSegundo() {
+        return maxPorSegundo;
+    }
+
+    public void setMaxPorSegundo(int maxPorSegundo) {
+        validarMaxPorSegundo(maxPorSegundo);
+        this.maxPorSegundo = maxPorSegundo;
+    }
+
+    public static void validarMaxPorSegundo(int maxPorSegundo) {
+        if (maxPorSegundo < 0) {
+            throw new IllegalArgumentException("El máximo por segundo no puede ser negativo");
+        }
+    }
+
+    public long getRegistradas() {
+        return registradas.sum();
+    }
+
+    public long getDescartadas() {
+        return descartadas.sum();
+    }
+
+    // Ventana fija de un segundo por endpoint
+    private static class Ventana {
+
+        private final AtomicLong segundo = new AtomicLong();
+        private final AtomicInteger usadas = new AtomicInteger();
+
+        boolean tomar(int maximo) {
+            long ahora = System.currentTimeMillis() / 1000;
+            long actual = segundo.get();
+            if (actual != ahora && segundo.compareAndSet(actual, ahora)) {
+                usadas.set(0);
+            }
+            return usadas.incrementAndGet() <= maximo;
+        }
+    }
+}
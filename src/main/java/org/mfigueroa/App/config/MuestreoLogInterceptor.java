@@ -0,0 +1,32 @@
+package org.mfigueroa.App.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Deja en el MDC el endpoint de la petición (método y patrón de la ruta) y si sus logs se muestrean,
+ * según {@link MuestreoLogFilter}.
+ */
+public class MuestreoLogInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        MuestreoLogFilter filtro = MuestreoLogFilter.actual();
+        if (filtro != null) {
+            Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String endpoint = request.getMethod() + " " + (patron != null ? patron : request.getRequestURI());
+            MDC.put(MuestreoLogFilter.MDC_ENDPOINT, endpoint);
+            MDC.put(MuestreoLogFilter.MDC_MUESTRA, filtro.muestrear(endpoint) ? "1" : "0");
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(MuestreoLogFilter.MDC_ENDPOINT);
+        MDC.remove(MuestreoLogFilter.MDC_MUESTRA);
+    }
+}
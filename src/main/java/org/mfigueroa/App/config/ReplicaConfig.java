@@ -0,0 +1,74 @@
+package org.mfigueroa.App.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Réplica de lectura. Con {@code app.datasource.replica.url} definida hay dos pools: {@code primaria}
+ * (spring.datasource.*) y {@code replica} (app.datasource.replica.*, con los mismos valores de
+ * spring.datasource.hikari.* salvo los que se redefinan en app.datasource.replica.hikari.*).
+ * Las transacciones de solo lectura ({@code @Transactional(readOnly = true)}, los métodos de lectura de los
+ * repositorios) obtienen la conexión de la réplica y el resto de la primaria. La conexión se obtiene de forma
+ * diferida, en la primera sentencia, cuando ya se sabe si la transacción es de solo lectura.
+ * Cada pool publica sus métricas hikaricp.* con la etiqueta pool.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.replica.url")
+public class ReplicaConfig {
+
+    @Bean
+    public HikariDataSource primaria(DataSourceProperties propiedades, Environment entorno) {
+        HikariDataSource primaria = propiedades.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder.get(entorno).bind("spring.datasource.hikari", Bindable.ofInstance(primaria));
+        primaria.setPoolName("primaria");
+        return primaria;
+    }
+
+    @Bean
+    public HikariDataSource replica(Environment entorno,
+                                    @Value("${app.datasource.replica.url}") String url,
+                                    @Value("${app.datasource.replica.username:${spring.datasource.username:}}") String usuario,
+                                    @Value("${app.datasource.replica.password:${spring.datasource.password:}}") String clave,
+                                    @Value("${app.datasource.replica.driver-class-name:${spring.datasource.driver-class-name:}}") String driver) {
+        DataSourceBuilder<HikariDataSource> builder = DataSourceBuilder.create().type(HikariDataSource.class)
+                .url(url).username(usuario).password(clave);
+        if (!driver.isBlank()) {
+            builder.driverClassName(driver);
+        }
+        HikariDataSource replica = builder.build();
+        Binder binder = Binder.get(entorno);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+        binder.bind("app.datasource.replica.hikari", Bindable.ofInstance(replica));
+        replica.setPoolName("replica");
+        replica.setReadOnly(true);
+        return replica;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("primaria") HikariDataSource primaria,
+                                 @Qualifier("replica") HikariDataSource replica) {
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primaria);
+        proxy.setReadOnlyDataSource(new RuteoLecturas(primaria, replica));
+        return proxy;
+    }
+
+    @Bean
+    public LecturaTrasEscrituraFilter lecturaTrasEscrituraFilter(
+            @Value("${app.datasource.lectura-tras-escritura-segundos:5}") int segundos) {
+        return new LecturaTrasEscrituraFilter(segundos);
+    }
+}
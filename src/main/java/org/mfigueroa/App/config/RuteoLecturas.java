@@ -0,0 +1,57 @@
+package org.mfigueroa.App.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Destino de las transacciones de solo lectura: la réplica, salvo que la petición actual deba leer de la
+ * primaria (lectura tras escritura, ver {@link LecturaTrasEscrituraFilter}, o listados con ETag, ver
+ * {@link #enPrimaria}).
+ */
+public class RuteoLecturas extends AbstractRoutingDataSource {
+
+    private static final String PRIMARIA = "primaria";
+    private static final String REPLICA = "replica";
+
+    private static final ThreadLocal<Boolean> forzarPrimaria = new ThreadLocal<>();
+
+    public RuteoLecturas(DataSource primaria, DataSource replica) {
+        setTargetDataSources(Map.of(PRIMARIA, primaria, REPLICA, replica));
+        setDefaultTargetDataSource(replica);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public static void forzarPrimaria() {
+        forzarPrimaria.set(Boolean.TRUE);
+    }
+
+    public static void liberar() {
+        forzarPrimaria.remove();
+    }
+
+    // Ejecuta la operación con las lecturas en la primaria y deja el destino como estaba
+    public static <T> T enPrimaria(Supplier<T> operacion) {
+        boolean forzada = isPrimariaForzada();
+        forzarPrimaria();
+        try {
+            return operacion.get();
+        } finally {
+            if (!forzada) {
+                liberar();
+            }
+        }
+    }
+
+    public static boolean isPrimariaForzada() {
+        return Boolean.TRUE.equals(forzarPrimaria.get());
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return isPrimariaForzada() ? PRIMARIA : REPLICA;
+    }
+}
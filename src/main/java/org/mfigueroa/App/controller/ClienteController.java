@@ -7,15 +7,25 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.mfigueroa.App.config.RuteoLecturas;
 import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.dto.SugerenciaDTO;
 import org.mfigueroa.App.service.ClienteServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -32,6 +42,9 @@ public class ClienteController {
     @Autowired
     private ClienteServiceImpl clienteService;
 
+    @Autowired
+    private NegociacionFormato negociacionFormato;
+
     /**
      * crea un nuevo cliente
      *
@@ -101,7 +114,7 @@ public class ClienteController {
      * Crea una lista de clientes
      *
      * @param clientesDTO Lista de clientes
-     * @return status code 200 ok
+     * @return status code 201, reporte de la carga por bloques
      */
     @PostMapping("/batch")
     @Operation(
@@ -130,7 +143,7 @@ public class ClienteController {
                             description = "Clientes creados",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = ClienteDTO.class)
+                                    schema = @Schema(implementation = ResultadoLoteDTO.class)
                             )
                     ),
                     @ApiResponse(
@@ -143,9 +156,9 @@ public class ClienteController {
     public ResponseEntity<?> crearClientes(@RequestBody List<ClienteDTO> clientesDTO) {
         try {
             logger.info("Iniciando creacion de clientes en batch");
-            clienteService.crearClientes(clientesDTO);
-            logger.info("Clientes creados exitosamente");
-            return ResponseEntity.status(HttpStatus.CREATED).build();
+            ResultadoLoteDTO resultado = clienteService.crearClientes(clientesDTO);
+            logger.info("Clientes creados: {} de {}", resultado.getInsertados(), resultado.getTotalRegistros());
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
         } catch (Exception ex) {
             logger.error("Error al crear clientes en batch: {}", ex.getMessage(), ex);
             //return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
@@ -153,6 +166,49 @@ public class ClienteController {
         }
     }
 
+    /**
+     * Importa clientes leyendo el cuerpo en streaming, en formato NDJSON (un cliente por línea)
+     * o como arreglo JSON
+     *
+     * @param contentType tipo de contenido del cuerpo
+     * @param entrada cuerpo de la petición
+     * @return status code 201, reporte de la carga con los errores por línea
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json"})
+    @Operation(
+            summary = "Importación masiva de clientes",
+            description = "Importa clientes en streaming (NDJSON o arreglo JSON) con memoria constante",
+            tags = {"Administración Clientes"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "201",
+                            description = "Clientes importados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResultadoLoteDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Error interno al importar clientes",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    public ResponseEntity<ResultadoLoteDTO> importarClientes(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                             InputStream entrada) {
+        try {
+            logger.info("Iniciando importación de clientes ({})", contentType);
+            boolean ndjson = contentType.startsWith("application/x-ndjson");
+            ResultadoLoteDTO resultado = clienteService.importarClientes(entrada, ndjson);
+            logger.info("Clientes importados: {} de {}", resultado.getInsertados(), resultado.getTotalRegistros());
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (Exception ex) {
+            logger.error("Error al importar clientes: {}", ex.getMessage(), ex);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     /**
      * Consulta los clientes guardados en la base de datos
      *
@@ -179,6 +235,10 @@ public class ClienteController {
                                     }
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Sin cambios desde la ETag enviada en If-None-Match"
+                    ),
                     @ApiResponse(
                             responseCode = "500",
                             description = "Error interno obtener clientes",
@@ -186,10 +246,15 @@ public class ClienteController {
                     )
             }
     )
-    public ResponseEntity<List<ClienteDTO>> findAll() {
+    public ResponseEntity<List<ClienteDTO>> findAll(NativeWebRequest request) {
+        // Sin cambios desde la ETag del cliente: 304 sin consultar la BD
+        if (request.checkNotModified(clienteService.etagClientes(negociacionFormato.formato(request, List.class)))) {
+            return null;
+        }
         try {
             logger.info("Consultando todos los clientes");
-            List<ClienteDTO> clientes = clienteService.getAllClientes();
+            // La ETag sale de la versión confirmada en la primaria; la réplica podría devolver datos anteriores
+            List<ClienteDTO> clientes = RuteoLecturas.enPrimaria(clienteService::getAllClientes);
             logger.info("Clientes encontrados: {}", clientes.size());
             return new ResponseEntity<>(clientes, HttpStatus.OK);
         } catch (Exception ex) {
@@ -198,6 +263,26 @@ public class ClienteController {
         }
     }
 
+    /**
+     * Consulta todos los clientes escribiendo la respuesta en streaming, registro por registro
+     *
+     * @param accept formato solicitado, application/x-ndjson o application/json
+     * @return status code 200, clientes en NDJSON o arreglo JSON
+     */
+    @GetMapping(value = "/stream", produces = {"application/x-ndjson", "application/json"})
+    @Operation(summary = "Consulta clientes en streaming",
+            description = "Devuelve todos los clientes en NDJSON o arreglo JSON con memoria constante",
+            tags = {"Administración Clientes"})
+    public ResponseEntity<StreamingResponseBody> streamClientes(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/json") String accept) {
+        boolean ndjson = accept.contains("application/x-ndjson");
+        logger.info("Consultando clientes en streaming");
+        StreamingResponseBody cuerpo = salida -> clienteService.escribirClientes(salida, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.APPLICATION_JSON)
+                .body(cuerpo);
+    }
+
     /**
      * @return lista con los clientes existentes
      */
@@ -266,6 +351,14 @@ public class ClienteController {
         return new ResponseEntity<>(clienteService.findByNombre(nombre), HttpStatus.FOUND);
     }
 
+    //Autocompletado por nombre o email, ordenado por número de ventas (no consulta la base de datos)
+    @GetMapping("/sugerencias")
+    public ResponseEntity<List<SugerenciaDTO>> sugerencias(
+            @RequestParam String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(clienteService.sugerirClientes(prefijo, limite));
+    }
+
     /**
      * Actualizar datos de un cliente existente
      *
@@ -387,4 +480,22 @@ public class ClienteController {
         }
     }
 
+    /**
+     * Elimina clientes por lista de ids o los clientes sin ventas (sinVentas=true), junto con sus ventas
+     * @param filtro ids o filtro de los clientes a eliminar
+     * @return filas eliminadas por tabla
+     */
+    @PostMapping("/delete/batch")
+    @Operation(summary = "Eliminación masiva de clientes",
+            description = "Elimina por bloques los clientes indicados por ids o por filtro, con sus ventas",
+            tags = {"Administración Clientes"})
+    public ResponseEntity<ResultadoEliminacionDTO> eliminarClientes(@RequestBody FiltroEliminacionDTO filtro) {
+        try {
+            return ResponseEntity.ok(clienteService.eliminarClientes(filtro));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Eliminación masiva de clientes inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
 }
@@ -0,0 +1,72 @@
+package org.mfigueroa.App.controller;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.HttpMediaTypeNotAcceptableException;
+import org.springframework.web.accept.ContentNegotiationManager;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Formato en que Spring MVC escribirá la respuesta de un listado (JSON, CBOR o Smile), para que la ETag se
+ * calcule antes de consultar la BD. Usa el ContentNegotiationManager de MVC y los convertidores registrados
+ * en el adaptador, con el mismo criterio de selección que AbstractMessageConverterMethodProcessor.
+ */
+@Component
+public class NegociacionFormato {
+
+    private static final MediaType APPLICATION_ALL = new MediaType("application");
+
+    @Autowired
+    @Qualifier("mvcContentNegotiationManager")
+    private ContentNegotiationManager contentNegotiationManager;
+
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    // Si no hay formato aceptable se devuelve JSON; la respuesta real terminará en 406
+    public MediaType formato(NativeWebRequest request, Class<?> tipo) {
+        List<MediaType> aceptados;
+        try {
+            aceptados = contentNegotiationManager.resolveMediaTypes(request);
+        } catch (HttpMediaTypeNotAcceptableException ex) {
+            return MediaType.APPLICATION_JSON;
+        }
+        List<MediaType> compatibles = new ArrayList<>();
+        for (MediaType aceptado : aceptados) {
+            for (MediaType producible : producibles(tipo)) {
+                if (aceptado.isCompatibleWith(producible)) {
+                    MediaType conCalidad = producible.copyQualityValue(aceptado);
+                    compatibles.add(aceptado.isLessSpecific(conCalidad) ? conCalidad : aceptado);
+                }
+            }
+        }
+        MimeTypeUtils.sortBySpecificity(compatibles);
+        for (MediaType candidato : compatibles) {
+            if (candidato.isConcrete()) {
+                return candidato.removeQualityValue();
+            }
+            if (MediaType.ALL.equalsTypeAndSubtype(candidato) || APPLICATION_ALL.equalsTypeAndSubtype(candidato)) {
+                break;
+            }
+        }
+        return MediaType.APPLICATION_JSON;
+    }
+
+    private List<MediaType> producibles(Class<?> tipo) {
+        List<MediaType> tipos = new ArrayList<>();
+        for (HttpMessageConverter<?> convertidor : handlerAdapter.getMessageConverters()) {
+            if (convertidor.canWrite(tipo, null)) {
+                tipos.addAll(convertidor.getSupportedMediaTypes(tipo));
+            }
+        }
+        return tipos;
+    }
+}
@@ -7,8 +7,18 @@ import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.mfigueroa.App.config.RuteoLecturas;
 import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.EstadisticasCacheDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.PaginaCursorDTO;
+import org.mfigueroa.App.dto.PrecioProductoDTO;
 import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.ReglaPrecioDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.dto.ResultadoPreciosDTO;
+import org.mfigueroa.App.dto.SugerenciaDTO;
 import org.mfigueroa.App.repository.ProductoRepository;
 import org.mfigueroa.App.service.ProductoService;
 import org.slf4j.Logger;
@@ -16,10 +26,15 @@ import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 @Tag(name = "Productos Controller", description = "Operaciones CRUD para la gestión de productos")
 @RestController
@@ -34,6 +49,9 @@ public class ProductoController {
     @Autowired
     private ProductoService productoService;
 
+    @Autowired
+    private NegociacionFormato negociacionFormato;
+
     /**
      * Crea un nuevo producto en el sistema
      * @param productoDTO los datos del producto a crear(nombre, precio y stock)
@@ -123,6 +141,10 @@ public class ProductoController {
                                     }
                             )
                     ),
+                    @ApiResponse(
+                            responseCode = "304",
+                            description = "Sin cambios desde la ETag enviada en If-None-Match"
+                    ),
                     @ApiResponse(
                             responseCode = "500",
                             description = "Error interno obtener productos",
@@ -130,10 +152,15 @@ public class ProductoController {
                     )
             }
     )
-    public ResponseEntity<List<ProductoDTO>>getAll() {
+    public ResponseEntity<List<ProductoDTO>>getAll(NativeWebRequest request) {
+        // Sin cambios desde la ETag del cliente: 304 sin consultar la BD
+        if (request.checkNotModified(productoService.etagProductos(negociacionFormato.formato(request, List.class)))) {
+            return null;
+        }
         try {
             logger.info("Consultando todos los productos.");
-            List<ProductoDTO> productos = productoService.getAllProductos();
+            // La ETag sale de la versión confirmada en la primaria; la réplica podría devolver datos anteriores
+            List<ProductoDTO> productos = RuteoLecturas.enPrimaria(productoService::getAllProductos);
             logger.info("Productos encontrados: {}", productos.size());
             return new ResponseEntity<>(productos, HttpStatus.FOUND);
         } catch (Exception e) {
@@ -143,6 +170,25 @@ public class ProductoController {
     }
 
 
+    /**
+     * Consulta todos los productos escribiendo la respuesta en streaming, registro por registro
+     * @param accept formato solicitado, application/x-ndjson o application/json
+     * @return productos en NDJSON o arreglo JSON
+     */
+    @GetMapping(value = "/stream", produces = {"application/x-ndjson", "application/json"})
+    @Operation(summary = "Consulta Productos en streaming",
+            description = "Devuelve todos los productos en NDJSON o arreglo JSON con memoria constante",
+            tags = {"Administración Productos"})
+    public ResponseEntity<StreamingResponseBody> streamProductos(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/json") String accept) {
+        boolean ndjson = accept.contains("application/x-ndjson");
+        logger.info("Consultando productos en streaming.");
+        StreamingResponseBody cuerpo = salida -> productoService.escribirProductos(salida, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.APPLICATION_JSON)
+                .body(cuerpo);
+    }
+
     @Hidden
     @GetMapping("/findByPrice")
     public ResponseEntity<List<ProductoDTO>> findByPrecio(@RequestParam double precio) {
@@ -159,8 +205,11 @@ public class ProductoController {
 
     @Hidden
     @GetMapping("/findByStock")
-    public ResponseEntity<List<ProductoDTO>> findByStock() {
-        return ResponseEntity.ok(productoService.obtenerProductosEnStock());
+    public ResponseEntity<List<ProductoDTO>> findByStock(NativeWebRequest request) {
+        if (request.checkNotModified(productoService.etagProductos(negociacionFormato.formato(request, List.class)))) {
+            return null;
+        }
+        return ResponseEntity.ok(RuteoLecturas.enPrimaria(productoService::obtenerProductosEnStock));
     }
 
     /**
@@ -229,6 +278,46 @@ public class ProductoController {
         return productoService.actualizarPrecioProducto(id, precioNuevo);
     }
 
+    /**
+     * Actualiza los precios de una lista de productos en una sola transacción
+     * @param precios pares id y precio nuevo
+     * @return número de productos actualizados
+     */
+    @PutMapping("/precios")
+    @Operation(summary = "Actualización masiva de precios",
+            description = "Cambia el precio de cada producto de la lista, en lotes JDBC y una sola transacción",
+            tags = {"Administración Productos"})
+    public ResponseEntity<ResultadoPreciosDTO> actualizarPrecios(@RequestBody List<PrecioProductoDTO> precios) {
+        try {
+            ResultadoPreciosDTO resultado = productoService.actualizarPrecios(precios);
+            logger.info("Precios actualizados: {} de {}", resultado.getActualizados(), precios.size());
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Actualización de precios inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Ajusta un porcentaje los precios de los productos de un rango de precio, con una sola sentencia UPDATE
+     * @param regla porcentaje (negativo para bajar precios) y rango de precio
+     * @return número de productos actualizados
+     */
+    @PutMapping("/precios/regla")
+    @Operation(summary = "Ajuste porcentual de precios",
+            description = "Sube o baja un porcentaje el precio de los productos con precio entre minPrecio y maxPrecio",
+            tags = {"Administración Productos"})
+    public ResponseEntity<ResultadoPreciosDTO> ajustarPrecios(@RequestBody ReglaPrecioDTO regla) {
+        try {
+            ResultadoPreciosDTO resultado = productoService.ajustarPrecios(regla);
+            logger.info("Precios ajustados {} %: {} productos", regla.getPorcentaje(), resultado.getActualizados());
+            return ResponseEntity.ok(resultado);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ajuste de precios inválido: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @DeleteMapping("/delete")
     @Operation(
             summary = "Eliminar Producto",
@@ -271,6 +360,24 @@ public class ProductoController {
         }
     }
 
+    /**
+     * Elimina productos por lista de ids o por stock máximo y rango de precio; las ventas se conservan
+     * @param filtro ids o filtro de los productos a eliminar
+     * @return filas eliminadas por tabla
+     */
+    @PostMapping("/delete/batch")
+    @Operation(summary = "Eliminación masiva de productos",
+            description = "Elimina por bloques los productos indicados por ids o por filtro y sus filas en las ventas",
+            tags = {"Administración Productos"})
+    public ResponseEntity<ResultadoEliminacionDTO> eliminarProductos(@RequestBody FiltroEliminacionDTO filtro) {
+        try {
+            return ResponseEntity.ok(productoService.eliminarProductos(filtro));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Eliminación masiva de productos inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     // Endpoint para crear múltiples productos
     @PostMapping("/batch")
     @Operation(
@@ -299,7 +406,7 @@ public class ProductoController {
                             description = "Productos creados",
                             content = @Content(
                                     mediaType = "application/json",
-                                    schema = @Schema(implementation = ProductoDTO.class)
+                                    schema = @Schema(implementation = ResultadoLoteDTO.class)
                             )
                     ),
                     @ApiResponse(
@@ -309,18 +416,60 @@ public class ProductoController {
                     )
             }
     )
-    public ResponseEntity<Void> crearProductos(@RequestBody List<ProductoDTO> productosDTO) {
+    public ResponseEntity<ResultadoLoteDTO> crearProductos(@RequestBody List<ProductoDTO> productosDTO) {
         try {
             logger.info("Iniciando la creación de productos en batch.");
-            productoService.crearProductos(productosDTO);
-            logger.info("Productos creados exitosamente en batch.");
-            return ResponseEntity.status(HttpStatus.CREATED).build();
+            ResultadoLoteDTO resultado = productoService.crearProductos(productosDTO);
+            logger.info("Productos creados en batch: {} de {}", resultado.getInsertados(), resultado.getTotalRegistros());
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
         } catch (Exception e) {
             logger.error("Error al crear productos en batch: {}", e.getMessage(), e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
 
+    /**
+     * Importa productos leyendo el cuerpo en streaming, en formato NDJSON (un producto por línea)
+     * o como arreglo JSON
+     * @param contentType tipo de contenido del cuerpo
+     * @param entrada cuerpo de la petición
+     * @return reporte de la carga con los errores por línea y código de estado HTTP 201
+     */
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "application/json"})
+    @Operation(
+            summary = "Importación masiva de productos",
+            description = "Importa productos en streaming (NDJSON o arreglo JSON) con memoria constante",
+            tags = {"Administración Productos"},
+            responses = {
+                    @ApiResponse(
+                            responseCode = "201",
+                            description = "Productos importados",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ResultadoLoteDTO.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "500",
+                            description = "Error interno al importar productos",
+                            content = @Content(mediaType = "application/json")
+                    )
+            }
+    )
+    public ResponseEntity<ResultadoLoteDTO> importarProductos(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                                              InputStream entrada) {
+        try {
+            logger.info("Iniciando la importación de productos ({})", contentType);
+            boolean ndjson = contentType.startsWith("application/x-ndjson");
+            ResultadoLoteDTO resultado = productoService.importarProductos(entrada, ndjson);
+            logger.info("Productos importados: {} de {}", resultado.getInsertados(), resultado.getTotalRegistros());
+            return ResponseEntity.status(HttpStatus.CREATED).body(resultado);
+        } catch (Exception e) {
+            logger.error("Error al importar productos: {}", e.getMessage(), e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
     //Obtener productos paginados y ordenados
     @GetMapping("/getPaged")
     public Page<ProductoDTO> findAllPaged(
@@ -345,6 +494,47 @@ public class ProductoController {
     }
 
 
+    //Autocompletado por nombre, ordenado por unidades vendidas (no consulta la base de datos)
+    @GetMapping("/sugerencias")
+    public ResponseEntity<List<SugerenciaDTO>> sugerencias(
+            @RequestParam String prefijo,
+            @RequestParam(defaultValue = "10") int limite) {
+        return ResponseEntity.ok(productoService.sugerirProductos(prefijo, limite));
+    }
+
+    //Obtener productos paginados por cursor (keyset), sin OFFSET ni COUNT
+    @GetMapping("/getCursor")
+    public ResponseEntity<PaginaCursorDTO<ProductoDTO>> findAllCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "5") int tamano,
+            @RequestParam(defaultValue = "nombre") String ordenarPor,
+            @RequestParam(defaultValue = "desc") String orden) {
+        try {
+            return ResponseEntity.ok(productoService.obtenerTodosPorCursor(cursor, tamano, ordenarPor, orden));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Paginación por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    //Obtener productos dentro de un rango de precio, paginados por cursor
+    @GetMapping("/precio/cursor")
+    public ResponseEntity<PaginaCursorDTO<ProductoDTO>> filtrarProductosPorPrecioCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "precio") String ordenarPor,
+            @RequestParam(defaultValue = "asc") String orden,
+            @RequestParam(defaultValue = "0") Double minPrecio,
+            @RequestParam(defaultValue = "1000000") Double maxPrecio,
+            @RequestParam(defaultValue = "5") int tamano) {
+        try {
+            return ResponseEntity.ok(productoService.obtenerPorRangoDePrecioConCursor(
+                    cursor, minPrecio, maxPrecio, tamano, ordenarPor, orden));
+        } catch (IllegalArgumentException e) {
+            logger.warn("Paginación por cursor inválida: {}", e.getMessage());
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     //Obtener productos por nombre
     @Hidden
     @GetMapping("/findByName")
@@ -367,6 +557,13 @@ public class ProductoController {
         }
     }
 
+    //Aciertos y fallos del cache de productos (app.cache.productos=true)
+    @Hidden
+    @GetMapping("/cache/estadisticas")
+    public ResponseEntity<List<EstadisticasCacheDTO>> estadisticasCache() {
+        return ResponseEntity.ok(productoService.estadisticasCache());
+    }
+
 //    @GetMapping("/todos")
 //    public Page<ProductoDTO> obtenerTodosLosProductos(
 //            @RequestParam(defaultValue = "0") int pagina,
@@ -1,15 +1,26 @@
 package org.mfigueroa.App.controller;
 
 import io.swagger.v3.oas.annotations.Hidden;
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
 import org.mfigueroa.App.dto.VentaDTO;
 import org.mfigueroa.App.model.Venta;
 import org.mfigueroa.App.service.VentaService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.util.Date;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 @Hidden
 @RestController
 @RequestMapping("/api/ventas")
@@ -20,7 +31,12 @@ public class VentaController {
 
     @PostMapping("/create")
     public ResponseEntity<VentaDTO> crearVenta(@RequestBody VentaDTO ventaDTO) {
-        return new ResponseEntity<>(ventaService.crearVenta(ventaDTO), HttpStatus.CREATED);
+        try {
+            return new ResponseEntity<>(ventaService.crearVenta(ventaDTO), HttpStatus.CREATED);
+        } catch (RejectedExecutionException ex) {
+            // Cola de la ingesta agrupada llena: el cliente reintenta más tarde
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).header(HttpHeaders.RETRY_AFTER, "1").build();
+        }
     }
 
     @GetMapping
@@ -28,20 +44,81 @@ public class VentaController {
         return new ResponseEntity<>(ventaService.getAllVentas(), HttpStatus.FOUND);
     }
 
+    @GetMapping(value = "/stream", produces = {"application/x-ndjson", "application/json"})
+    public ResponseEntity<StreamingResponseBody> streamVentas(
+            @RequestHeader(value = HttpHeaders.ACCEPT, defaultValue = "application/json") String accept) {
+        boolean ndjson = accept.contains("application/x-ndjson");
+        StreamingResponseBody cuerpo = salida -> ventaService.escribirVentas(salida, ndjson);
+        return ResponseEntity.ok()
+                .contentType(ndjson ? MediaType.parseMediaType("application/x-ndjson") : MediaType.APPLICATION_JSON)
+                .body(cuerpo);
+    }
+
     @GetMapping("/findByCliente")
     public ResponseEntity<List<VentaDTO>> findByClienteId(@RequestParam Long id){
         List<VentaDTO> ventaDTOList = ventaService.findBiIdCliente(id);
         return new ResponseEntity<>(ventaDTOList, HttpStatus.FOUND);
     }
 
+    //Obtener ventas paginadas, número constante de consultas sin importar el tamaño de página
+    @GetMapping("/getPaged")
+    public Page<VentaDTO> findAllPaged(
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano) {
+        return ventaService.obtenerVentasPaginadas(pagina, tamano);
+    }
+
+    @GetMapping("/findByCliente/paged")
+    public Page<VentaDTO> findByClienteIdPaged(
+            @RequestParam Long id,
+            @RequestParam(defaultValue = "0") int pagina,
+            @RequestParam(defaultValue = "20") int tamano) {
+        return ventaService.obtenerVentasPorClientePaginadas(id, pagina, tamano);
+    }
+
     @DeleteMapping("/deleteById")
     public boolean deleteVentaById(@RequestParam Long id){
         return ventaService.deleteVentaById(id);
     }
 
+    // Eliminación masiva por ids o por cliente y rango de fechas, devuelve las filas eliminadas
+    @PostMapping("/delete/batch")
+    public ResponseEntity<ResultadoEliminacionDTO> eliminarVentas(@RequestBody FiltroEliminacionDTO filtro) {
+        try {
+            return ResponseEntity.ok(ventaService.eliminarVentas(filtro));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PutMapping("/updateClienteVenta")
     public void updateClienteVenta(@RequestParam Long idCliente, @RequestParam Long idVenta) {
         ventaService.updateVentaClienteId(idCliente, idVenta);
     }
 
+    @GetMapping("/resumenCliente")
+    public ResponseEntity<ResumenVentasClienteDTO> resumenCliente(@RequestParam Long id) {
+        return ResponseEntity.ok(ventaService.obtenerResumenCliente(id));
+    }
+
+    // Ingreso por producto y cliente, ticket y canasta promedio desde la instantánea en memoria;
+    // desde y hasta en ISO 8601 (2024-01-31T00:00:00). Tras eliminar productos, sus líneas siguen contando
+    // hasta la siguiente revisión (app.analitica.revision-ms)
+    @GetMapping("/analitica")
+    public ResponseEntity<AnaliticaVentasDTO> analitica(
+            @RequestParam(defaultValue = "10") int top,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date desde,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Date hasta) {
+        try {
+            return ResponseEntity.ok(ventaService.analizarVentas(desde, hasta, top));
+        } catch (IllegalStateException ex) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    @PostMapping("/resumen/reconstruir")
+    public ResponseEntity<Integer> reconstruirResumenes() {
+        return ResponseEntity.ok(ventaService.reconstruirResumenes());
+    }
+
 }
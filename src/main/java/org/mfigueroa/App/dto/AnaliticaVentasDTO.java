@@ -0,0 +1,97 @@
+package org.mfigueroa.App.dto;
+
+import java.util.List;
+
+/**
+ * Agregados de ventas calculados en memoria: totales, ticket y canasta promedio, y los productos y clientes
+ * con más ingreso
+ */
+public class AnaliticaVentasDTO {
+
+    private long ventas;
+    private long lineas;
+    private double ingresoTotal;
+    private double ticketPromedio;
+    private double productosPorVenta;
+    private List<IngresoDTO> topProductos;
+    private List<IngresoDTO> topClientes;
+    private long milisegundos;
+
+    public AnaliticaVentasDTO() {
+    }
+
+    public AnaliticaVentasDTO(long ventas, long lineas, double ingresoTotal, List<IngresoDTO> topProductos,
+                              List<IngresoDTO> topClientes) {
+        this.ventas = ventas;
+        this.lineas = lineas;
+        this.ingresoTotal = ingresoTotal;
+        this.ticketPromedio = ventas > 0 ? ingresoTotal / ventas : 0;
+        this.productosPorVenta = ventas > 0 ? (double) lineas / ventas : 0;
+        this.topProductos = topProductos;
+        this.topClientes = topClientes;
+    }
+
+    public long getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(long ventas) {
+        this.ventas = ventas;
+    }
+
+    public long getLineas() {
+        return lineas;
+    }
+
+    public void setLineas(long lineas) {
+        this.lineas = lineas;
+    }
+
+    public double getIngresoTotal() {
+        return ingresoTotal;
+    }
+
+    public void setIngresoTotal(double ingresoTotal) {
+        this.ingresoTotal = ingresoTotal;
+    }
+
+    public double getTicketPromedio() {
+        return ticketPromedio;
+    }
+
+    public void setTicketPromedio(double ticketPromedio) {
+        this.ticketPromedio = ticketPromedio;
+    }
+
+    public double getProductosPorVenta() {
+        return productosPorVenta;
+    }
+
+    public void setProductosPorVenta(double productosPorVenta) {
+        this.productosPorVenta = productosPorVenta;
+    }
+
+    public List<IngresoDTO> getTopProductos() {
+        return topProductos;
+    }
+
+    public void setTopProductos(List<IngresoDTO> topProductos) {
+        this.topProductos = topProductos;
+    }
+
+    public List<IngresoDTO> getTopClientes() {
+        return topClientes;
+    }
+
+    public void setTopClientes(List<IngresoDTO> topClientes) {
+        this.topClientes = topClientes;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+}
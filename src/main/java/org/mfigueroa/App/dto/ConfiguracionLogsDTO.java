@@ -0,0 +1,75 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Estado del muestreo de logs de los controladores
+ */
+public class ConfiguracionLogsDTO {
+
+    private boolean diagnostico;
+    private double tasaMuestreo;
+    private int maxPorSegundo;
+    private String nivel;
+    private long peticionesRegistradas;
+    private long peticionesDescartadas;
+
+    public ConfiguracionLogsDTO() {
+    }
+
+    public ConfiguracionLogsDTO(boolean diagnostico, double tasaMuestreo, int maxPorSegundo, String nivel,
+                                long peticionesRegistradas, long peticionesDescartadas) {
+        this.diagnostico = diagnostico;
+        this.tasaMuestreo = tasaMuestreo;
+        this.maxPorSegundo = maxPorSegundo;
+        this.nivel = nivel;
+        this.peticionesRegistradas = peticionesRegistradas;
+        this.peticionesDescartadas = peticionesDescartadas;
+    }
+
+    public boolean isDiagnostico() {
+        return diagnostico;
+    }
+
+    public void setDiagnostico(boolean diagnostico) {
+        this.diagnostico = diagnostico;
+    }
+
+    public double getTasaMuestreo() {
+        return tasaMuestreo;
+    }
+
+    public void setTasaMuestreo(double tasaMuestreo) {
+        this.tasaMuestreo = tasaMuestreo;
+    }
+
+    public int getMaxPorSegundo() {
+        return maxPorSegundo;
+    }
+
+    public void setMaxPorSegundo(int maxPorSegundo) {
+        this.maxPorSegundo = maxPorSegundo;
+    }
+
+    public String getNivel() {
+        return nivel;
+    }
+
+    public void setNivel(String nivel) {
+        this.nivel = nivel;
+    }
+
+    public long getPeticionesRegistradas() {
+        return peticionesRegistradas;
+    }
+
+    public void setPeticionesRegistradas(long peticionesRegistradas) {
+        this.peticionesRegistradas = peticionesRegistradas;
+    }
+
+    public long getPeticionesDescartadas() {
+        return peticionesDescartadas;
+    }
+
+    public void setPeticionesDescartadas(long peticionesDescartadas) {
+        this.peticionesDescartadas = peticionesDescartadas;
+    }
+}
@@ -0,0 +1,34 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Error de un registro individual dentro de una carga masiva
+ */
+public class ErrorRegistroDTO {
+
+    private long linea;
+    private String mensaje;
+
+    public ErrorRegistroDTO() {
+    }
+
+    public ErrorRegistroDTO(long linea, String mensaje) {
+        this.linea = linea;
+        this.mensaje = mensaje;
+    }
+
+    public long getLinea() {
+        return linea;
+    }
+
+    public void setLinea(long linea) {
+        this.linea = linea;
+    }
+
+    public String getMensaje() {
+        return mensaje;
+    }
+
+    public void setMensaje(String mensaje) {
+        this.mensaje = mensaje;
+    }
+}
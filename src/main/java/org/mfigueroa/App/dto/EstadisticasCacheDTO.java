@@ -0,0 +1,65 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Aciertos y fallos de una región del cache de segundo nivel
+ */
+public class EstadisticasCacheDTO {
+
+    private String region;
+    private long aciertos;
+    private long fallos;
+    private long escrituras;
+    private double ratioAciertos;
+
+    public EstadisticasCacheDTO() {
+    }
+
+    public EstadisticasCacheDTO(String region, long aciertos, long fallos, long escrituras) {
+        this.region = region;
+        this.aciertos = aciertos;
+        this.fallos = fallos;
+        this.escrituras = escrituras;
+        long consultas = aciertos + fallos;
+        this.ratioAciertos = consultas == 0 ? 0 : (double) aciertos / consultas;
+    }
+
+    public String getRegion() {
+        return region;
+    }
+
+    public void setRegion(String region) {
+        this.region = region;
+    }
+
+    public long getAciertos() {
+        return aciertos;
+    }
+
+    public void setAciertos(long aciertos) {
+        this.aciertos = aciertos;
+    }
+
+    public long getFallos() {
+        return fallos;
+    }
+
+    public void setFallos(long fallos) {
+        this.fallos = fallos;
+    }
+
+    public long getEscrituras() {
+        return escrituras;
+    }
+
+    public void setEscrituras(long escrituras) {
+        this.escrituras = escrituras;
+    }
+
+    public double getRatioAciertos() {
+        return ratioAciertos;
+    }
+
+    public void setRatioAciertos(double ratioAciertos) {
+        this.ratioAciertos = ratioAciertos;
+    }
+}
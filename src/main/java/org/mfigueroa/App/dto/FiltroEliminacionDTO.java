@@ -0,0 +1,92 @@
+package org.mfigueroa.App.dto;
+
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Registros a eliminar en una eliminación masiva: una lista de ids o un filtro. Cada endpoint usa solo los
+ * criterios que le corresponden (clientes: sinVentas; productos: stockMaximo, minPrecio y maxPrecio;
+ * ventas: clienteId, desde y hasta) y los combina con AND.
+ */
+public class FiltroEliminacionDTO {
+
+    private List<Long> ids;
+    private Boolean sinVentas;
+    private Integer stockMaximo;
+    private Double minPrecio;
+    private Double maxPrecio;
+    private Long clienteId;
+    private Date desde;
+    private Date hasta;
+
+    public FiltroEliminacionDTO() {
+    }
+
+    public FiltroEliminacionDTO(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    public Boolean getSinVentas() {
+        return sinVentas;
+    }
+
+    public void setSinVentas(Boolean sinVentas) {
+        this.sinVentas = sinVentas;
+    }
+
+    public Integer getStockMaximo() {
+        return stockMaximo;
+    }
+
+    public void setStockMaximo(Integer stockMaximo) {
+        this.stockMaximo = stockMaximo;
+    }
+
+    public Double getMinPrecio() {
+        return minPrecio;
+    }
+
+    public void setMinPrecio(Double minPrecio) {
+        this.minPrecio = minPrecio;
+    }
+
+    public Double getMaxPrecio() {
+        return maxPrecio;
+    }
+
+    public void setMaxPrecio(Double maxPrecio) {
+        this.maxPrecio = maxPrecio;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public Date getDesde() {
+        return desde;
+    }
+
+    public void setDesde(Date desde) {
+        this.desde = desde;
+    }
+
+    public Date getHasta() {
+        return hasta;
+    }
+
+    public void setHasta(Date hasta) {
+        this.hasta = hasta;
+    }
+}
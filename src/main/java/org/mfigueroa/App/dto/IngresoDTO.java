@@ -0,0 +1,44 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Ingreso acumulado de un producto (cantidad = unidades vendidas) o de un cliente (cantidad = ventas)
+ */
+public class IngresoDTO {
+
+    private Long id;
+    private double ingreso;
+    private long cantidad;
+
+    public IngresoDTO() {
+    }
+
+    public IngresoDTO(Long id, double ingreso, long cantidad) {
+        this.id = id;
+        this.ingreso = ingreso;
+        this.cantidad = cantidad;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getIngreso() {
+        return ingreso;
+    }
+
+    public void setIngreso(double ingreso) {
+        this.ingreso = ingreso;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(long cantidad) {
+        this.cantidad = cantidad;
+    }
+}
@@ -0,0 +1,47 @@
+package org.mfigueroa.App.dto;
+
+import java.util.List;
+
+/**
+ * Página obtenida con paginación por cursor (keyset). El cursor se envía tal cual
+ * en la siguiente petición para continuar después del último elemento
+ */
+public class PaginaCursorDTO<T> {
+
+    private List<T> contenido;
+    private String siguienteCursor;
+    private boolean hayMas;
+
+    public PaginaCursorDTO() {
+    }
+
+    public PaginaCursorDTO(List<T> contenido, String siguienteCursor, boolean hayMas) {
+        this.contenido = contenido;
+        this.siguienteCursor = siguienteCursor;
+        this.hayMas = hayMas;
+    }
+
+    public List<T> getContenido() {
+        return contenido;
+    }
+
+    public void setContenido(List<T> contenido) {
+        this.contenido = contenido;
+    }
+
+    public String getSiguienteCursor() {
+        return siguienteCursor;
+    }
+
+    public void setSiguienteCursor(String siguienteCursor) {
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public boolean isHayMas() {
+        return hayMas;
+    }
+
+    public void setHayMas(boolean hayMas) {
+        this.hayMas = hayMas;
+    }
+}
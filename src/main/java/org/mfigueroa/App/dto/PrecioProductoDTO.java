@@ -0,0 +1,34 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Nuevo precio de un producto, para la actualización masiva de precios
+ */
+public class PrecioProductoDTO {
+
+    private Long id;
+    private double precio;
+
+    public PrecioProductoDTO() {
+    }
+
+    public PrecioProductoDTO(Long id, double precio) {
+        this.id = id;
+        this.precio = precio;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public double getPrecio() {
+        return precio;
+    }
+
+    public void setPrecio(double precio) {
+        this.precio = precio;
+    }
+}
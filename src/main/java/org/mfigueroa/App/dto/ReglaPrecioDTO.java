@@ -0,0 +1,45 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Ajuste porcentual de precios para los productos con precio entre minPrecio y maxPrecio (ambos incluidos).
+ * Un porcentaje de 5 sube los precios un 5 %, uno de -10 los baja un 10 %; el resultado se redondea a 2 decimales.
+ */
+public class ReglaPrecioDTO {
+
+    private double porcentaje;
+    private Double minPrecio;
+    private Double maxPrecio;
+
+    public ReglaPrecioDTO() {
+    }
+
+    public ReglaPrecioDTO(double porcentaje, Double minPrecio, Double maxPrecio) {
+        this.porcentaje = porcentaje;
+        this.minPrecio = minPrecio;
+        this.maxPrecio = maxPrecio;
+    }
+
+    public double getPorcentaje() {
+        return porcentaje;
+    }
+
+    public void setPorcentaje(double porcentaje) {
+        this.porcentaje = porcentaje;
+    }
+
+    public Double getMinPrecio() {
+        return minPrecio;
+    }
+
+    public void setMinPrecio(Double minPrecio) {
+        this.minPrecio = minPrecio;
+    }
+
+    public Double getMaxPrecio() {
+        return maxPrecio;
+    }
+
+    public void setMaxPrecio(Double maxPrecio) {
+        this.maxPrecio = maxPrecio;
+    }
+}
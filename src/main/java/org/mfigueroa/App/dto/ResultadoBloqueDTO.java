@@ -0,0 +1,74 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Resultado de un bloque (una transacción) dentro de una carga masiva
+ */
+public class ResultadoBloqueDTO {
+
+    private int bloque;
+    private long primerRegistro;
+    private int registros;
+    private int insertados;
+    private long duracionMs;
+    private String error;
+
+    public ResultadoBloqueDTO() {
+    }
+
+    public ResultadoBloqueDTO(int bloque, long primerRegistro, int registros, int insertados, long duracionMs, String error) {
+        this.bloque = bloque;
+        this.primerRegistro = primerRegistro;
+        this.registros = registros;
+        this.insertados = insertados;
+        this.duracionMs = duracionMs;
+        this.error = error;
+    }
+
+    public int getBloque() {
+        return bloque;
+    }
+
+    public void setBloque(int bloque) {
+        this.bloque = bloque;
+    }
+
+    public long getPrimerRegistro() {
+        return primerRegistro;
+    }
+
+    public void setPrimerRegistro(long primerRegistro) {
+        this.primerRegistro = primerRegistro;
+    }
+
+    public int getRegistros() {
+        return registros;
+    }
+
+    public void setRegistros(int registros) {
+        this.registros = registros;
+    }
+
+    public int getInsertados() {
+        return insertados;
+    }
+
+    public void setInsertados(int insertados) {
+        this.insertados = insertados;
+    }
+
+    public long getDuracionMs() {
+        return duracionMs;
+    }
+
+    public void setDuracionMs(long duracionMs) {
+        this.duracionMs = duracionMs;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
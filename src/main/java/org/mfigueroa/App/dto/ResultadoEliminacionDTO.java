@@ -0,0 +1,73 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Filas eliminadas por tabla en una eliminación masiva
+ */
+public class ResultadoEliminacionDTO {
+
+    private long clientes;
+    private long productos;
+    private long ventas;
+    private long ventaProductos;
+    private int bloques;
+    private long milisegundos;
+
+    public ResultadoEliminacionDTO() {
+    }
+
+    public void agregarBloque(long clientes, long productos, long ventas, long ventaProductos) {
+        this.clientes += clientes;
+        this.productos += productos;
+        this.ventas += ventas;
+        this.ventaProductos += ventaProductos;
+        bloques++;
+    }
+
+    public long getClientes() {
+        return clientes;
+    }
+
+    public void setClientes(long clientes) {
+        this.clientes = clientes;
+    }
+
+    public long getProductos() {
+        return productos;
+    }
+
+    public void setProductos(long productos) {
+        this.productos = productos;
+    }
+
+    public long getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(long ventas) {
+        this.ventas = ventas;
+    }
+
+    public long getVentaProductos() {
+        return ventaProductos;
+    }
+
+    public void setVentaProductos(long ventaProductos) {
+        this.ventaProductos = ventaProductos;
+    }
+
+    public int getBloques() {
+        return bloques;
+    }
+
+    public void setBloques(int bloques) {
+        this.bloques = bloques;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+}
@@ -0,0 +1,75 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Filas insertadas por el generador de datos sintéticos
+ */
+public class ResultadoGeneracionDTO {
+
+    private long clientes;
+    private long productos;
+    private long ventas;
+    private long ventaProductos;
+    private long milisegundos;
+    private double filasPorSegundo;
+
+    public ResultadoGeneracionDTO() {
+    }
+
+    public ResultadoGeneracionDTO(long clientes, long productos, long ventas, long ventaProductos, long milisegundos) {
+        this.clientes = clientes;
+        this.productos = productos;
+        this.ventas = ventas;
+        this.ventaProductos = ventaProductos;
+        this.milisegundos = milisegundos;
+        long filas = clientes + productos + ventas + ventaProductos;
+        this.filasPorSegundo = milisegundos == 0 ? filas : filas * 1000.0 / milisegundos;
+    }
+
+    public long getClientes() {
+        return clientes;
+    }
+
+    public void setClientes(long clientes) {
+        this.clientes = clientes;
+    }
+
+    public long getProductos() {
+        return productos;
+    }
+
+    public void setProductos(long productos) {
+        this.productos = productos;
+    }
+
+    public long getVentas() {
+        return ventas;
+    }
+
+    public void setVentas(long ventas) {
+        this.ventas = ventas;
+    }
+
+    public long getVentaProductos() {
+        return ventaProductos;
+    }
+
+    public void setVentaProductos(long ventaProductos) {
+        this.ventaProductos = ventaProductos;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+
+    public double getFilasPorSegundo() {
+        return filasPorSegundo;
+    }
+
+    public void setFilasPorSegundo(double filasPorSegundo) {
+        this.filasPorSegundo = filasPorSegundo;
+    }
+}
@@ -0,0 +1,75 @@
+package org.mfigueroa.App.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reporte de una carga masiva, con el detalle de cada bloque procesado
+ */
+public class ResultadoLoteDTO {
+
+    private long totalRegistros;
+    private long insertados;
+    private long fallidos;
+    private List<ResultadoBloqueDTO> bloques = new ArrayList<>();
+    private List<ErrorRegistroDTO> errores = new ArrayList<>();
+
+    public ResultadoLoteDTO() {
+    }
+
+    public void agregarBloque(ResultadoBloqueDTO bloque) {
+        bloques.add(bloque);
+        totalRegistros += bloque.getRegistros();
+        insertados += bloque.getInsertados();
+        fallidos += bloque.getRegistros() - bloque.getInsertados();
+    }
+
+    // Registra un registro rechazado antes de llegar a la BD; solo se guarda el detalle de los primeros maxErrores
+    public void agregarError(long linea, String mensaje, int maxErrores) {
+        totalRegistros++;
+        fallidos++;
+        if (errores.size() < maxErrores) {
+            errores.add(new ErrorRegistroDTO(linea, mensaje));
+        }
+    }
+
+    public long getTotalRegistros() {
+        return totalRegistros;
+    }
+
+    public void setTotalRegistros(long totalRegistros) {
+        this.totalRegistros = totalRegistros;
+    }
+
+    public long getInsertados() {
+        return insertados;
+    }
+
+    public void setInsertados(long insertados) {
+        this.insertados = insertados;
+    }
+
+    public long getFallidos() {
+        return fallidos;
+    }
+
+    public void setFallidos(long fallidos) {
+        this.fallidos = fallidos;
+    }
+
+    public List<ResultadoBloqueDTO> getBloques() {
+        return bloques;
+    }
+
+    public void setBloques(List<ResultadoBloqueDTO> bloques) {
+        this.bloques = bloques;
+    }
+
+    public List<ErrorRegistroDTO> getErrores() {
+        return errores;
+    }
+
+    public void setErrores(List<ErrorRegistroDTO> errores) {
+        this.errores = errores;
+    }
+}
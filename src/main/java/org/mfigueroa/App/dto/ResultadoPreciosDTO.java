@@ -0,0 +1,34 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Resultado de una actualización masiva de precios
+ */
+public class ResultadoPreciosDTO {
+
+    private long actualizados;
+    private long milisegundos;
+
+    public ResultadoPreciosDTO() {
+    }
+
+    public ResultadoPreciosDTO(long actualizados, long milisegundos) {
+        this.actualizados = actualizados;
+        this.milisegundos = milisegundos;
+    }
+
+    public long getActualizados() {
+        return actualizados;
+    }
+
+    public void setActualizados(long actualizados) {
+        this.actualizados = actualizados;
+    }
+
+    public long getMilisegundos() {
+        return milisegundos;
+    }
+
+    public void setMilisegundos(long milisegundos) {
+        this.milisegundos = milisegundos;
+    }
+}
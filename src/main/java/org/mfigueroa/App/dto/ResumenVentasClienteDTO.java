@@ -0,0 +1,53 @@
+package org.mfigueroa.App.dto;
+
+import java.util.Date;
+
+public class ResumenVentasClienteDTO {
+
+    private Long clienteId;
+    private double total;
+    private long cantidad;
+    private Date ultimaVenta;
+
+    public ResumenVentasClienteDTO() {
+    }
+
+    public ResumenVentasClienteDTO(Long clienteId, double total, long cantidad, Date ultimaVenta) {
+        this.clienteId = clienteId;
+        this.total = total;
+        this.cantidad = cantidad;
+        this.ultimaVenta = ultimaVenta;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(long cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public Date getUltimaVenta() {
+        return ultimaVenta;
+    }
+
+    public void setUltimaVenta(Date ultimaVenta) {
+        this.ultimaVenta = ultimaVenta;
+    }
+}
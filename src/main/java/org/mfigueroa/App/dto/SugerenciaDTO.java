@@ -0,0 +1,44 @@
+package org.mfigueroa.App.dto;
+
+/**
+ * Sugerencia de autocompletado: el texto que coincidió con el prefijo y su puntaje (unidades vendidas)
+ */
+public class SugerenciaDTO {
+
+    private Long id;
+    private String texto;
+    private long puntaje;
+
+    public SugerenciaDTO() {
+    }
+
+    public SugerenciaDTO(Long id, String texto, long puntaje) {
+        this.id = id;
+        this.texto = texto;
+        this.puntaje = puntaje;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTexto() {
+        return texto;
+    }
+
+    public void setTexto(String texto) {
+        this.texto = texto;
+    }
+
+    public long getPuntaje() {
+        return puntaje;
+    }
+
+    public void setPuntaje(long puntaje) {
+        this.puntaje = puntaje;
+    }
+}
@@ -1,5 +1,6 @@
 package org.mfigueroa.App.dto;
 
+import java.util.ArrayList;
 import java.util.List;
 
 public class VentaDTO {
@@ -19,6 +20,11 @@ public class VentaDTO {
         this.total = total;
     }
 
+    // Usado por las proyecciones JPQL, los ids de productos se asignan después
+    public VentaDTO(Long id, Long clienteId, double total) {
+        this(id, clienteId, new ArrayList<>(), total);
+    }
+
     public Long getId() {
         return id;
     }
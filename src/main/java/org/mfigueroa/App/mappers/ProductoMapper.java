@@ -7,9 +7,6 @@ public class ProductoMapper {
 
 
     public static ProductoDTO toDto(Producto producto) {
-        System.out.println("Producto mapper toDTO");
-        System.out.println("ID PMDTO " + producto.getId());
-
         return
                 new ProductoDTO(producto.getId(), producto.getNombre(), producto.getPrecio(), producto.getStock());
     }
@@ -20,7 +17,6 @@ public class ProductoMapper {
         producto.setNombre(productoDTO.getNombre());
         producto.setPrecio(productoDTO.getPrecio());
         producto.setStock(productoDTO.getStock());
-        System.out.println(producto.getNombre());
         return producto;
     }
 
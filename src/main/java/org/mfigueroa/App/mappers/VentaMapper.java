@@ -1,57 +1,88 @@
 package org.mfigueroa.App.mappers;
 
-import org.mfigueroa.App.dto.ClienteDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
 import org.mfigueroa.App.dto.ProductoDTO;
 import org.mfigueroa.App.dto.VentaDTO;
 import org.mfigueroa.App.model.Cliente;
 import org.mfigueroa.App.model.Producto;
 import org.mfigueroa.App.model.Venta;
 import org.mfigueroa.App.repository.ClienteRepository;
-import org.mfigueroa.App.repository.ProductoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 
 @Service
 public class VentaMapper {
 
+  // Límite de elementos en una lista IN de Oracle
+  private static final int MAX_IDS_POR_CONSULTA = 1000;
+
   @Autowired
   private ClienteRepository clienteRepository;
 
-  @Autowired
-  private  ProductoRepository productoRepository;
+  @PersistenceContext
+  private EntityManager entityManager;
 
     public VentaDTO toDto(Venta venta) {
         List<ProductoDTO> productosDTO = new ArrayList<>();
         for(Producto producto: venta.getProductos()) {
             productosDTO.add(ProductoMapper.toDto(producto));
         }
-        ClienteDTO clienteDTO = ClienteMapper.toDto(venta.getCliente());
         List<Long> productoIds = productosDTO.stream().mapToLong(p -> p.getId()).boxed().toList();
-        return new VentaDTO(venta.getId(), clienteDTO.getId(), productoIds, venta.getTotal());
+        // getId() de un proxy LAZY no lo inicializa, no se consulta el cliente
+        return new VentaDTO(venta.getId(), venta.getCliente().getId(), productoIds, venta.getTotal());
     }
 
     public  Venta toEntity(VentaDTO ventaDTO) {
         Venta venta = new Venta();
         venta.setId(ventaDTO.getId());
+        venta.setFecha(new Date());
         Cliente cliente = clienteRepository.findById(ventaDTO.getClienteId())
                 .orElseThrow( () -> new IllegalArgumentException("Cliente no encontrado"));
         venta.setCliente(cliente);
 
-        List<Long> productosIDs = new ArrayList<>();
-        List<Producto> productos = new ArrayList<>();
+        List<Long> productosIDs = ventaDTO.getProductosId() != null ? ventaDTO.getProductosId() : List.of();
+        Map<Long, Producto> productosPorId = buscarProductos(productosIDs);
 
-        for (Long productoId: ventaDTO.getProductosId()) {
-            Producto producto = new Producto();
-            productos.add(productoRepository.findById(productoId)
-                    .orElseThrow( () -> new RuntimeException("Producto no encontrado")));
+        // Se respeta el orden y las repeticiones de la venta (un id repetido cuenta como otra unidad)
+        List<Producto> productos = new ArrayList<>(productosIDs.size());
+        for (Long productoId: productosIDs) {
+            productos.add(productosPorId.get(productoId));
         }
         venta.setProductos(productos);
         venta.setTotal(productos.stream().mapToDouble(Producto::getPrecio).sum());
         return venta;
     }
 
+    // Resuelve los productos con consultas IN por bloques en lugar de un findById por producto.
+    // multiLoad revisa primero el contexto de persistencia y el cache de segundo nivel, solo consulta los faltantes
+    private Map<Long, Producto> buscarProductos(List<Long> productosIDs) {
+        List<Long> idsUnicos = new ArrayList<>(new LinkedHashSet<>(productosIDs));
+        Map<Long, Producto> productosPorId = new HashMap<>(idsUnicos.size() * 2);
+        List<Producto> encontrados = entityManager.unwrap(Session.class)
+                .byMultipleIds(Producto.class)
+                .withBatchSize(MAX_IDS_POR_CONSULTA)
+                .multiLoad(idsUnicos);
+        for (Producto producto : encontrados) {
+            if (producto != null) {
+                productosPorId.put(producto.getId(), producto);
+            }
+        }
+
+        List<Long> faltantes = idsUnicos.stream().filter(id -> !productosPorId.containsKey(id)).toList();
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Productos no encontrados: " + faltantes);
+        }
+        return productosPorId;
+    }
+
 }
@@ -0,0 +1,55 @@
+package org.mfigueroa.App.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Unidades de un producto tomadas en bloque por una instancia de la aplicación y aún no vendidas ni devueltas.
+ * Si la instancia deja de renovar el bloque antes de {@code expira}, cualquier otra regresa las unidades al stock.
+ */
+@Entity
+@Table(name = "bloques_stock", uniqueConstraints = @UniqueConstraint(columnNames = {"instancia", "producto_id"}))
+public class BloqueStock {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "bloque_stock_seq")
+    @SequenceGenerator(name = "bloque_stock_seq", sequenceName = "bloque_stock_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false)
+    private String instancia;
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+    private int unidades;
+    @Column(nullable = false)
+    private Date expira;
+
+    public BloqueStock() {
+    }
+
+    public BloqueStock(String instancia, Long productoId, int unidades, Date expira) {
+        this.instancia = instancia;
+        this.productoId = productoId;
+        this.unidades = unidades;
+        this.expira = expira;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public int getUnidades() {
+        return unidades;
+    }
+
+    public Date getExpira() {
+        return expira;
+    }
+}
@@ -0,0 +1,46 @@
+package org.mfigueroa.App.model;
+
+import jakarta.persistence.*;
+
+/**
+ * Unidades vendidas de un {@link BloqueStock}, se insertan en la transacción de la venta.
+ * Solo se insertan (no hay una fila caliente por producto); el dueño del bloque las descuenta y borra al renovarlo.
+ */
+@Entity
+@Table(name = "consumos_bloque", indexes = @Index(columnList = "instancia, producto_id"))
+public class ConsumoBloque {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "consumo_bloque_seq")
+    @SequenceGenerator(name = "consumo_bloque_seq", sequenceName = "consumo_bloque_seq", allocationSize = 50)
+    private Long id;
+    @Column(nullable = false)
+    private String instancia;
+    @Column(name = "producto_id", nullable = false)
+    private Long productoId;
+    private int unidades;
+
+    public ConsumoBloque() {
+    }
+
+    public ConsumoBloque(String instancia, Long productoId, int unidades) {
+        this.instancia = instancia;
+        this.productoId = productoId;
+        this.unidades = unidades;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getInstancia() {
+        return instancia;
+    }
+
+    public Long getProductoId() {
+        return productoId;
+    }
+
+    public int getUnidades() {
+        return unidades;
+    }
+}
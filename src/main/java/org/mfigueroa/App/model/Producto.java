@@ -4,20 +4,31 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.List;
 
 @Entity
-@Table(name = "productos")
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_nombre_id", columnList = "nombre, id"),
+        @Index(name = "idx_productos_precio_id", columnList = "precio, id")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "producto")
 public class Producto {
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "producto_seq")
-    //@SequenceGenerator(name = "producto_seq", sequenceName = "producto_seq", allocationSize = 1)
+    @SequenceGenerator(name = "producto_seq", sequenceName = "producto_seq", allocationSize = 50)
     private Long id;
     private String nombre;
     private double precio;
     private int stock;
 
+    // Control optimista de concurrencia, evita perder actualizaciones de stock en actualizarProducto
+    @Version
+    private Long version;
+
     @ManyToMany(mappedBy = "productos")
     private List<Venta> ventas;
 
@@ -64,6 +75,14 @@ public class Producto {
         this.stock = stock;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public List<Venta> getVentas() {
         return ventas;
     }
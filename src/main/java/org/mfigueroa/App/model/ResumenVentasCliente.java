@@ -0,0 +1,62 @@
+package org.mfigueroa.App.model;
+
+import jakarta.persistence.*;
+
+import java.util.Date;
+
+/**
+ * Acumulado de ventas por cliente, se actualiza en la misma transacción que las ventas
+ */
+@Entity
+@Table(name = "resumen_ventas_cliente")
+public class ResumenVentasCliente {
+    @Id
+    @Column(name = "cliente_id")
+    private Long clienteId;
+    private double total;
+    private long cantidad;
+    @Column(name = "ultima_venta")
+    private Date ultimaVenta;
+
+    public ResumenVentasCliente() {
+    }
+
+    public ResumenVentasCliente(Long clienteId, double total, long cantidad, Date ultimaVenta) {
+        this.clienteId = clienteId;
+        this.total = total;
+        this.cantidad = cantidad;
+        this.ultimaVenta = ultimaVenta;
+    }
+
+    public Long getClienteId() {
+        return clienteId;
+    }
+
+    public void setClienteId(Long clienteId) {
+        this.clienteId = clienteId;
+    }
+
+    public double getTotal() {
+        return total;
+    }
+
+    public void setTotal(double total) {
+        this.total = total;
+    }
+
+    public long getCantidad() {
+        return cantidad;
+    }
+
+    public void setCantidad(long cantidad) {
+        this.cantidad = cantidad;
+    }
+
+    public Date getUltimaVenta() {
+        return ultimaVenta;
+    }
+
+    public void setUltimaVenta(Date ultimaVenta) {
+        this.ultimaVenta = ultimaVenta;
+    }
+}
@@ -4,6 +4,7 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Date;
 import java.util.List;
@@ -12,15 +13,20 @@ import java.util.List;
 @Table(name = "ventas")
 public class Venta {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    // Secuencia por bloques como Cliente y Producto: con IDENTITY los inserts de ventas no salen en batch
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "venta_seq")
+    @SequenceGenerator(name = "venta_seq", sequenceName = "venta_seq", allocationSize = 50)
     private Long id;
     private Date fecha;
     private double total;
 
-    @ManyToOne
+    // LAZY: para leer el id del cliente no hace falta cargarlo
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "cliente_id", nullable = false)
     private Cliente cliente;
 
+    // Si se recorren ventas sin fetch join, sus productos se cargan en bloques de 100 ventas
+    @BatchSize(size = 100)
     @ManyToMany
     @JoinTable(
             name = "venta_producto",
@@ -0,0 +1,50 @@
+package org.mfigueroa.App.repository;
+
+import org.mfigueroa.App.model.BloqueStock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface BloqueStockRepository extends JpaRepository<BloqueStock, Long> {
+
+    // Suma unidades al bloque de la instancia y lo renueva; 0 si la instancia aún no tiene bloque del producto
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueStock b SET b.unidades = b.unidades + :cantidad, b.expira = :expira " +
+            "WHERE b.instancia = :instancia AND b.productoId = :productoId")
+    int sumarUnidades(@Param("instancia") String instancia, @Param("productoId") Long productoId,
+                      @Param("cantidad") int cantidad, @Param("expira") Date expira);
+
+    // Descuenta unidades vendidas o devueltas; 0 si el bloque ya no existe (lo recuperó otra instancia)
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueStock b SET b.unidades = b.unidades - :cantidad " +
+            "WHERE b.instancia = :instancia AND b.productoId = :productoId")
+    int restarUnidades(@Param("instancia") String instancia, @Param("productoId") Long productoId,
+                       @Param("cantidad") int cantidad);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BloqueStock b WHERE b.instancia = :instancia AND b.productoId = :productoId AND b.unidades <= 0")
+    int eliminarVacio(@Param("instancia") String instancia, @Param("productoId") Long productoId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE BloqueStock b SET b.expira = :expira WHERE b.instancia = :instancia")
+    int renovar(@Param("instancia") String instancia, @Param("expira") Date expira);
+
+    // Bloques de instancias que dejaron de renovarlos (caídas o detenidas sin devolverlos)
+    @Query("SELECT b FROM BloqueStock b WHERE b.expira < :ahora ORDER BY b.id")
+    List<BloqueStock> findVencidos(@Param("ahora") Date ahora);
+
+    // Solo una instancia logra borrar el bloque vencido y por lo tanto devolver sus unidades
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM BloqueStock b WHERE b.id = :id AND b.expira < :ahora")
+    int eliminarVencido(@Param("id") Long id, @Param("ahora") Date ahora);
+}
@@ -1,16 +1,23 @@
 package org.mfigueroa.App.repository;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mfigueroa.App.dto.ClienteDTO;
 import org.mfigueroa.App.model.Cliente;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 
@@ -19,6 +26,37 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
     @Query("SELECT c FROM Cliente c")
     List<Cliente> findAllClientes();
 
+    // Proyecciones directas a DTO: solo las columnas del DTO, sin entidades administradas
+    @Query("SELECT new org.mfigueroa.App.dto.ClienteDTO(c.id, c.nombre, c.email) FROM Cliente c")
+    List<ClienteDTO> findAllClientesDTO();
+
+    @Query("SELECT new org.mfigueroa.App.dto.ClienteDTO(c.id, c.nombre, c.email) FROM Cliente c " +
+            "WHERE LOWER(c.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    List<ClienteDTO> findDTOByNombre(String nombre);
+
+    @Query("SELECT new org.mfigueroa.App.dto.ClienteDTO(c.id, c.nombre, c.email) FROM Cliente c " +
+            "WHERE c.id IN :ids ORDER BY c.id")
+    List<ClienteDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Pares (id, nombre) para construir el índice de búsqueda (requiere una transacción abierta)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.nombre FROM Cliente c")
+    Stream<Object[]> streamIdNombre();
+
+    // (id, nombre, email, ventas) para el autocompletado; las ventas salen del resumen por cliente
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT c.id, c.nombre, c.email, COALESCE(r.cantidad, 0) FROM Cliente c " +
+            "LEFT JOIN ResumenVentasCliente r ON r.clienteId = c.id")
+    Stream<Object[]> streamSugerencias();
+
+    // Recorrer todos los clientes como stream (requiere una transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Cliente c")
+    Stream<Cliente> streamAllClientes();
+
     // Consulta JPQL para obtener clientes por correo
 //    @Query("SELECT c FROM Cliente c WHERE c.email = :email")
 //    Optional<Cliente> findByCorreo(@Param("email") String email);
@@ -56,6 +94,16 @@ public interface ClienteRepository extends JpaRepository<Cliente, Long> {
 //    @Query("DELETE FROM Cliente c WHERE c.id = '" + ":id" + "'")
 //    void deleteById(Long id);
 
+    // Eliminación masiva de clientes sin ventas, por bloques en orden de id
+    @Query("SELECT c.id FROM Cliente c WHERE c.id > :ultimo " +
+            "AND NOT EXISTS (SELECT 1 FROM Venta v WHERE v.cliente = c) ORDER BY c.id")
+    List<Long> findIdsSinVentas(@Param("ultimo") long ultimo, Limit limite);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Cliente c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
     // Método para filtrar por nombre (como ejemplo)
     List<Cliente> findByNombreContainingIgnoreCase(String nombre);
 
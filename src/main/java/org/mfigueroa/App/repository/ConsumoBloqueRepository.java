@@ -0,0 +1,33 @@
+package org.mfigueroa.App.repository;
+
+import org.mfigueroa.App.model.ConsumoBloque;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface ConsumoBloqueRepository extends JpaRepository<ConsumoBloque, Long> {
+
+    @Query("SELECT c FROM ConsumoBloque c WHERE c.instancia = :instancia AND c.productoId = :productoId ORDER BY c.id")
+    List<ConsumoBloque> findPorBloque(@Param("instancia") String instancia, @Param("productoId") Long productoId,
+                                      Limit limite);
+
+    @Query("SELECT COALESCE(SUM(c.unidades), 0) FROM ConsumoBloque c " +
+            "WHERE c.instancia = :instancia AND c.productoId = :productoId")
+    long sumarPorBloque(@Param("instancia") String instancia, @Param("productoId") Long productoId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConsumoBloque c WHERE c.instancia = :instancia AND c.productoId = :productoId")
+    int eliminarPorBloque(@Param("instancia") String instancia, @Param("productoId") Long productoId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ConsumoBloque c WHERE c.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
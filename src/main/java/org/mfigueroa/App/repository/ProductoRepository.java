@@ -1,38 +1,143 @@
 package org.mfigueroa.App.repository;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.mfigueroa.App.dto.ProductoDTO;
 import org.mfigueroa.App.model.Producto;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface ProductoRepository extends JpaRepository<Producto, Long> {
 
+    // Proyección directa a DTO: solo las columnas del DTO, sin entidades administradas
+    String SELECT_PRODUCTO_DTO = "SELECT new org.mfigueroa.App.dto.ProductoDTO(p.id, p.nombre, p.precio, p.stock) FROM Producto p";
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_PRODUCTO_DTO)
+    List<ProductoDTO> findAllDTO();
+
+    @Query(value = SELECT_PRODUCTO_DTO, countQuery = "SELECT COUNT(p) FROM Producto p")
+    Page<ProductoDTO> findAllDTO(Pageable pageable);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_PRODUCTO_DTO + " WHERE p.precio <= :precio")
+    List<ProductoDTO> findDTOByPrecioMenorA(@Param("precio") double precio);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    @Query(SELECT_PRODUCTO_DTO + " WHERE p.stock > 0")
+    List<ProductoDTO> findDTOEnStock();
+
+    @Query(value = SELECT_PRODUCTO_DTO + " WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))",
+            countQuery = "SELECT COUNT(p) FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
+    Page<ProductoDTO> findDTOByNombre(@Param("nombre") String nombre, Pageable pageable);
+
+    @Query(SELECT_PRODUCTO_DTO + " WHERE p.id IN :ids")
+    List<ProductoDTO> findDTOByIdIn(@Param("ids") Collection<Long> ids, Sort sort);
+
+    // Pares (id, nombre) para construir el índice de búsqueda (requiere una transacción abierta)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT p.id, p.nombre FROM Producto p")
+    Stream<Object[]> streamIdNombre();
+
+    // (id, nombre, unidades vendidas) para el autocompletado
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT p.id, p.nombre, COUNT(vp.producto_id) FROM productos p " +
+            "LEFT JOIN venta_producto vp ON vp.producto_id = p.id GROUP BY p.id, p.nombre", nativeQuery = true)
+    Stream<Object[]> streamSugerencias();
+
+    @Query(value = SELECT_PRODUCTO_DTO + " WHERE p.precio BETWEEN :minPrecio AND :maxPrecio",
+            countQuery = "SELECT COUNT(p) FROM Producto p WHERE p.precio BETWEEN :minPrecio AND :maxPrecio")
+    Page<ProductoDTO> findDTOByPrecioBetween(@Param("minPrecio") Double minPrecio, @Param("maxPrecio") Double maxPrecio,
+                                             Pageable pageable);
+
+    // Obtener todos los productos (usa el cache de consultas si está habilitado)
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Producto> findAll();
+
+    // Recorrer todos los productos como stream (requiere una transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Producto p")
+    Stream<Producto> streamAll();
+
     // Consulta JPQL para obtener productos por precio
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Producto p WHERE p.precio <= :precio")
     List<Producto> findByPrecioMenorA(@Param("precio") double precio);
 
     // Consulta JPQL para obtener productos en stock
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT p FROM Producto p WHERE p.stock > 0")
     List<Producto> findProductosEnStock();
 
     // Actualizar el precio de un producto por su ID
     @Modifying
     @Transactional
-    @Query("UPDATE Producto p SET p.precio = :precio WHERE p.id = :id")
+    @Query("UPDATE Producto p SET p.precio = :precio, p.version = p.version + 1 WHERE p.id = :id")
     int updateProductoPrecio(Long id, double precio);
 
     // Actualizar el precio de un producto por su id
     @Modifying
     @Transactional
-    @Query("UPDATE Producto p SET p.precio = :precio WHERE p.id = :id")
+    @Query("UPDATE Producto p SET p.precio = :precio, p.version = p.version + 1 WHERE p.id = :id")
     void actualizarPrecio(@Param("id") Long id, @Param("precio") double precio);
 
 
+    // Ajuste de precios por rango en una sola sentencia; Hibernate invalida el cache de consultas de productos
+    @Modifying
+    @Transactional
+    @Query("UPDATE Producto p SET p.precio = ROUND(p.precio * :factor, 2), p.version = p.version + 1 " +
+            "WHERE p.precio BETWEEN :minPrecio AND :maxPrecio")
+    int ajustarPrecios(@Param("factor") double factor, @Param("minPrecio") double minPrecio,
+                       @Param("maxPrecio") double maxPrecio);
+
+    // Descuenta stock solo si hay unidades suficientes, devuelve 0 si no se pudo descontar
+    @Modifying
+    @Transactional
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad, p.version = p.version + 1 " +
+            "WHERE p.id = :id AND p.stock >= :cantidad")
+    int descontarStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    // Regresa unidades al stock de un producto
+    @Modifying
+    @Transactional
+    @Query("UPDATE Producto p SET p.stock = p.stock + :cantidad, p.version = p.version + 1 WHERE p.id = :id")
+    int devolverStock(@Param("id") Long id, @Param("cantidad") int cantidad);
+
+    // Eliminación masiva: los ids se obtienen por bloques en orden de id para acotar cada transacción
+    @Query("SELECT p.id FROM Producto p WHERE p.id > :ultimo " +
+            "AND (:stockMaximo IS NULL OR p.stock <= :stockMaximo) " +
+            "AND (:minPrecio IS NULL OR p.precio >= :minPrecio) " +
+            "AND (:maxPrecio IS NULL OR p.precio <= :maxPrecio) ORDER BY p.id")
+    List<Long> findIdsParaEliminar(@Param("ultimo") long ultimo, @Param("stockMaximo") Integer stockMaximo,
+                                   @Param("minPrecio") Double minPrecio, @Param("maxPrecio") Double maxPrecio,
+                                   Limit limite);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Producto p WHERE p.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT p.stock FROM Producto p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
+
     // Consulta JPQL para obtener productos por nombre
     @Query("SELECT p FROM Producto p WHERE LOWER(p.nombre) LIKE LOWER(CONCAT('%', :nombre, '%'))")
     Page<Producto> findByNombre(@Param("nombre") String nombre, Pageable pageable);
@@ -40,6 +145,22 @@ public interface ProductoRepository extends JpaRepository<Producto, Long> {
     //Obtener productos de rango de precio
     Page<Producto>findByPrecioBetween(Double minPrecio, Double maxPrecio, Pageable pageable);
 
+    // Paginación por cursor (keyset): busca a partir del último (campo, id) sin OFFSET ni COUNT
+    Window<Producto> findBy(ScrollPosition posicion, Sort sort, Limit limite);
+
+    Window<Producto> findByPrecioBetween(Double minPrecio, Double maxPrecio, ScrollPosition posicion, Sort sort, Limit limite);
+
+    // Por nombre (nulable) se recorren por separado las filas con nombre y las que no lo tienen
+    Window<Producto> findByNombreIsNotNull(ScrollPosition posicion, Sort sort, Limit limite);
+
+    Window<Producto> findByNombreIsNull(ScrollPosition posicion, Sort sort, Limit limite);
+
+    Window<Producto> findByPrecioBetweenAndNombreIsNotNull(Double minPrecio, Double maxPrecio, ScrollPosition posicion,
+                                                           Sort sort, Limit limite);
+
+    Window<Producto> findByPrecioBetweenAndNombreIsNull(Double minPrecio, Double maxPrecio, ScrollPosition posicion,
+                                                        Sort sort, Limit limite);
+
     // Obtener todos los productos con paginación y ordenación
     @Override
     Page<Producto> findAll(Pageable pageable);
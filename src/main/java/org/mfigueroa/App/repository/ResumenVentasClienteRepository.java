@@ -0,0 +1,90 @@
+package org.mfigueroa.App.repository;
+
+import java.util.Collection;
+import org.mfigueroa.App.model.ResumenVentasCliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+
+public interface ResumenVentasClienteRepository extends JpaRepository<ResumenVentasCliente, Long> {
+
+    // Crea el resumen en cero solo si el cliente existe y aún no tiene resumen
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO resumen_ventas_cliente (cliente_id, total, cantidad, ultima_venta) " +
+            "SELECT c.id, 0, 0, NULL FROM clientes c WHERE c.id = :clienteId " +
+            "AND NOT EXISTS (SELECT 1 FROM resumen_ventas_cliente r WHERE r.cliente_id = c.id)", nativeQuery = true)
+    int crearResumen(@Param("clienteId") Long clienteId);
+
+    // Suma una venta al resumen del cliente
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumenVentasCliente r SET r.total = r.total + :total, r.cantidad = r.cantidad + 1, " +
+            "r.ultimaVenta = CASE WHEN r.ultimaVenta IS NULL OR r.ultimaVenta < :fecha THEN :fecha ELSE r.ultimaVenta END " +
+            "WHERE r.clienteId = :clienteId")
+    int sumarVenta(@Param("clienteId") Long clienteId, @Param("total") double total, @Param("fecha") Date fecha);
+
+    // Suma varias ventas del cliente de una vez (ingesta agrupada)
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumenVentasCliente r SET r.total = r.total + :total, r.cantidad = r.cantidad + :cantidad, " +
+            "r.ultimaVenta = CASE WHEN r.ultimaVenta IS NULL OR r.ultimaVenta < :fecha THEN :fecha ELSE r.ultimaVenta END " +
+            "WHERE r.clienteId = :clienteId")
+    int sumarVentas(@Param("clienteId") Long clienteId, @Param("total") double total,
+                    @Param("cantidad") long cantidad, @Param("fecha") Date fecha);
+
+    // Resta una venta del resumen del cliente
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumenVentasCliente r SET r.total = r.total - :total, r.cantidad = r.cantidad - 1 " +
+            "WHERE r.clienteId = :clienteId")
+    int restarVenta(@Param("clienteId") Long clienteId, @Param("total") double total);
+
+    // Recalcula la fecha de la última venta, solo si la venta quitada era la última
+    @Modifying
+    @Transactional
+    @Query("UPDATE ResumenVentasCliente r SET r.ultimaVenta = " +
+            "(SELECT MAX(v.fecha) FROM Venta v WHERE v.cliente.id = :clienteId) " +
+            "WHERE r.clienteId = :clienteId AND r.ultimaVenta = :fecha")
+    int recalcularUltimaVenta(@Param("clienteId") Long clienteId, @Param("fecha") Date fecha);
+
+    // Crea en cero los resúmenes que faltan para los clientes con ventas; luego se recalculan por bloques
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO resumen_ventas_cliente (cliente_id, total, cantidad, ultima_venta) " +
+            "SELECT c.id, 0, 0, NULL FROM clientes c WHERE EXISTS (SELECT 1 FROM ventas v WHERE v.cliente_id = c.id) " +
+            "AND NOT EXISTS (SELECT 1 FROM resumen_ventas_cliente r WHERE r.cliente_id = c.id)", nativeQuery = true)
+    int crearResumenesFaltantes();
+
+    // Resúmenes de clientes que ya no existen
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM resumen_ventas_cliente r " +
+            "WHERE NOT EXISTS (SELECT 1 FROM clientes c WHERE c.id = r.cliente_id)", nativeQuery = true)
+    int eliminarHuerfanos();
+
+    // Recorre los resúmenes por bloques en orden de id
+    @Query("SELECT r.clienteId FROM ResumenVentasCliente r WHERE r.clienteId > :ultimo ORDER BY r.clienteId")
+    List<Long> findIdsDesde(@Param("ultimo") long ultimo, Limit limite);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM ResumenVentasCliente r WHERE r.clienteId IN :clienteIds")
+    int eliminarPorClientes(@Param("clienteIds") Collection<Long> clienteIds);
+
+    // Recalcula desde la tabla de ventas los resúmenes de un bloque de clientes, en una sola sentencia
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE resumen_ventas_cliente r SET " +
+            "total = (SELECT COALESCE(SUM(v.total), 0) FROM ventas v WHERE v.cliente_id = r.cliente_id), " +
+            "cantidad = (SELECT COUNT(*) FROM ventas v WHERE v.cliente_id = r.cliente_id), " +
+            "ultima_venta = (SELECT MAX(v.fecha) FROM ventas v WHERE v.cliente_id = r.cliente_id) " +
+            "WHERE r.cliente_id IN (:clienteIds)", nativeQuery = true)
+    int recalcular(@Param("clienteIds") Collection<Long> clienteIds);
+}
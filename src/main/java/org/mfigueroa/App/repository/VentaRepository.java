@@ -1,25 +1,87 @@
 package org.mfigueroa.App.repository;
 
+import jakarta.persistence.QueryHint;
+import java.util.Date;
+import org.hibernate.jpa.HibernateHints;
+import org.mfigueroa.App.dto.VentaDTO;
 import org.mfigueroa.App.model.Venta;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface VentaRepository extends JpaRepository<Venta, Long> {
 
+    // Recorrer todas las ventas como stream (requiere una transacción abierta)
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    // Fetch join ordenado por id: ventas y productos en una sola consulta, agrupados por venta
+    @Query("SELECT v FROM Venta v LEFT JOIN FETCH v.productos ORDER BY v.id")
+    Stream<Venta> streamAll();
+
+    // Proyecciones directas a DTO, los ids de productos se completan con findProductoIds*
+    @Query("SELECT new org.mfigueroa.App.dto.VentaDTO(v.id, v.cliente.id, v.total) FROM Venta v")
+    List<VentaDTO> findAllDTO();
+
+    @Query("SELECT new org.mfigueroa.App.dto.VentaDTO(v.id, v.cliente.id, v.total) FROM Venta v WHERE v.cliente.id = :clienteId")
+    List<VentaDTO> findDTOByClienteId(Long clienteId);
+
+    @Query(value = "SELECT new org.mfigueroa.App.dto.VentaDTO(v.id, v.cliente.id, v.total) FROM Venta v",
+            countQuery = "SELECT COUNT(v) FROM Venta v")
+    Page<VentaDTO> findAllDTO(Pageable pageable);
+
+    @Query(value = "SELECT new org.mfigueroa.App.dto.VentaDTO(v.id, v.cliente.id, v.total) FROM Venta v " +
+            "WHERE v.cliente.id = :clienteId",
+            countQuery = "SELECT COUNT(v) FROM Venta v WHERE v.cliente.id = :clienteId")
+    Page<VentaDTO> findDTOByClienteId(@Param("clienteId") Long clienteId, Pageable pageable);
+
+    // (id, cliente_id, total, fecha, producto_id, precio) por línea, ordenado por venta, para la analítica en memoria.
+    // Las ventas sin productos aparecen una vez con producto_id nulo (requiere una transacción abierta)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query(value = "SELECT v.id, v.cliente_id, v.total, v.fecha, vp.producto_id, p.precio FROM ventas v " +
+            "LEFT JOIN venta_producto vp ON vp.venta_id = v.id LEFT JOIN productos p ON p.id = vp.producto_id " +
+            "ORDER BY v.id", nativeQuery = true)
+    Stream<Object[]> streamLineasAnalitica();
+
+    // Pares (venta_id, producto_id) leídos de la tabla intermedia, sin cargar productos
+    @Query(value = "SELECT venta_id, producto_id FROM venta_producto", nativeQuery = true)
+    List<Object[]> findAllProductoIds();
+
+    @Query(value = "SELECT vp.venta_id, vp.producto_id FROM venta_producto vp " +
+            "JOIN ventas v ON v.id = vp.venta_id WHERE v.cliente_id = :clienteId", nativeQuery = true)
+    List<Object[]> findProductoIdsByClienteId(@Param("clienteId") Long clienteId);
+
+    @Query(value = "SELECT venta_id, producto_id FROM venta_producto WHERE venta_id IN (:ventaIds)", nativeQuery = true)
+    List<Object[]> findProductoIdsByVentaIds(@Param("ventaIds") Collection<Long> ventaIds);
+
+    @EntityGraph(attributePaths = "productos")
     @Query("SELECT v FROM Venta v WHERE v.cliente.id = :clienteId")
     List<Venta> findByClienteId(Long clienteId);
 
-    @Query("SELECT SUM(v.total) FROM Venta v WHERE v.cliente.id = :clienteId")
+    @Query("SELECT COALESCE(SUM(v.total), 0) FROM Venta v WHERE v.cliente.id = :clienteId")
     double findTotalVentasByClienteId(Long clienteId);
 
     @Query("SELECT v FROM Venta v JOIN v.productos p WHERE p.id = :productoId")
     List<Venta> findVentasPorProducto(Long productoId);
 
+    // Elimina los productos de la venta en la tabla intermedia, antes de eliminar la venta
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM venta_producto WHERE venta_id = :id", nativeQuery = true)
+    int deleteProductosDeVenta(@Param("id") Long id);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Venta v WHERE v.id = :id")
@@ -31,4 +93,52 @@ public interface VentaRepository extends JpaRepository<Venta, Long> {
     @Query("UPDATE Venta v SET v.cliente.id = :clienteId WHERE v.id = :ventaId")
     void actualizarClienteDeVenta(@Param("clienteId") Long clienteId, @Param("ventaId") Long ventaId);
 
+    // Eliminación masiva: los ids se obtienen por bloques en orden de id para acotar cada transacción
+    @Query("SELECT v.id FROM Venta v WHERE v.id > :ultimo " +
+            "AND (:clienteId IS NULL OR v.cliente.id = :clienteId) " +
+            "AND (:desde IS NULL OR v.fecha >= :desde) " +
+            "AND (:hasta IS NULL OR v.fecha < :hasta) ORDER BY v.id")
+    List<Long> findIdsParaEliminar(@Param("ultimo") long ultimo, @Param("clienteId") Long clienteId,
+                                   @Param("desde") Date desde, @Param("hasta") Date hasta, Limit limite);
+
+    // (cliente_id, ventas) de un bloque de ventas, para los resúmenes y el autocompletado
+    @Query("SELECT v.cliente.id, COUNT(v) FROM Venta v WHERE v.id IN :ids GROUP BY v.cliente.id")
+    List<Object[]> contarVentasPorCliente(@Param("ids") Collection<Long> ids);
+
+    // (producto_id, unidades) vendidas en un bloque de ventas
+    @Query(value = "SELECT producto_id, COUNT(*) FROM venta_producto WHERE venta_id IN (:ids) " +
+            "GROUP BY producto_id", nativeQuery = true)
+    List<Object[]> contarUnidadesPorVentas(@Param("ids") Collection<Long> ids);
+
+    // (producto_id, unidades) vendidas a un bloque de clientes
+    @Query(value = "SELECT vp.producto_id, COUNT(*) FROM venta_producto vp JOIN ventas v ON v.id = vp.venta_id " +
+            "WHERE v.cliente_id IN (:clienteIds) GROUP BY vp.producto_id", nativeQuery = true)
+    List<Object[]> contarUnidadesPorClientes(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM venta_producto WHERE venta_id IN (:ids)", nativeQuery = true)
+    int deleteProductosDeVentas(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM venta_producto WHERE venta_id IN " +
+            "(SELECT v.id FROM ventas v WHERE v.cliente_id IN (:clienteIds))", nativeQuery = true)
+    int deleteProductosDeVentasDeClientes(@Param("clienteIds") Collection<Long> clienteIds);
+
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM venta_producto WHERE producto_id IN (:productoIds)", nativeQuery = true)
+    int deleteVentaProductoPorProductos(@Param("productoIds") Collection<Long> productoIds);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Venta v WHERE v.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM Venta v WHERE v.cliente.id IN :clienteIds")
+    int deleteByClienteIdIn(@Param("clienteIds") Collection<Long> clienteIds);
+
 }
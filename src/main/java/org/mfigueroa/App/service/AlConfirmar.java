@@ -0,0 +1,27 @@
+package org.mfigueroa.App.service;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aplica un cambio en memoria (índices, contadores, instantáneas) solo si se confirma la transacción en curso;
+ * sin transacción se aplica de inmediato. Así un rollback nunca deja la memoria adelantada a la BD.
+ */
+final class AlConfirmar {
+
+    private AlConfirmar() {
+    }
+
+    static void ejecutar(Runnable accion) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            accion.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                accion.run();
+            }
+        });
+    }
+}
@@ -0,0 +1,221 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.model.Venta;
+import org.mfigueroa.App.repository.VentaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Analítica de ventas en memoria sobre una instantánea columnar ({@link ColumnasVentas}): ingreso por producto
+ * y por cliente, los productos y clientes con más ingreso, ticket promedio y productos por venta.
+ * Es opcional ({@code app.analitica.activa=true}): cada instancia mantiene todas las ventas en el heap.
+ * <p>
+ * La instantánea se carga al arrancar y las ventas nuevas, las eliminaciones de ventas o de clientes y los
+ * cambios de cliente se aplican al confirmarse, sin volver a la BD. Solo la eliminación de productos (que quita
+ * líneas de ventas ya cargadas) la marca como desactualizada y se reconstruye en la siguiente revisión
+ * ({@code app.analitica.revision-ms}); hasta entonces esas líneas siguen contando. Los cambios que se confirman
+ * mientras se reconstruye se aplican al terminar.
+ */
+@Component
+public class AnaliticaVentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliticaVentas.class);
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.analitica.activa:false}")
+    private boolean activa;
+
+    @Value("${app.analitica.top-maximo:1000}")
+    private int topMaximo;
+
+    private volatile ColumnasVentas columnas = new ColumnasVentas(0, 0);
+
+    // Cambios confirmados durante una reconstrucción, null si no hay una en curso
+    private List<Consumer<ColumnasVentas>> pendientes;
+
+    private volatile boolean desactualizada;
+
+    private final Object escritura = new Object();
+    private final Object reconstruccion = new Object();
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        if (activa) {
+            reconstruir();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.analitica.revision-ms:60000}")
+    public void revisar() {
+        if (activa && desactualizada) {
+            reconstruir();
+        }
+    }
+
+    public void reconstruir() {
+        synchronized (reconstruccion) {
+            long inicio = System.currentTimeMillis();
+            desactualizada = false;
+            synchronized (escritura) {
+                pendientes = new ArrayList<>();
+            }
+            ColumnasVentas nuevas;
+            try {
+                nuevas = cargar();
+            } catch (RuntimeException ex) {
+                desactualizada = true;
+                publicar(columnas);
+                throw ex;
+            }
+            publicar(nuevas);
+            logger.info("Analítica de ventas cargada en {} ms ({} ventas)", System.currentTimeMillis() - inicio,
+                    nuevas.tamano());
+        }
+    }
+
+    // Agrupa las filas (una por línea, ordenadas por venta) en ventas completas
+    private ColumnasVentas cargar() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        return transaccion.execute(status -> {
+            ColumnasVentas nuevas = new ColumnasVentas((int) ventaRepository.count(), 0);
+            long[] productos = new long[16];
+            double[] precios = new double[16];
+            int lineas = 0;
+            Object[] actual = null;
+            try (Stream<Object[]> filas = ventaRepository.streamLineasAnalitica()) {
+                for (Object[] fila : (Iterable<Object[]>) filas::iterator) {
+                    if (actual != null && numero(fila[0]) != numero(actual[0])) {
+                        agregar(nuevas, actual, productos, precios, lineas);
+                        lineas = 0;
+                    }
+                    actual = fila;
+                    if (fila[4] != null) {
+                        if (lineas == productos.length) {
+                            productos = Arrays.copyOf(productos, lineas * 2);
+                            precios = Arrays.copyOf(precios, lineas * 2);
+                        }
+                        productos[lineas] = numero(fila[4]);
+                        precios[lineas++] = ((Number) fila[5]).doubleValue();
+                    }
+                }
+            }
+            if (actual != null) {
+                agregar(nuevas, actual, productos, precios, lineas);
+            }
+            return nuevas;
+        });
+    }
+
+    private static void agregar(ColumnasVentas columnas, Object[] venta, long[] productos, double[] precios, int lineas) {
+        long fecha = venta[3] != null ? ((Date) venta[3]).getTime() : 0;
+        columnas.agregar(numero(venta[0]), numero(venta[1]), ((Number) venta[2]).doubleValue(), fecha,
+                Arrays.copyOf(productos, lineas), Arrays.copyOf(precios, lineas));
+    }
+
+    private static long numero(Object valor) {
+        return ((Number) valor).longValue();
+    }
+
+    // Repite en orden los cambios confirmados durante la carga; agregar y eliminar ignoran lo que la carga ya vio
+    private void publicar(ColumnasVentas base) {
+        synchronized (escritura) {
+            pendientes.forEach(cambio -> cambio.accept(base));
+            pendientes = null;
+            columnas = base;
+        }
+    }
+
+    // Aplica el cambio al confirmarse la transacción, o lo guarda para después si hay una reconstrucción en curso
+    private void aplicar(Consumer<ColumnasVentas> cambio) {
+        AlConfirmar.ejecutar(() -> {
+            synchronized (escritura) {
+                if (pendientes != null) {
+                    pendientes.add(cambio);
+                } else {
+                    cambio.accept(columnas);
+                }
+            }
+        });
+    }
+
+    // Se copian los datos de la venta ahora; se agrega a la instantánea al confirmarse la transacción
+    public void registrarVenta(Venta venta) {
+        if (!activa) {
+            return;
+        }
+        List<Producto> lista = venta.getProductos() != null ? venta.getProductos() : List.of();
+        long[] productos = new long[lista.size()];
+        double[] precios = new double[lista.size()];
+        for (int i = 0; i < lista.size(); i++) {
+            productos[i] = lista.get(i).getId();
+            precios[i] = lista.get(i).getPrecio();
+        }
+        long id = venta.getId();
+        long clienteId = venta.getCliente().getId();
+        double total = venta.getTotal();
+        long fecha = venta.getFecha() != null ? venta.getFecha().getTime() : 0;
+        aplicar(c -> c.agregar(id, clienteId, total, fecha, productos, precios));
+    }
+
+    public void eliminarVentas(Collection<Long> ventaIds) {
+        if (activa) {
+            List<Long> ids = List.copyOf(ventaIds);
+            aplicar(c -> c.eliminar(ids));
+        }
+    }
+
+    public void eliminarClientes(Collection<Long> clienteIds) {
+        if (activa) {
+            List<Long> ids = List.copyOf(clienteIds);
+            aplicar(c -> c.eliminarClientes(ids));
+        }
+    }
+
+    public void cambiarCliente(long ventaId, long clienteId) {
+        if (activa) {
+            aplicar(c -> c.cambiarCliente(ventaId, clienteId));
+        }
+    }
+
+    // Eliminación de productos: la instantánea se reconstruye en la siguiente revisión
+    public void invalidar() {
+        if (activa) {
+            AlConfirmar.ejecutar(() -> desactualizada = true);
+        }
+    }
+
+    public AnaliticaVentasDTO analizar(Date desde, Date hasta, int top) {
+        if (!activa) {
+            throw new IllegalStateException("La analítica de ventas no está activa");
+        }
+        long inicio = System.nanoTime();
+        AnaliticaVentasDTO resultado = columnas.analizar(desde != null ? desde.getTime() : null,
+                hasta != null ? hasta.getTime() : null, Math.min(Math.max(top, 0), topMaximo));
+        resultado.setMilisegundos((System.nanoTime() - inicio) / 1_000_000);
+        return resultado;
+    }
+}
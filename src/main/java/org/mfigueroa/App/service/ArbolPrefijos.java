@@ -0,0 +1,404 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.dto.SugerenciaDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Árbol de prefijos compacto (radix: cada arista guarda una cadena, no un carácter) para autocompletar.
+ * Cada nodo mantiene las mejores {@code capacidad} entradas de su subárbol ordenadas por puntaje, así una
+ * consulta solo baja por el prefijo y copia esa lista, sin recorrer el subárbol.
+ * Un mismo id puede tener varias claves (nombre, email, cada palabra del nombre) y aparecer más de una vez
+ * entre las mejores de un nodo; las sugerencias se devuelven sin ids repetidos.
+ */
+public class ArbolPrefijos {
+
+    private static final Comparator<Entrada> ORDEN = Comparator.comparingLong((Entrada e) -> -e.puntaje)
+            .thenComparing(e -> e.texto)
+            .thenComparingLong(e -> e.id)
+            .thenComparing(e -> e.clave);
+
+    private final int capacidad;
+    private final Nodo raiz = new Nodo("");
+    private final Map<Long, Registro> registros = new HashMap<>();
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    public ArbolPrefijos(int capacidad) {
+        this.capacidad = capacidad;
+    }
+
+    // Reemplaza las claves del id; cada texto se indexa completo y desde el inicio de cada palabra
+    public void agregar(long id, long puntaje, String... textos) {
+        candado.writeLock().lock();
+        try {
+            quitar(id);
+            indexar(id, new Registro(textos.clone(), Math.max(0, puntaje)));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Reemplaza los textos del id conservando su puntaje (0 si es nuevo)
+    public void actualizar(long id, String... textos) {
+        candado.writeLock().lock();
+        try {
+            Registro anterior = quitar(id);
+            indexar(id, new Registro(textos.clone(), anterior == null ? 0 : anterior.puntaje));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Cambia un texto del id (por su posición en agregar) conservando los demás y el puntaje
+    public void reemplazarTexto(long id, int posicion, String texto) {
+        candado.writeLock().lock();
+        try {
+            Registro anterior = quitar(id);
+            if (anterior == null) {
+                return;
+            }
+            String[] textos = anterior.textos.clone();
+            textos[posicion] = texto;
+            indexar(id, new Registro(textos, anterior.puntaje));
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Suma al puntaje del id conservando sus textos; no hace nada si el id no está en el árbol
+    public void sumarPuntaje(long id, long delta) {
+        candado.writeLock().lock();
+        try {
+            Registro anterior = quitar(id);
+            if (anterior != null) {
+                indexar(id, new Registro(anterior.textos, Math.max(0, anterior.puntaje + delta)));
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(long id) {
+        candado.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void limpiar() {
+        candado.writeLock().lock();
+        try {
+            registros.clear();
+            raiz.hijos = new Nodo[0];
+            raiz.terminales = new Entrada[0];
+            raiz.mejores = new Entrada[0];
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public long puntaje(long id) {
+        candado.readLock().lock();
+        try {
+            Registro registro = registros.get(id);
+            return registro == null ? 0 : registro.puntaje;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return registros.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Las mejores sugerencias (máximo limite) cuyo texto o alguna de sus palabras empieza con el prefijo
+    public List<SugerenciaDTO> buscar(String prefijo, int limite) {
+        String clave = prefijo == null ? "" : prefijo.toLowerCase(Locale.ROOT);
+        candado.readLock().lock();
+        try {
+            Nodo nodo = raiz;
+            int posicion = 0;
+            while (posicion < clave.length()) {
+                Nodo hijo = nodo.hijo(clave.charAt(posicion));
+                if (hijo == null) {
+                    return List.of();
+                }
+                int comun = prefijoComun(hijo.etiqueta, clave, posicion);
+                if (posicion + comun == clave.length()) {
+                    // El prefijo termina dentro (o al final) de la arista: todo el subárbol del hijo coincide
+                    nodo = hijo;
+                    break;
+                }
+                if (comun < hijo.etiqueta.length()) {
+                    return List.of();
+                }
+                nodo = hijo;
+                posicion += comun;
+            }
+            Map<Long, SugerenciaDTO> unicas = new LinkedHashMap<>();
+            for (Entrada entrada : nodo.mejores) {
+                unicas.putIfAbsent(entrada.id, new SugerenciaDTO(entrada.id, entrada.texto, entrada.puntaje));
+                if (unicas.size() == limite) {
+                    break;
+                }
+            }
+            return new ArrayList<>(unicas.values());
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private Registro quitar(long id) {
+        Registro anterior = registros.remove(id);
+        if (anterior != null) {
+            anterior.entradas.forEach(this::eliminar);
+        }
+        return anterior;
+    }
+
+    private void indexar(long id, Registro registro) {
+        for (String texto : registro.textos) {
+            if (texto == null || texto.isBlank()) {
+                continue;
+            }
+            for (String clave : claves(texto)) {
+                Entrada entrada = new Entrada(id, texto, clave, registro.puntaje);
+                insertar(entrada);
+                registro.entradas.add(entrada);
+            }
+        }
+        registros.put(id, registro);
+    }
+
+    private void insertar(Entrada entrada) {
+        String clave = entrada.clave;
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int posicion = 0;
+        while (posicion < clave.length()) {
+            Nodo hijo = nodo.hijo(clave.charAt(posicion));
+            if (hijo == null) {
+                hijo = new Nodo(clave.substring(posicion));
+                nodo.agregarHijo(hijo);
+                nodo = hijo;
+                camino.add(nodo);
+                break;
+            }
+            int comun = prefijoComun(hijo.etiqueta, clave, posicion);
+            if (comun < hijo.etiqueta.length()) {
+                hijo = dividir(nodo, hijo, comun);
+            }
+            nodo = hijo;
+            camino.add(nodo);
+            posicion += comun;
+        }
+        nodo.terminales = agregarOrdenado(nodo.terminales, entrada, Integer.MAX_VALUE);
+        for (Nodo enCamino : camino) {
+            enCamino.mejores = agregarOrdenado(enCamino.mejores, entrada, capacidad);
+        }
+    }
+
+    private void eliminar(Entrada entrada) {
+        String clave = entrada.clave;
+        List<Nodo> camino = new ArrayList<>();
+        Nodo nodo = raiz;
+        camino.add(nodo);
+        int posicion = 0;
+        while (posicion < clave.length()) {
+            nodo = nodo.hijo(clave.charAt(posicion));
+            if (nodo == null) {
+                return;
+            }
+            camino.add(nodo);
+            posicion += nodo.etiqueta.length();
+        }
+        nodo.terminales = quitarDe(nodo.terminales, entrada);
+        // De abajo hacia arriba: solo se recalcula donde la entrada estaba entre las mejores
+        for (int i = camino.size() - 1; i >= 0; i--) {
+            Nodo enCamino = camino.get(i);
+            if (indice(enCamino.mejores, entrada) < 0) {
+                break;
+            }
+            enCamino.recalcularMejores(capacidad);
+            if (i > 0 && enCamino.hijos.length == 0 && enCamino.terminales.length == 0) {
+                camino.get(i - 1).quitarHijo(enCamino);
+            }
+        }
+    }
+
+    // Parte la arista del hijo en el carácter comun; el nuevo nodo intermedio hereda las mejores del hijo
+    private Nodo dividir(Nodo padre, Nodo hijo, int comun) {
+        Nodo intermedio = new Nodo(hijo.etiqueta.substring(0, comun));
+        padre.quitarHijo(hijo);
+        hijo.etiqueta = hijo.etiqueta.substring(comun);
+        intermedio.agregarHijo(hijo);
+        intermedio.mejores = hijo.mejores.clone();
+        padre.agregarHijo(intermedio);
+        return intermedio;
+    }
+
+    private static int prefijoComun(String etiqueta, String clave, int desde) {
+        int maximo = Math.min(etiqueta.length(), clave.length() - desde);
+        int i = 0;
+        while (i < maximo && etiqueta.charAt(i) == clave.charAt(desde + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    static List<String> claves(String texto) {
+        String normalizado = texto.toLowerCase(Locale.ROOT).strip();
+        List<String> claves = new ArrayList<>();
+        claves.add(normalizado);
+        for (int i = 1; i < normalizado.length(); i++) {
+            if (Character.isWhitespace(normalizado.charAt(i - 1)) && !Character.isWhitespace(normalizado.charAt(i))) {
+                claves.add(normalizado.substring(i));
+            }
+        }
+        return claves;
+    }
+
+    private static Entrada[] agregarOrdenado(Entrada[] entradas, Entrada entrada, int maximo) {
+        int posicion = Arrays.binarySearch(entradas, entrada, ORDEN);
+        if (posicion >= 0) {
+            return entradas;
+        }
+        posicion = -(posicion + 1);
+        if (posicion >= maximo) {
+            return entradas;
+        }
+        int tamano = Math.min(entradas.length + 1, maximo);
+        Entrada[] nuevas = new Entrada[tamano];
+        System.arraycopy(entradas, 0, nuevas, 0, posicion);
+        nuevas[posicion] = entrada;
+        System.arraycopy(entradas, posicion, nuevas, posicion + 1, tamano - posicion - 1);
+        return nuevas;
+    }
+
+    private static Entrada[] quitarDe(Entrada[] entradas, Entrada entrada) {
+        int posicion = indice(entradas, entrada);
+        if (posicion < 0) {
+            return entradas;
+        }
+        Entrada[] nuevas = new Entrada[entradas.length - 1];
+        System.arraycopy(entradas, 0, nuevas, 0, posicion);
+        System.arraycopy(entradas, posicion + 1, nuevas, posicion, nuevas.length - posicion);
+        return nuevas;
+    }
+
+    private static int indice(Entrada[] entradas, Entrada entrada) {
+        for (int i = 0; i < entradas.length; i++) {
+            if (entradas[i] == entrada) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static final class Registro {
+        private final String[] textos;
+        private final long puntaje;
+        private final List<Entrada> entradas = new ArrayList<>();
+
+        private Registro(String[] textos, long puntaje) {
+            this.textos = textos;
+            this.puntaje = puntaje;
+        }
+    }
+
+    private static final class Entrada {
+        private final long id;
+        private final String texto;
+        private final String clave;
+        private final long puntaje;
+
+        private Entrada(long id, String texto, String clave, long puntaje) {
+            this.id = id;
+            this.texto = texto;
+            this.clave = clave;
+            this.puntaje = puntaje;
+        }
+    }
+
+    // Hijos en un arreglo ordenado por el primer carácter de su etiqueta (búsqueda binaria, sin mapas)
+    private static final class Nodo {
+        private String etiqueta;
+        private Nodo[] hijos = new Nodo[0];
+        private Entrada[] terminales = new Entrada[0];
+        private Entrada[] mejores = new Entrada[0];
+
+        private Nodo(String etiqueta) {
+            this.etiqueta = etiqueta;
+        }
+
+        private Nodo hijo(char letra) {
+            int posicion = buscarHijo(letra);
+            return posicion >= 0 ? hijos[posicion] : null;
+        }
+
+        private int buscarHijo(char letra) {
+            int bajo = 0;
+            int alto = hijos.length - 1;
+            while (bajo <= alto) {
+                int medio = (bajo + alto) >>> 1;
+                char actual = hijos[medio].etiqueta.charAt(0);
+                if (actual < letra) {
+                    bajo = medio + 1;
+                } else if (actual > letra) {
+                    alto = medio - 1;
+                } else {
+                    return medio;
+                }
+            }
+            return -(bajo + 1);
+        }
+
+        private void agregarHijo(Nodo hijo) {
+            int posicion = -(buscarHijo(hijo.etiqueta.charAt(0)) + 1);
+            Nodo[] nuevos = new Nodo[hijos.length + 1];
+            System.arraycopy(hijos, 0, nuevos, 0, posicion);
+            nuevos[posicion] = hijo;
+            System.arraycopy(hijos, posicion, nuevos, posicion + 1, hijos.length - posicion);
+            hijos = nuevos;
+        }
+
+        private void quitarHijo(Nodo hijo) {
+            int posicion = buscarHijo(hijo.etiqueta.charAt(0));
+            Nodo[] nuevos = new Nodo[hijos.length - 1];
+            System.arraycopy(hijos, 0, nuevos, 0, posicion);
+            System.arraycopy(hijos, posicion + 1, nuevos, posicion, nuevos.length - posicion);
+            hijos = nuevos;
+        }
+
+        // Las mejores del subárbol salen de las terminales propias y de las mejores de cada hijo
+        private void recalcularMejores(int capacidad) {
+            Entrada[] resultado = Arrays.copyOf(terminales, Math.min(terminales.length, capacidad));
+            for (Nodo hijo : hijos) {
+                for (Entrada entrada : hijo.mejores) {
+                    Entrada[] nuevas = agregarOrdenado(resultado, entrada, capacidad);
+                    if (nuevas == resultado) {
+                        break;
+                    }
+                    resultado = nuevas;
+                }
+            }
+            mejores = resultado;
+        }
+    }
+}
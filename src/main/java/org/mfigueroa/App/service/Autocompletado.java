@@ -0,0 +1,151 @@
+package org.mfigueroa.App.service;
+
+import jakarta.annotation.PostConstruct;
+import org.mfigueroa.App.dto.SugerenciaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Autocompletado de clientes (nombre y email) y productos (nombre) desde árboles de prefijos en memoria.
+ * Las sugerencias se ordenan por ventas: número de ventas del cliente y unidades vendidas del producto.
+ * Se cargan al arrancar y los servicios las actualizan en cada escritura; los cambios que ocurren dentro
+ * de una transacción se aplican hasta que esta se confirma.
+ */
+@Component
+public class Autocompletado {
+
+    private static final Logger logger = LoggerFactory.getLogger(Autocompletado.class);
+
+    // Posición de cada texto de un cliente en el árbol
+    private static final int NOMBRE = 0;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.sugerencias.limite-maximo:10}")
+    private int limiteMaximo;
+
+    private ArbolPrefijos clientes;
+    private ArbolPrefijos productos;
+
+    // Un id puede aparecer varias veces entre las mejores de un nodo (nombre, email, palabras del nombre)
+    @PostConstruct
+    void inicializar() {
+        clientes = new ArbolPrefijos(limiteMaximo * 3);
+        productos = new ArbolPrefijos(limiteMaximo * 2);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        long inicio = System.currentTimeMillis();
+        cargar(clientes, clienteRepository::streamSugerencias,
+                fila -> clientes.agregar((Long) fila[0], ((Number) fila[3]).longValue(), (String) fila[1], (String) fila[2]));
+        cargar(productos, productoRepository::streamSugerencias,
+                fila -> productos.agregar(((Number) fila[0]).longValue(), ((Number) fila[2]).longValue(), (String) fila[1]));
+        logger.info("Autocompletado cargado en {} ms ({} clientes, {} productos)",
+                System.currentTimeMillis() - inicio, clientes.tamano(), productos.tamano());
+    }
+
+    private void cargar(ArbolPrefijos arbol, Supplier<Stream<Object[]>> consulta, Consumer<Object[]> agregar) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        transaccion.executeWithoutResult(status -> {
+            arbol.limpiar();
+            try (Stream<Object[]> filas = consulta.get()) {
+                filas.forEach(agregar);
+            }
+        });
+    }
+
+    public List<SugerenciaDTO> sugerirClientes(String prefijo, int limite) {
+        return clientes.buscar(prefijo, acotar(limite));
+    }
+
+    public List<SugerenciaDTO> sugerirProductos(String prefijo, int limite) {
+        return productos.buscar(prefijo, acotar(limite));
+    }
+
+    public void indexarCliente(Long id, String nombre, String email) {
+        clientes.actualizar(id, nombre, email);
+    }
+
+    public void indexarClientes(List<Cliente> confirmados) {
+        for (Cliente cliente : confirmados) {
+            indexarCliente(cliente.getId(), cliente.getNombre(), cliente.getEmail());
+        }
+    }
+
+    public void renombrarCliente(Long id, String nombre) {
+        clientes.reemplazarTexto(id, NOMBRE, nombre);
+    }
+
+    public void eliminarCliente(Long id) {
+        clientes.eliminar(id);
+    }
+
+    public void indexarProducto(Long id, String nombre) {
+        productos.actualizar(id, nombre);
+    }
+
+    public void indexarProductos(List<Producto> confirmados) {
+        for (Producto producto : confirmados) {
+            indexarProducto(producto.getId(), producto.getNombre());
+        }
+    }
+
+    public void eliminarProducto(Long id) {
+        productos.eliminar(id);
+    }
+
+    // signo 1 al registrar una venta y -1 al eliminarla
+    public void contarVenta(Long clienteId, Map<Long, Integer> unidades, int signo) {
+        AlConfirmar.ejecutar(() -> {
+            if (clienteId != null) {
+                clientes.sumarPuntaje(clienteId, signo);
+            }
+            unidades.forEach((productoId, cantidad) -> productos.sumarPuntaje(productoId, (long) signo * cantidad));
+        });
+    }
+
+    // Descuenta de una vez las ventas y unidades de una eliminación masiva
+    public void descontarVentas(Map<Long, Long> ventasPorCliente, Map<Long, Long> unidadesPorProducto) {
+        AlConfirmar.ejecutar(() -> {
+            ventasPorCliente.forEach((clienteId, ventas) -> clientes.sumarPuntaje(clienteId, -ventas));
+            unidadesPorProducto.forEach((productoId, unidades) -> productos.sumarPuntaje(productoId, -unidades));
+        });
+    }
+
+    public void moverVenta(Long clienteAnterior, Long clienteNuevo) {
+        AlConfirmar.ejecutar(() -> {
+            clientes.sumarPuntaje(clienteAnterior, -1);
+            clientes.sumarPuntaje(clienteNuevo, 1);
+        });
+    }
+
+    private int acotar(int limite) {
+        return Math.min(Math.max(limite, 1), limiteMaximo);
+    }
+}
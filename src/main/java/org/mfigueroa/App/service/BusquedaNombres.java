@@ -0,0 +1,129 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Índices de trigramas sobre los nombres de clientes y productos para que la búsqueda por subcadena
+ * no recorra la tabla completa. Se construyen al arrancar la aplicación y los servicios los actualizan
+ * después de cada escritura confirmada. Mientras no estén listos (o si están deshabilitados) las
+ * búsquedas regresan vacío y el llamador usa la consulta LIKE.
+ * Cada instancia mantiene su propio índice: escrituras hechas por otra instancia o directamente en la
+ * base de datos no se reflejan hasta el siguiente arranque.
+ */
+@Component
+public class BusquedaNombres {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusquedaNombres.class);
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.busqueda.indice-trigramas:true}")
+    private boolean habilitado;
+
+    private final IndiceTrigramas clientes = new IndiceTrigramas();
+    private final IndiceTrigramas productos = new IndiceTrigramas();
+
+    private volatile boolean listo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void construir() {
+        if (!habilitado) {
+            return;
+        }
+        long inicio = System.currentTimeMillis();
+        cargar(clientes, clienteRepository::streamIdNombre);
+        cargar(productos, productoRepository::streamIdNombre);
+        listo = true;
+        logger.info("Índices de nombres construidos en {} ms ({} clientes, {} productos)",
+                System.currentTimeMillis() - inicio, clientes.tamano(), productos.tamano());
+    }
+
+    private void cargar(IndiceTrigramas indice, Supplier<Stream<Object[]>> consulta) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        transaccion.executeWithoutResult(status -> {
+            indice.limpiar();
+            try (Stream<Object[]> filas = consulta.get()) {
+                filas.forEach(fila -> indice.agregar((Long) fila[0], (String) fila[1]));
+            }
+        });
+    }
+
+    public boolean isListo() {
+        return habilitado && listo;
+    }
+
+    // Ids de clientes cuyo nombre contiene el texto; vacío si el índice no está disponible
+    public Optional<List<Long>> buscarClientes(String nombre) {
+        return isListo() ? Optional.of(clientes.buscar(nombre)) : Optional.empty();
+    }
+
+    public Optional<List<Long>> buscarProductos(String nombre) {
+        return isListo() ? Optional.of(productos.buscar(nombre)) : Optional.empty();
+    }
+
+    // Nombre que tiene el índice para un producto (para ordenar coincidencias en memoria)
+    public String nombreProducto(Long id) {
+        return productos.texto(id);
+    }
+
+    public void indexarCliente(Long id, String nombre) {
+        if (habilitado) {
+            clientes.agregar(id, nombre);
+        }
+    }
+
+    public void indexarClientes(List<Cliente> confirmados) {
+        for (Cliente cliente : confirmados) {
+            indexarCliente(cliente.getId(), cliente.getNombre());
+        }
+    }
+
+    public void eliminarCliente(Long id) {
+        if (habilitado) {
+            clientes.eliminar(id);
+        }
+    }
+
+    public void indexarProducto(Long id, String nombre) {
+        if (habilitado) {
+            productos.agregar(id, nombre);
+        }
+    }
+
+    public void indexarProductos(List<Producto> confirmados) {
+        for (Producto producto : confirmados) {
+            indexarProducto(producto.getId(), producto.getNombre());
+        }
+    }
+
+    public void eliminarProducto(Long id) {
+        if (habilitado) {
+            productos.eliminar(id);
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package org.mfigueroa.App.service;
 
 import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.dto.SugerenciaDTO;
 import org.mfigueroa.App.mappers.ClienteMapper;
 import org.mfigueroa.App.model.Cliente;
 import org.mfigueroa.App.repository.ClienteRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ClienteServiceImpl implements ClienteService{
@@ -15,52 +26,119 @@ public class ClienteServiceImpl implements ClienteService{
     @Autowired
     private ClienteRepository clienteRepository;
 
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Autowired
+    private ImportadorStreaming importadorStreaming;
+
+    @Autowired
+    private EscritorStreaming escritorStreaming;
+
+    @Autowired
+    private BusquedaNombres busquedaNombres;
+
+    @Autowired
+    private Autocompletado autocompletado;
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    // Máximo de ids por cláusula IN (límite de Oracle)
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
 
     public ClienteDTO guardarCliente(ClienteDTO clienteDTO) {
             Cliente cliente = ClienteMapper.toEntity(clienteDTO);
             cliente = clienteRepository.save(cliente);
+            indexar(List.of(cliente));
             return ClienteMapper.toDto(cliente);
     }
 
-    // Método para crear múltiples clientes
-    public void crearClientes(List<ClienteDTO> clientesDTO) {
+    // Método para crear múltiples clientes, se insertan en bloques usando JDBC batching
+    public ResultadoLoteDTO crearClientes(List<ClienteDTO> clientesDTO) {
+        List<Cliente> clientes = new ArrayList<>(clientesDTO.size());
         for (ClienteDTO clienteDTO : clientesDTO) {
-            Cliente cliente = new Cliente();
-            cliente.setNombre(clienteDTO.getNombre());
-            cliente.setEmail(clienteDTO.getEmail());
-            clienteRepository.save(cliente); // Guardamos el cliente en la base de datos
+            clientes.add(nuevoCliente(clienteDTO));
+        }
+        return procesadorLotes.persistir(clientes, this::indexar);
+    }
+
+    // Importación en streaming (NDJSON o arreglo JSON) sin cargar todo el cuerpo en memoria
+    public ResultadoLoteDTO importarClientes(InputStream entrada, boolean ndjson) throws IOException {
+        if (ndjson) {
+            return importadorStreaming.importarNdjson(entrada, ClienteDTO.class, this::nuevoCliente,
+                    this::indexar);
+        }
+        return importadorStreaming.importarArregloJson(entrada, ClienteDTO.class, this::nuevoCliente,
+                this::indexar);
+    }
+
+    // Actualiza la búsqueda por nombre, el autocompletado y la versión del listado con clientes ya confirmados
+    private void indexar(List<Cliente> clientes) {
+        busquedaNombres.indexarClientes(clientes);
+        autocompletado.indexarClientes(clientes);
+        versionesTablas.incrementar(VersionesTablas.Tabla.CLIENTES);
+    }
+
+    public List<SugerenciaDTO> sugerirClientes(String prefijo, int limite) {
+        return autocompletado.sugerirClientes(prefijo, limite);
+    }
+
+    private Cliente nuevoCliente(ClienteDTO clienteDTO) {
+        if (clienteDTO.getNombre() == null || clienteDTO.getEmail() == null) {
+            throw new IllegalArgumentException("El nombre y el email del cliente son obligatorios");
         }
+        Cliente cliente = new Cliente();
+        cliente.setNombre(clienteDTO.getNombre());
+        cliente.setEmail(clienteDTO.getEmail());
+        return cliente;
     }
 
+    // Las consultas de lectura proyectan directamente a DTO, sin entidades administradas
+    @Transactional(readOnly = true)
     public List<ClienteDTO> getAllClientes() {
-        List<Cliente> clientes = clienteRepository.findAllClientes();
-        List<ClienteDTO> clienteDTOList = clientes.stream().map(
-                c -> ClienteMapper.toDto(c)
-        ).toList();
-        return clienteDTOList;
+        return clienteRepository.findAllClientesDTO();
     }
 
+    @Transactional(readOnly = true)
     public List<ClienteDTO> findAllClientes(){
-        List<Cliente> clientes = clienteRepository.findAllClientes();
-        List<ClienteDTO> clienteDTOList = clientes.stream().map(
-                c -> ClienteMapper.toDto(c)
-        ).toList();
-        return clienteDTOList;
+        return clienteRepository.findAllClientesDTO();
+    }
+
+    // ETag del listado de clientes; cambia con cada escritura confirmada
+    public String etagClientes(MediaType formato) {
+        return versionesTablas.etag(VersionesTablas.Tabla.CLIENTES, formato);
+    }
+
+    // Escribe todos los clientes en la salida sin cargarlos en una lista
+    public void escribirClientes(OutputStream salida, boolean ndjson) {
+        escritorStreaming.escribir(clienteRepository::streamAllClientes, ClienteMapper::toDto, salida, ndjson);
     }
 
+    @Transactional(readOnly = true)
     public ClienteDTO findByEmail(String email) {
         Cliente cliente = clienteRepository.findByCorreo(email)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
         return ClienteMapper.toDto(cliente);
     }
 
+    // Usa el índice de trigramas para obtener los ids y solo consulta esas filas; sin índice recurre al LIKE
+    @Transactional(readOnly = true)
     public List<ClienteDTO> findByNombre(String nombre) {
-        List<Cliente> clientes = clienteRepository.findByNombre(nombre);
-        List<ClienteDTO> clienteDTOList = clientes.stream().map(
-                c -> ClienteMapper.toDto(c)
-        ).toList();
-        return clienteDTOList;
-
+        Optional<List<Long>> ids = busquedaNombres.buscarClientes(nombre);
+        if (ids.isEmpty()) {
+            return clienteRepository.findDTOByNombre(nombre);
+        }
+        List<Long> coincidencias = ids.get();
+        List<ClienteDTO> clientes = new ArrayList<>(coincidencias.size());
+        for (int inicio = 0; inicio < coincidencias.size(); inicio += MAX_IDS_POR_CONSULTA) {
+            int fin = Math.min(inicio + MAX_IDS_POR_CONSULTA, coincidencias.size());
+            clientes.addAll(clienteRepository.findDTOByIdIn(coincidencias.subList(inicio, fin)));
+        }
+        return clientes;
     }
 
     public ClienteDTO updateCliente(Long id, ClienteDTO clienteDetails) {
@@ -69,11 +147,17 @@ public class ClienteServiceImpl implements ClienteService{
         cliente.setNombre(clienteDetails.getNombre());
         cliente.setEmail(clienteDetails.getEmail());
         cliente = clienteRepository.save(cliente);
+        indexar(List.of(cliente));
         return ClienteMapper.toDto(cliente);
     }
 
     public boolean updateClienteNombre(Long id, String nombre) {
         int updated = clienteRepository.updateClienteNombre(id, nombre);
+        if (updated > 0) {
+            busquedaNombres.indexarCliente(id, nombre);
+            autocompletado.renombrarCliente(id, nombre);
+            versionesTablas.incrementar(VersionesTablas.Tabla.CLIENTES);
+        }
         return updated > 0;
     }
 
@@ -81,6 +165,7 @@ public class ClienteServiceImpl implements ClienteService{
         Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Cliente no encontrado"));
         clienteRepository.deleteById(id);
+        eliminarDeIndices(id);
         return ClienteMapper.toDto(cliente);
     }
 
@@ -88,7 +173,19 @@ public class ClienteServiceImpl implements ClienteService{
         Cliente cliente = clienteRepository.findById(id)
                 .orElseThrow( () -> new IllegalArgumentException("Cliente no encntrado"));
         clienteRepository.deleteById(id);
+        eliminarDeIndices(id);
         return ClienteMapper.toDto(cliente);
     }
 
+    private void eliminarDeIndices(Long id) {
+        busquedaNombres.eliminarCliente(id);
+        autocompletado.eliminarCliente(id);
+        versionesTablas.incrementar(VersionesTablas.Tabla.CLIENTES);
+    }
+
+    // Eliminación masiva por ids o filtro, junto con las ventas de los clientes; devuelve solo los conteos
+    public ResultadoEliminacionDTO eliminarClientes(FiltroEliminacionDTO filtro) {
+        return eliminacionMasiva.eliminarClientes(filtro);
+    }
+
 }
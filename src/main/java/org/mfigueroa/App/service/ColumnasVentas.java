@@ -0,0 +1,376 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.dto.IngresoDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Ventas y líneas de venta_producto en arreglos primitivos (una columna por campo) para los agregados en memoria.
+ * <p>
+ * Clientes y productos se guardan como índices densos de un diccionario, así los acumuladores son arreglos y no
+ * mapas. Las líneas de la venta {@code i} ocupan {@code productos[inicioLineas[i] .. inicioLineas[i + 1])}.
+ * <p>
+ * Un solo escritor a la vez (el llamador sincroniza) agrega ventas al final y después publica una {@link Datos}
+ * inmutable con las referencias a los arreglos y los tamaños, en un único campo volatile. Una consulta lee esa
+ * referencia una vez y solo recorre las posiciones que publica: el escritor solo escribe más allá de ellas, y al
+ * crecer copia el arreglo, así que nunca se mezclan campos de escrituras distintas. Las eliminaciones y los cambios
+ * de cliente son los únicos cambios sobre posiciones publicadas: la columna de clientes se guarda en bloques y se
+ * copia solo el bloque afectado; una venta eliminada queda con cliente -1.
+ * <p>
+ * Las consultas reparten las ventas en bloques que se acumulan en paralelo (fork-join del pool común) y luego se
+ * combinan.
+ * <p>
+ * venta_producto no guarda el precio de cada línea: el total de la venta se reparte entre sus líneas en
+ * proporción al precio del producto al cargarlo, que coincide con el precio cobrado mientras no cambie.
+ */
+public final class ColumnasVentas {
+
+    // Por debajo de estas ventas por bloque no compensa repartir el trabajo
+    private static final int MIN_VENTAS_POR_BLOQUE = 50_000;
+
+    // Ventas por bloque de la columna de clientes (2^16)
+    private static final int BITS_BLOQUE = 16;
+    private static final int TAMANO_BLOQUE = 1 << BITS_BLOQUE;
+    private static final int MASCARA_BLOQUE = TAMANO_BLOQUE - 1;
+
+    private static final int ELIMINADA = -1;
+
+    /**
+     * Instantánea publicada: todo lo que lee una consulta sale de la misma publicación
+     */
+    private record Datos(int ventas, int[][] clientes, double[] totales, long[] fechas, int[] inicioLineas,
+                         int[] productos, double[] precios, long[] idsClientes, int numClientes,
+                         long[] idsProductos, int numProductos) {
+    }
+
+    // Estado del escritor; las posiciones ya publicadas solo cambian copiando (bloques de clientes) o no cambian
+    private long[] ids;
+    private int[][] clientes;
+    private double[] totales;
+    private long[] fechas;
+    private int[] inicioLineas;
+    private int[] productos;
+    private int ventas;
+    private int lineas;
+
+    private long[] idsClientes;
+    private long[] idsProductos;
+    private double[] precios;
+    private final Map<Long, Integer> indiceClientes = new HashMap<>();
+    private final Map<Long, Integer> indiceProductos = new HashMap<>();
+
+    // Las primeras "ordenadas" ventas están en orden de id (las cargadas de la BD), las demás se buscan en el mapa
+    private int ordenadas;
+    private final Map<Long, Integer> posicionesCola = new HashMap<>();
+
+    private volatile Datos datos;
+
+    public ColumnasVentas(int capacidadVentas, int capacidadLineas) {
+        int capacidad = Math.max(capacidadVentas, 16);
+        ids = new long[capacidad];
+        clientes = new int[1][];
+        clientes[0] = new int[TAMANO_BLOQUE];
+        totales = new double[capacidad];
+        fechas = new long[capacidad];
+        inicioLineas = new int[capacidad + 1];
+        productos = new int[Math.max(capacidadLineas, 16)];
+        idsClientes = new long[16];
+        idsProductos = new long[16];
+        precios = new double[16];
+        publicar();
+    }
+
+    /**
+     * Agrega una venta al final y la publica; solo la llama un hilo a la vez. Si la venta ya está no hace nada.
+     *
+     * @param fecha       milisegundos desde la época
+     * @param productoIds un id por línea (un id repetido es otra unidad)
+     * @param precios     precio de cada producto, se usa la primera vez que aparece el producto
+     */
+    public void agregar(long id, long clienteId, double total, long fecha, long[] productoIds, double[] precios) {
+        if (ventas == ordenadas && (ventas == 0 || id > ids[ventas - 1])) {
+            ordenadas++;
+        } else if (contiene(id)) {
+            return;
+        } else {
+            posicionesCola.put(id, ventas);
+        }
+        int i = ventas;
+        if (i == ids.length) {
+            int capacidad = ids.length + (ids.length >> 1);
+            ids = Arrays.copyOf(ids, capacidad);
+            totales = Arrays.copyOf(totales, capacidad);
+            fechas = Arrays.copyOf(fechas, capacidad);
+            inicioLineas = Arrays.copyOf(inicioLineas, capacidad + 1);
+        }
+        if ((i >>> BITS_BLOQUE) == clientes.length) {
+            clientes = Arrays.copyOf(clientes, clientes.length + 1);
+            clientes[clientes.length - 1] = new int[TAMANO_BLOQUE];
+        }
+        if (lineas + productoIds.length > productos.length) {
+            productos = Arrays.copyOf(productos, Math.max(lineas + productoIds.length, productos.length + (productos.length >> 1)));
+        }
+        ids[i] = id;
+        clientes[i >>> BITS_BLOQUE][i & MASCARA_BLOQUE] = indiceCliente(clienteId);
+        totales[i] = total;
+        fechas[i] = fecha;
+        for (int k = 0; k < productoIds.length; k++) {
+            productos[lineas++] = indiceProducto(productoIds[k], precios[k]);
+        }
+        inicioLineas[i + 1] = lineas;
+        ventas = i + 1;
+        publicar();
+    }
+
+    /**
+     * Quita las ventas de las consultas (las que no estén se ignoran); solo la llama un hilo a la vez.
+     */
+    public void eliminar(Collection<Long> ventaIds) {
+        int[][] copia = clientes.clone();
+        boolean[] copiados = new boolean[copia.length];
+        for (long id : ventaIds) {
+            int i = posicion(id);
+            if (i >= 0) {
+                asignar(copia, copiados, i, ELIMINADA);
+            }
+        }
+        clientes = copia;
+        publicar();
+    }
+
+    /**
+     * Quita de las consultas todas las ventas de los clientes; solo la llama un hilo a la vez.
+     */
+    public void eliminarClientes(Collection<Long> clienteIds) {
+        Set<Integer> indices = new HashSet<>();
+        for (Long clienteId : clienteIds) {
+            Integer indice = indiceClientes.get(clienteId);
+            if (indice != null) {
+                indices.add(indice);
+            }
+        }
+        if (indices.isEmpty()) {
+            return;
+        }
+        int[][] copia = clientes.clone();
+        boolean[] copiados = new boolean[copia.length];
+        for (int i = 0; i < ventas; i++) {
+            if (indices.contains(copia[i >>> BITS_BLOQUE][i & MASCARA_BLOQUE])) {
+                asignar(copia, copiados, i, ELIMINADA);
+            }
+        }
+        clientes = copia;
+        publicar();
+    }
+
+    /**
+     * Asigna la venta a otro cliente (si la venta no está no hace nada); solo la llama un hilo a la vez.
+     */
+    public void cambiarCliente(long ventaId, long clienteId) {
+        int i = posicion(ventaId);
+        if (i < 0 || clientes[i >>> BITS_BLOQUE][i & MASCARA_BLOQUE] == ELIMINADA) {
+            return;
+        }
+        int[][] copia = clientes.clone();
+        asignar(copia, new boolean[copia.length], i, indiceCliente(clienteId));
+        clientes = copia;
+        publicar();
+    }
+
+    // Copia el bloque de la venta la primera vez que se modifica; las consultas en curso siguen con el anterior
+    private static void asignar(int[][] bloques, boolean[] copiados, int i, int cliente) {
+        int bloque = i >>> BITS_BLOQUE;
+        if (!copiados[bloque]) {
+            bloques[bloque] = bloques[bloque].clone();
+            copiados[bloque] = true;
+        }
+        bloques[bloque][i & MASCARA_BLOQUE] = cliente;
+    }
+
+    private void publicar() {
+        datos = new Datos(ventas, clientes, totales, fechas, inicioLineas, productos, precios,
+                idsClientes, indiceClientes.size(), idsProductos, indiceProductos.size());
+    }
+
+    private int indiceCliente(long clienteId) {
+        Integer indice = indiceClientes.get(clienteId);
+        if (indice == null) {
+            indice = indiceClientes.size();
+            if (indice == idsClientes.length) {
+                idsClientes = Arrays.copyOf(idsClientes, indice * 2);
+            }
+            idsClientes[indice] = clienteId;
+            indiceClientes.put(clienteId, indice);
+        }
+        return indice;
+    }
+
+    private int indiceProducto(long productoId, double precio) {
+        Integer indice = indiceProductos.get(productoId);
+        if (indice == null) {
+            indice = indiceProductos.size();
+            if (indice == idsProductos.length) {
+                idsProductos = Arrays.copyOf(idsProductos, indice * 2);
+                precios = Arrays.copyOf(precios, indice * 2);
+            }
+            idsProductos[indice] = productoId;
+            precios[indice] = precio;
+            indiceProductos.put(productoId, indice);
+        }
+        return indice;
+    }
+
+    // Ventas publicadas, incluidas las eliminadas
+    public int tamano() {
+        return datos.ventas();
+    }
+
+    // Solo para el escritor
+    public boolean contiene(long id) {
+        return posicion(id) >= 0;
+    }
+
+    private int posicion(long id) {
+        int i = Arrays.binarySearch(ids, 0, ordenadas, id);
+        if (i >= 0) {
+            return i;
+        }
+        Integer enCola = posicionesCola.get(id);
+        return enCola != null ? enCola : -1;
+    }
+
+    /**
+     * Agregados de las ventas con fecha en [desde, hasta] (milisegundos, null sin límite).
+     *
+     * @param top número de productos y clientes con más ingreso que se devuelven
+     */
+    public AnaliticaVentasDTO analizar(Long desde, Long hasta, int top) {
+        // Una sola lectura del campo volatile: tamaños y arreglos de la misma publicación
+        Datos publicados = datos;
+        int n = publicados.ventas();
+        Vista vista = new Vista(publicados, desde != null ? desde : Long.MIN_VALUE, hasta != null ? hasta : Long.MAX_VALUE);
+        int bloques = Math.max(1, Math.min(n / MIN_VENTAS_POR_BLOQUE, ForkJoinPool.getCommonPoolParallelism() * 4));
+        Parcial total = IntStream.range(0, bloques).parallel()
+                .mapToObj(b -> vista.acumular((int) ((long) n * b / bloques), (int) ((long) n * (b + 1) / bloques)))
+                .reduce(Parcial::combinar)
+                .orElseThrow();
+        return new AnaliticaVentasDTO(total.ventas, total.lineas, total.ingreso,
+                mejores(total.ingresoProductos, total.unidadesProductos, publicados.idsProductos(), top),
+                mejores(total.ingresoClientes, total.ventasClientes, publicados.idsClientes(), top));
+    }
+
+    private record Vista(Datos datos, long desde, long hasta) {
+
+        Parcial acumular(int inicio, int fin) {
+            int[][] clientes = datos.clientes();
+            double[] totales = datos.totales();
+            long[] fechas = datos.fechas();
+            int[] inicioLineas = datos.inicioLineas();
+            int[] productos = datos.productos();
+            double[] precios = datos.precios();
+            Parcial parcial = new Parcial(datos.numProductos(), datos.numClientes());
+            for (int i = inicio; i < fin; i++) {
+                int cliente = clientes[i >>> BITS_BLOQUE][i & MASCARA_BLOQUE];
+                if (cliente == ELIMINADA || fechas[i] < desde || fechas[i] > hasta) {
+                    continue;
+                }
+                double total = totales[i];
+                int primera = inicioLineas[i];
+                int ultima = inicioLineas[i + 1];
+                parcial.ventas++;
+                parcial.ingreso += total;
+                parcial.ingresoClientes[cliente] += total;
+                parcial.ventasClientes[cliente]++;
+                if (primera == ultima) {
+                    continue;
+                }
+                parcial.lineas += ultima - primera;
+                double suma = 0;
+                for (int k = primera; k < ultima; k++) {
+                    suma += precios[productos[k]];
+                }
+                // Sin precios (todos en 0) el total se reparte por partes iguales
+                double factor = suma > 0 ? total / suma : 0;
+                double igual = total / (ultima - primera);
+                for (int k = primera; k < ultima; k++) {
+                    int producto = productos[k];
+                    parcial.ingresoProductos[producto] += suma > 0 ? precios[producto] * factor : igual;
+                    parcial.unidadesProductos[producto]++;
+                }
+            }
+            return parcial;
+        }
+    }
+
+    // Acumuladores de un bloque, indexados por el diccionario de productos y clientes
+    private static final class Parcial {
+        final double[] ingresoProductos;
+        final long[] unidadesProductos;
+        final double[] ingresoClientes;
+        final long[] ventasClientes;
+        long ventas;
+        long lineas;
+        double ingreso;
+
+        Parcial(int productos, int clientes) {
+            ingresoProductos = new double[productos];
+            unidadesProductos = new long[productos];
+            ingresoClientes = new double[clientes];
+            ventasClientes = new long[clientes];
+        }
+
+        Parcial combinar(Parcial otro) {
+            for (int i = 0; i < ingresoProductos.length; i++) {
+                ingresoProductos[i] += otro.ingresoProductos[i];
+                unidadesProductos[i] += otro.unidadesProductos[i];
+            }
+            for (int i = 0; i < ingresoClientes.length; i++) {
+                ingresoClientes[i] += otro.ingresoClientes[i];
+                ventasClientes[i] += otro.ventasClientes[i];
+            }
+            ventas += otro.ventas;
+            lineas += otro.lineas;
+            ingreso += otro.ingreso;
+            return this;
+        }
+    }
+
+    // Los "top" índices con más ingreso, de mayor a menor, con un montículo de tamaño top
+    private static List<IngresoDTO> mejores(double[] ingresos, long[] cantidades, long[] ids, int top) {
+        if (top <= 0) {
+            return List.of();
+        }
+        Comparator<Integer> porIngreso = Comparator.comparingDouble(i -> ingresos[i]);
+        PriorityQueue<Integer> monticulo = new PriorityQueue<>(top + 1, porIngreso);
+        for (int i = 0; i < ingresos.length; i++) {
+            if (cantidades[i] == 0) {
+                continue;
+            }
+            if (monticulo.size() < top) {
+                monticulo.add(i);
+            } else if (ingresos[i] > ingresos[monticulo.peek()]) {
+                monticulo.poll();
+                monticulo.add(i);
+            }
+        }
+        List<Integer> indices = new ArrayList<>(monticulo);
+        indices.sort(porIngreso.reversed());
+        List<IngresoDTO> resultado = new ArrayList<>(indices.size());
+        for (int i : indices) {
+            resultado.add(new IngresoDTO(ids[i], ingresos[i], cantidades[i]));
+        }
+        return resultado;
+    }
+}
@@ -0,0 +1,115 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.model.Producto;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Codifica la posición de la paginación por cursor de productos (campo de orden, valor e id del
+ * último elemento) en un texto opaco para el cliente.
+ * <p>
+ * Los valores nulos de un campo que los admite ({@code nombre}) van al final en ambas direcciones: primero se
+ * recorren las filas con valor y después las nulas ordenadas solo por id, porque el keyset de Spring Data no
+ * sabe comparar contra un valor nulo.
+ */
+class CursorProductos {
+
+    // Solo columnas con índice (campo, id) en la tabla productos
+    static final Set<String> CAMPOS_ORDENABLES = Set.of("id", "nombre", "precio");
+
+    // Columnas ordenables que pueden ser nulas
+    static final Set<String> CAMPOS_NULABLES = Set.of("nombre");
+
+    private static final String SEPARADOR = "\u001F";
+
+    // Prefijos del valor codificado: "v" seguido del valor, o "n" si era nulo
+    private static final String CON_VALOR = "v";
+    private static final String NULO = "n";
+
+    /**
+     * Posición decodificada; {@code enNulos} indica que ya se recorrieron las filas con valor
+     */
+    record Posicion(ScrollPosition posicion, boolean enNulos) {
+    }
+
+    /**
+     * Consulta por keyset del repositorio, con o sin valor en el campo de orden
+     */
+    @FunctionalInterface
+    interface Consulta {
+        Window<Producto> buscar(ScrollPosition posicion, Sort sort, Limit limite);
+    }
+
+    private CursorProductos() {
+    }
+
+    static Sort crearSort(String ordenarPor, String orden) {
+        if (!CAMPOS_ORDENABLES.contains(ordenarPor)) {
+            throw new IllegalArgumentException("Solo se puede ordenar por: " + CAMPOS_ORDENABLES);
+        }
+        Sort.Direction direccion = "desc".equalsIgnoreCase(orden) ? Sort.Direction.DESC : Sort.Direction.ASC;
+        Sort sort = Sort.by(direccion, ordenarPor);
+        return "id".equals(ordenarPor) ? sort : sort.and(Sort.by(direccion, "id"));
+    }
+
+    static String codificar(String ordenarPor, Sort.Direction direccion, Producto ultimo) {
+        Object valor = valor(ultimo, ordenarPor);
+        String texto = ordenarPor + SEPARADOR + direccion + SEPARADOR + (valor == null ? NULO : CON_VALOR + valor)
+                + SEPARADOR + ultimo.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(texto.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Posicion decodificar(String cursor, String ordenarPor, Sort.Direction direccion) {
+        if (cursor == null || cursor.isEmpty()) {
+            return new Posicion(ScrollPosition.keyset(), false);
+        }
+        String[] partes;
+        try {
+            partes = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(SEPARADOR, -1);
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (partes.length != 4 || !partes[0].equals(ordenarPor) || !partes[1].equals(direccion.name())) {
+            throw new IllegalArgumentException("El cursor no corresponde al orden solicitado");
+        }
+        try {
+            Long id = Long.valueOf(partes[3]);
+            if (partes[2].equals(NULO) && CAMPOS_NULABLES.contains(ordenarPor)) {
+                return new Posicion(ScrollPosition.forward(Map.of("id", id)), true);
+            }
+            if (!partes[2].startsWith(CON_VALOR)) {
+                throw new IllegalArgumentException("Cursor inválido");
+            }
+            Map<String, Object> llaves = new LinkedHashMap<>();
+            llaves.put(ordenarPor, valor(ordenarPor, partes[2].substring(CON_VALOR.length())));
+            llaves.put("id", id);
+            return new Posicion(ScrollPosition.forward(llaves), false);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+    }
+
+    private static Object valor(String campo, String texto) {
+        return switch (campo) {
+            case "id" -> Long.valueOf(texto);
+            case "precio" -> Double.valueOf(texto);
+            default -> texto;
+        };
+    }
+
+    private static Object valor(Producto producto, String campo) {
+        return switch (campo) {
+            case "id" -> producto.getId();
+            case "precio" -> producto.getPrecio();
+            default -> producto.getNombre();
+        };
+    }
+}
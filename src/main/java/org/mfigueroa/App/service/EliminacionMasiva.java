@@ -0,0 +1,197 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.mfigueroa.App.repository.ResumenVentasClienteRepository;
+import org.mfigueroa.App.repository.VentaRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+
+/**
+ * Eliminación masiva de clientes, productos y ventas con sentencias DELETE ... WHERE id IN (...) por bloques
+ * de {@code app.eliminacion.tamano-bloque} ids, cada bloque en su propia transacción para que los bloqueos
+ * duren poco. En el mismo bloque se limpian venta_producto, las ventas de los clientes eliminados y los
+ * resúmenes de ventas; los índices en memoria se actualizan al confirmar cada bloque. Si un bloque falla
+ * la eliminación se detiene y los bloques anteriores quedan confirmados.
+ */
+@Component
+public class EliminacionMasiva {
+
+    private static final Logger logger = LoggerFactory.getLogger(EliminacionMasiva.class);
+
+    // Máximo de ids por cláusula IN (límite de Oracle)
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private ResumenVentasClienteRepository resumenRepository;
+
+    @Autowired
+    private BusquedaNombres busquedaNombres;
+
+    @Autowired
+    private Autocompletado autocompletado;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Autowired
+    private AnaliticaVentas analiticaVentas;
+
+    @Value("${app.eliminacion.tamano-bloque:500}")
+    private int tamanoBloque;
+
+    // Por ids, o los clientes sin ventas con sinVentas=true. Las ventas de los clientes se eliminan con ellos
+    public ResultadoEliminacionDTO eliminarClientes(FiltroEliminacionDTO filtro) {
+        LongFunction<List<Long>> siguientes = null;
+        if (Boolean.TRUE.equals(filtro.getSinVentas())) {
+            siguientes = ultimo -> clienteRepository.findIdsSinVentas(ultimo, Limit.of(bloque()));
+        }
+        return eliminar("clientes", filtro, siguientes, this::eliminarBloqueClientes, ids -> ids.forEach(id -> {
+            busquedaNombres.eliminarCliente(id);
+            autocompletado.eliminarCliente(id);
+        }));
+    }
+
+    // Por ids o por stock máximo y rango de precio. Las ventas se conservan sin los productos eliminados
+    public ResultadoEliminacionDTO eliminarProductos(FiltroEliminacionDTO filtro) {
+        LongFunction<List<Long>> siguientes = null;
+        if (filtro.getStockMaximo() != null || filtro.getMinPrecio() != null || filtro.getMaxPrecio() != null) {
+            siguientes = ultimo -> productoRepository.findIdsParaEliminar(ultimo, filtro.getStockMaximo(),
+                    filtro.getMinPrecio(), filtro.getMaxPrecio(), Limit.of(bloque()));
+        }
+        return eliminar("productos", filtro, siguientes, this::eliminarBloqueProductos, ids -> ids.forEach(id -> {
+            busquedaNombres.eliminarProducto(id);
+            autocompletado.eliminarProducto(id);
+        }));
+    }
+
+    // Por ids o por cliente y rango de fechas [desde, hasta)
+    public ResultadoEliminacionDTO eliminarVentas(FiltroEliminacionDTO filtro) {
+        LongFunction<List<Long>> siguientes = null;
+        if (filtro.getClienteId() != null || filtro.getDesde() != null || filtro.getHasta() != null) {
+            siguientes = ultimo -> ventaRepository.findIdsParaEliminar(ultimo, filtro.getClienteId(),
+                    filtro.getDesde(), filtro.getHasta(), Limit.of(bloque()));
+        }
+        return eliminar("ventas", filtro, siguientes, this::eliminarBloqueVentas, ids -> { });
+    }
+
+    private ResultadoEliminacionDTO eliminar(String tabla, FiltroEliminacionDTO filtro,
+                                             LongFunction<List<Long>> siguientes,
+                                             BiConsumer<List<Long>, ResultadoEliminacionDTO> eliminarBloque, Consumer<List<Long>> alConfirmar) {
+        boolean porIds = filtro.getIds() != null && !filtro.getIds().isEmpty();
+        if (!porIds && siguientes == null) {
+            throw new IllegalArgumentException("Se requiere una lista de ids o un filtro para eliminar " + tabla);
+        }
+        long inicio = System.currentTimeMillis();
+        ResultadoEliminacionDTO resultado = new ResultadoEliminacionDTO();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        if (porIds) {
+            List<Long> ids = filtro.getIds().stream().filter(Objects::nonNull).distinct().sorted().toList();
+            for (int desde = 0; desde < ids.size(); desde += bloque()) {
+                List<Long> bloque = ids.subList(desde, Math.min(desde + bloque(), ids.size()));
+                transaccion.executeWithoutResult(status -> eliminarBloque.accept(bloque, resultado));
+                alConfirmar.accept(bloque);
+            }
+        } else {
+            long ultimo = 0;
+            while (true) {
+                long desde = ultimo;
+                // La selección y el DELETE van en la misma transacción
+                List<Long> bloque = transaccion.execute(status -> {
+                    List<Long> ids = siguientes.apply(desde);
+                    if (!ids.isEmpty()) {
+                        eliminarBloque.accept(ids, resultado);
+                    }
+                    return ids;
+                });
+                if (bloque.isEmpty()) {
+                    break;
+                }
+                alConfirmar.accept(bloque);
+                if (bloque.size() < bloque()) {
+                    break;
+                }
+                ultimo = bloque.get(bloque.size() - 1);
+            }
+        }
+        resultado.setMilisegundos(System.currentTimeMillis() - inicio);
+        logger.info("Eliminación masiva de {}: {} clientes, {} productos, {} ventas, {} filas de venta_producto " +
+                        "en {} bloques, {} ms", tabla, resultado.getClientes(), resultado.getProductos(),
+                resultado.getVentas(), resultado.getVentaProductos(), resultado.getBloques(), resultado.getMilisegundos());
+        return resultado;
+    }
+
+    private void eliminarBloqueClientes(List<Long> ids, ResultadoEliminacionDTO resultado) {
+        Map<Long, Long> unidades = aMapa(ventaRepository.contarUnidadesPorClientes(ids));
+        int ventaProductos = ventaRepository.deleteProductosDeVentasDeClientes(ids);
+        int ventas = ventaRepository.deleteByClienteIdIn(ids);
+        resumenRepository.eliminarPorClientes(ids);
+        int clientes = clienteRepository.deleteByIdIn(ids);
+        autocompletado.descontarVentas(Map.of(), unidades);
+        versionesTablas.incrementar(VersionesTablas.Tabla.CLIENTES);
+        analiticaVentas.eliminarClientes(ids);
+        resultado.agregarBloque(clientes, 0, ventas, ventaProductos);
+    }
+
+    private void eliminarBloqueProductos(List<Long> ids, ResultadoEliminacionDTO resultado) {
+        int ventaProductos = ventaRepository.deleteVentaProductoPorProductos(ids);
+        int productos = productoRepository.deleteByIdIn(ids);
+        versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+        analiticaVentas.invalidar();
+        resultado.agregarBloque(0, productos, 0, ventaProductos);
+    }
+
+    private void eliminarBloqueVentas(List<Long> ids, ResultadoEliminacionDTO resultado) {
+        Map<Long, Long> ventasPorCliente = aMapa(ventaRepository.contarVentasPorCliente(ids));
+        Map<Long, Long> unidades = aMapa(ventaRepository.contarUnidadesPorVentas(ids));
+        int ventaProductos = ventaRepository.deleteProductosDeVentas(ids);
+        int ventas = ventaRepository.deleteByIdIn(ids);
+        if (!ventasPorCliente.isEmpty()) {
+            resumenRepository.recalcular(ventasPorCliente.keySet());
+        }
+        autocompletado.descontarVentas(ventasPorCliente, unidades);
+        analiticaVentas.eliminarVentas(ids);
+        resultado.agregarBloque(0, 0, ventas, ventaProductos);
+    }
+
+    // Pares (id, cantidad) de las consultas GROUP BY
+    private static Map<Long, Long> aMapa(List<Object[]> pares) {
+        Map<Long, Long> mapa = new HashMap<>();
+        for (Object[] par : pares) {
+            mapa.put(((Number) par[0]).longValue(), ((Number) par[1]).longValue());
+        }
+        return mapa;
+    }
+
+    private int bloque() {
+        return Math.min(Math.max(tamanoBloque, 1), MAX_IDS_POR_CONSULTA);
+    }
+}
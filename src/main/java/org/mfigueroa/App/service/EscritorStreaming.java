@@ -0,0 +1,71 @@
+package org.mfigueroa.App.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+/**
+ * Escribe el resultado de una consulta directamente en la respuesta, registro por registro
+ * (NDJSON o arreglo JSON). Las entidades escritas se separan del contexto de persistencia en cada
+ * flush, así la memoria no depende del tamaño de la tabla.
+ */
+@Component
+public class EscritorStreaming {
+
+    // Registros escritos entre cada flush hacia el cliente
+    private static final int REGISTROS_POR_FLUSH = 500;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public <E, D> void escribir(Supplier<Stream<E>> consulta, Function<E, D> convertir,
+                                OutputStream salida, boolean ndjson) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.setReadOnly(true);
+        transaccion.executeWithoutResult(status -> {
+            try (Stream<E> entidades = consulta.get();
+                 JsonGenerator generador = objectMapper.getFactory().createGenerator(salida)) {
+                if (ndjson) {
+                    generador.setRootValueSeparator(null);
+                } else {
+                    generador.writeStartArray();
+                }
+                int escritos = 0;
+                for (E entidad : (Iterable<E>) entidades::iterator) {
+                    generador.writeObject(convertir.apply(entidad));
+                    if (ndjson) {
+                        generador.writeRaw('\n');
+                    }
+                    if (++escritos % REGISTROS_POR_FLUSH == 0) {
+                        generador.flush();
+                        // Separa las entidades ya escritas (y sus asociaciones) del contexto de persistencia
+                        entityManager.clear();
+                    }
+                }
+                if (!ndjson) {
+                    generador.writeEndArray();
+                }
+            } catch (IOException ex) {
+                throw new UncheckedIOException(ex);
+            }
+        });
+    }
+}
@@ -0,0 +1,440 @@
+package org.mfigueroa.App.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.dialect.Dialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.mfigueroa.App.dto.ResultadoGeneracionDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Random;
+import java.util.SplittableRandom;
+import java.util.TimeZone;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Genera datos sintéticos de clientes, productos y ventas con JDBC en batch, sin pasar por JPA.
+ * <ul>
+ *     <li>La popularidad de los productos y la cantidad de compras por cliente siguen una ley de potencias
+ *     (Zipf, exponentes {@code sesgo-productos} y {@code sesgo-clientes}).</li>
+ *     <li>Las fechas de venta se reparten en los {@code dias} anteriores a {@code fecha-fin}, con más ventas
+ *     hacia las fechas recientes.</li>
+ *     <li>Cada bloque de {@code tamano-bloque} filas se genera con su propia semilla derivada de
+ *     {@code semilla}, se inserta en su propia transacción y los bloques se cargan en paralelo en
+ *     {@code hilos} conexiones; el contenido no depende del orden en que terminan los hilos.</li>
+ * </ul>
+ * Los ids de clientes, productos y ventas se reservan de sus secuencias, así no chocan con los que asigna
+ * Hibernate. Pensado para cargar una base vacía o de pruebas antes de recibir tráfico: con
+ * {@code app.generador.activo=true} se ejecuta al arrancar.
+ */
+@Component
+public class GeneradorDatos implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneradorDatos.class);
+
+    // allocationSize de cliente_seq, producto_seq y venta_seq: cada valor de la secuencia cubre 50 ids
+    private static final int INCREMENTO_SECUENCIA = 50;
+    private static final int MAX_PRODUCTOS_POR_VENTA = 50;
+
+    private static final String[] NOMBRES = {"Ana", "Luis", "María", "José", "Carmen", "Juan", "Lucía", "Pedro",
+            "Sofía", "Miguel", "Elena", "Jorge", "Laura", "Diego", "Paula", "Andrés", "Valeria", "Carlos", "Isabel",
+            "Fernando", "Camila", "Raúl", "Daniela", "Héctor", "Gabriela", "Óscar", "Natalia", "Iván", "Rosa", "Tomás"};
+    private static final String[] APELLIDOS = {"García", "Martínez", "López", "Hernández", "González", "Pérez",
+            "Rodríguez", "Sánchez", "Ramírez", "Cruz", "Flores", "Gómez", "Morales", "Vázquez", "Reyes", "Jiménez",
+            "Torres", "Díaz", "Gutiérrez", "Ruiz", "Mendoza", "Aguilar", "Ortiz", "Castillo", "Romero", "Álvarez"};
+    private static final String[] TIPOS = {"Teclado", "Mouse", "Monitor", "Laptop", "Unidad SSD", "Disco duro",
+            "Audífonos", "Bocina", "Cámara", "Router", "Impresora", "Tablet", "Cargador", "Cable", "Memoria RAM",
+            "Tarjeta de video", "Gabinete", "Fuente de poder", "Micrófono", "Webcam"};
+    private static final String[] MARCAS = {"Acme", "Nova", "Orion", "Zenit", "Atlas", "Vega", "Delta", "Polar",
+            "Titan", "Kappa", "Lumen", "Fenix"};
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ResumenVentasService resumenVentasService;
+
+    @Autowired
+    private BusquedaNombres busquedaNombres;
+
+    @Autowired
+    private Autocompletado autocompletado;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Autowired
+    private AnaliticaVentas analiticaVentas;
+
+    @Value("${app.generador.activo:false}")
+    private boolean activo;
+
+    @Value("${app.generador.clientes:100000}")
+    private int clientesConfigurados;
+
+    @Value("${app.generador.productos:20000}")
+    private int productosConfigurados;
+
+    @Value("${app.generador.ventas:1000000}")
+    private int ventasConfiguradas;
+
+    @Value("${app.generador.semilla:42}")
+    private long semillaConfigurada;
+
+    @Value("${app.generador.productos-por-venta:3.0}")
+    private double productosPorVenta;
+
+    @Value("${app.generador.sesgo-productos:1.1}")
+    private double sesgoProductos;
+
+    @Value("${app.generador.sesgo-clientes:0.8}")
+    private double sesgoClientes;
+
+    @Value("${app.generador.dias:730}")
+    private int dias;
+
+    @Value("${app.generador.fecha-fin:}")
+    private String fechaFin;
+
+    @Value("${app.generador.hilos:4}")
+    private int hilos;
+
+    @Value("${app.generador.tamano-bloque:50000}")
+    private int tamanoBloque;
+
+    @Value("${app.generador.tamano-lote:1000}")
+    private int tamanoLote;
+
+    private volatile boolean aplicacionLista;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void marcarLista() {
+        aplicacionLista = true;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (activo) {
+            generar(clientesConfigurados, productosConfigurados, ventasConfiguradas, semillaConfigurada);
+        }
+    }
+
+    public ResultadoGeneracionDTO generar(int clientes, int productos, int ventas, long semilla) {
+        if (clientes < 0 || productos < 0 || ventas < 0) {
+            throw new IllegalArgumentException("Las cantidades no pueden ser negativas");
+        }
+        if (ventas > 0 && (clientes == 0 || productos == 0)) {
+            throw new IllegalArgumentException("Las ventas requieren al menos un cliente y un producto");
+        }
+        long inicio = System.currentTimeMillis();
+        ExecutorService ejecutor = Executors.newFixedThreadPool(Math.max(1, hilos));
+        try {
+            long[] idsClientes = reservarIds("cliente_seq", clientes);
+            long[] idsProductos = reservarIds("producto_seq", productos);
+            double[] precios = precios(productos, semilla);
+
+            // Clientes y productos no dependen entre sí; las ventas necesitan ambos
+            List<Future<Long>> tareas = new ArrayList<>();
+            for (int desde = 0; desde < clientes; desde += tamanoBloque) {
+                int bloque = desde / tamanoBloque;
+                int inicioBloque = desde;
+                int finBloque = Math.min(desde + tamanoBloque, clientes);
+                tareas.add(ejecutor.submit(() -> insertarClientes(idsClientes, inicioBloque, finBloque, semilla, bloque)));
+            }
+            for (int desde = 0; desde < productos; desde += tamanoBloque) {
+                int bloque = desde / tamanoBloque;
+                int inicioBloque = desde;
+                int finBloque = Math.min(desde + tamanoBloque, productos);
+                tareas.add(ejecutor.submit(() -> insertarProductos(idsProductos, precios, inicioBloque, finBloque,
+                        semilla, bloque)));
+            }
+            esperar(tareas);
+
+            long ventaProductos = 0;
+            if (ventas > 0) {
+                long[] idsVentas = reservarIds("venta_seq", ventas);
+                double[] popularidadProductos = distribucionZipf(productos, sesgoProductos);
+                double[] popularidadClientes = distribucionZipf(clientes, sesgoClientes);
+                int[] rangoProducto = permutacion(productos, new Random(semilla ^ 0x5DEECE66DL));
+                int[] rangoCliente = permutacion(clientes, new Random(semilla ^ 0xB5297A4DL));
+                long finFechas = fechaFin.isBlank() ? LocalDate.now(ZoneOffset.UTC).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli()
+                        : LocalDate.parse(fechaFin).atStartOfDay().toInstant(ZoneOffset.UTC).toEpochMilli();
+                Catalogo catalogo = new Catalogo(idsClientes, idsProductos, precios, popularidadClientes,
+                        popularidadProductos, rangoCliente, rangoProducto, finFechas);
+
+                tareas.clear();
+                for (int desde = 0; desde < ventas; desde += tamanoBloque) {
+                    int bloque = desde / tamanoBloque;
+                    int inicioBloque = desde;
+                    int finBloque = Math.min(desde + tamanoBloque, ventas);
+                    tareas.add(ejecutor.submit(() -> insertarVentas(catalogo, idsVentas, inicioBloque, finBloque,
+                            semilla, bloque)));
+                }
+                ventaProductos = esperar(tareas);
+            }
+
+            resumenVentasService.reconstruir();
+            entityManagerFactory.getCache().evictAll();
+            versionesTablas.incrementar(VersionesTablas.Tabla.CLIENTES);
+            versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+            // Al arrancar los índices en memoria se construyen después, con ApplicationReadyEvent
+            if (aplicacionLista) {
+                busquedaNombres.construir();
+                autocompletado.construir();
+                analiticaVentas.construir();
+            }
+
+            long milisegundos = System.currentTimeMillis() - inicio;
+            ResultadoGeneracionDTO resultado = new ResultadoGeneracionDTO(clientes, productos, ventas, ventaProductos,
+                    milisegundos);
+            logger.info("Datos generados (semilla {}): {} clientes, {} productos, {} ventas, {} filas de venta_producto en {} ms",
+                    semilla, clientes, productos, ventas, ventaProductos, milisegundos);
+            return resultado;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("Error al generar datos: " + ex.getMessage(), ex);
+        } finally {
+            ejecutor.shutdownNow();
+        }
+    }
+
+    private long insertarClientes(long[] ids, int desde, int hasta, long semilla, int bloque) throws SQLException {
+        SplittableRandom random = new SplittableRandom(semillaBloque(semilla, 1, bloque));
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (PreparedStatement insert = conexion.prepareStatement(
+                    "INSERT INTO clientes (id, nombre, email) VALUES (?, ?, ?)")) {
+                for (int i = desde; i < hasta; i++) {
+                    String nombre = NOMBRES[random.nextInt(NOMBRES.length)];
+                    String apellido = APELLIDOS[random.nextInt(APELLIDOS.length)];
+                    insert.setLong(1, ids[i]);
+                    insert.setString(2, nombre + " " + apellido);
+                    insert.setString(3, "cliente" + ids[i] + "@datos.test");
+                    agregar(insert, i - desde);
+                }
+                confirmar(conexion, insert);
+            }
+        }
+        return hasta - desde;
+    }
+
+    private long insertarProductos(long[] ids, double[] precios, int desde, int hasta, long semilla, int bloque)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(semillaBloque(semilla, 2, bloque));
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (PreparedStatement insert = conexion.prepareStatement(
+                    "INSERT INTO productos (id, nombre, precio, stock, version) VALUES (?, ?, ?, ?, 0)")) {
+                for (int i = desde; i < hasta; i++) {
+                    insert.setLong(1, ids[i]);
+                    insert.setString(2, TIPOS[random.nextInt(TIPOS.length)] + " " + MARCAS[random.nextInt(MARCAS.length)]
+                            + " " + (100 + random.nextInt(900)));
+                    insert.setDouble(3, precios[i]);
+                    insert.setInt(4, 100 + random.nextInt(10_000));
+                    agregar(insert, i - desde);
+                }
+                confirmar(conexion, insert);
+            }
+        }
+        return hasta - desde;
+    }
+
+    // Devuelve las filas de venta_producto insertadas
+    private long insertarVentas(Catalogo catalogo, long[] idsVentas, int desde, int hasta, long semilla, int bloque)
+            throws SQLException {
+        SplittableRandom random = new SplittableRandom(semillaBloque(semilla, 3, bloque));
+        long rangoFechas = dias * 86_400_000L;
+        double probabilidad = 1.0 / Math.max(1.0, productosPorVenta);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int[] elegidos = new int[MAX_PRODUCTOS_POR_VENTA];
+        long filasDetalle = 0;
+        int pendientes = 0;
+        try (Connection conexion = dataSource.getConnection()) {
+            conexion.setAutoCommit(false);
+            try (PreparedStatement venta = conexion.prepareStatement(
+                    "INSERT INTO ventas (id, fecha, total, cliente_id) VALUES (?, ?, ?, ?)");
+                 PreparedStatement detalle = conexion.prepareStatement(
+                         "INSERT INTO venta_producto (venta_id, producto_id) VALUES (?, ?)")) {
+                for (int i = desde; i < hasta; i++) {
+                    long ventaId = idsVentas[i];
+                    int cliente = catalogo.rangoCliente[muestra(catalogo.popularidadClientes, random)];
+                    // Cantidad de productos con distribución geométrica de media productosPorVenta
+                    int cantidad = 1;
+                    while (cantidad < MAX_PRODUCTOS_POR_VENTA && random.nextDouble() >= probabilidad) {
+                        cantidad++;
+                    }
+                    double total = 0;
+                    for (int p = 0; p < cantidad; p++) {
+                        elegidos[p] = catalogo.rangoProducto[muestra(catalogo.popularidadProductos, random)];
+                        total += catalogo.precios[elegidos[p]];
+                    }
+                    // Más ventas hacia fechas recientes (densidad creciente en el tiempo)
+                    long antiguedad = (long) (rangoFechas * (1 - Math.sqrt(random.nextDouble())));
+                    venta.setLong(1, ventaId);
+                    venta.setTimestamp(2, new Timestamp(catalogo.finFechas - antiguedad), utc);
+                    venta.setDouble(3, Math.round(total * 100) / 100.0);
+                    venta.setLong(4, catalogo.idsClientes[cliente]);
+                    venta.addBatch();
+                    for (int p = 0; p < cantidad; p++) {
+                        detalle.setLong(1, ventaId);
+                        detalle.setLong(2, catalogo.idsProductos[elegidos[p]]);
+                        detalle.addBatch();
+                    }
+                    filasDetalle += cantidad;
+                    pendientes += 1 + cantidad;
+                    // Las ventas se envían antes que las filas de venta_producto que las referencian
+                    if (pendientes >= tamanoLote) {
+                        venta.executeBatch();
+                        detalle.executeBatch();
+                        pendientes = 0;
+                    }
+                }
+                venta.executeBatch();
+                detalle.executeBatch();
+                conexion.commit();
+            } catch (SQLException ex) {
+                conexion.rollback();
+                throw ex;
+            }
+        }
+        return filasDetalle;
+    }
+
+    private void agregar(PreparedStatement insert, int filas) throws SQLException {
+        insert.addBatch();
+        if ((filas + 1) % tamanoLote == 0) {
+            insert.executeBatch();
+        }
+    }
+
+    private void confirmar(Connection conexion, PreparedStatement insert) throws SQLException {
+        try {
+            insert.executeBatch();
+            conexion.commit();
+        } catch (SQLException ex) {
+            conexion.rollback();
+            throw ex;
+        }
+    }
+
+    // Reserva cantidad ids tomando valores de la secuencia, como lo hace el optimizador pooled de Hibernate
+    private long[] reservarIds(String secuencia, int cantidad) throws SQLException {
+        long[] ids = new long[cantidad];
+        String siguiente = dialecto().getSequenceSupport().getSequenceNextValString(secuencia);
+        int asignados = 0;
+        try (Connection conexion = dataSource.getConnection();
+             PreparedStatement consulta = conexion.prepareStatement(siguiente)) {
+            while (asignados < cantidad) {
+                long valor;
+                try (ResultSet rs = consulta.executeQuery()) {
+                    rs.next();
+                    valor = rs.getLong(1);
+                }
+                for (long id = Math.max(1, valor - INCREMENTO_SECUENCIA + 1); id <= valor && asignados < cantidad; id++) {
+                    ids[asignados++] = id;
+                }
+            }
+        }
+        return ids;
+    }
+
+    private Dialect dialecto() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class).getJdbcServices().getDialect();
+    }
+
+    private long esperar(List<Future<Long>> tareas) throws SQLException {
+        long total = 0;
+        try {
+            for (Future<Long> tarea : tareas) {
+                total += tarea.get();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Generación interrumpida", ex);
+        } catch (ExecutionException ex) {
+            tareas.forEach(t -> t.cancel(true));
+            if (ex.getCause() instanceof SQLException sql) {
+                throw sql;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+        return total;
+    }
+
+    // Precios con distribución log-uniforme entre 1 y 5000
+    private static double[] precios(int productos, long semilla) {
+        SplittableRandom random = new SplittableRandom(semilla);
+        double[] precios = new double[productos];
+        for (int i = 0; i < productos; i++) {
+            precios[i] = Math.round(Math.exp(random.nextDouble() * Math.log(5000)) * 100) / 100.0;
+        }
+        return precios;
+    }
+
+    // Distribución acumulada de Zipf: el elemento de rango r tiene peso 1 / r^exponente
+    static double[] distribucionZipf(int elementos, double exponente) {
+        double[] acumulada = new double[elementos];
+        double suma = 0;
+        for (int i = 0; i < elementos; i++) {
+            suma += 1.0 / Math.pow(i + 1, exponente);
+            acumulada[i] = suma;
+        }
+        for (int i = 0; i < elementos; i++) {
+            acumulada[i] /= suma;
+        }
+        return acumulada;
+    }
+
+    // Rango muestreado de la distribución acumulada
+    static int muestra(double[] acumulada, SplittableRandom random) {
+        int indice = Arrays.binarySearch(acumulada, random.nextDouble());
+        return Math.min(indice >= 0 ? indice : -indice - 1, acumulada.length - 1);
+    }
+
+    // Qué elemento ocupa cada rango de popularidad, para que los populares no sean siempre los primeros ids
+    private static int[] permutacion(int elementos, Random random) {
+        int[] orden = new int[elementos];
+        for (int i = 0; i < elementos; i++) {
+            orden[i] = i;
+        }
+        for (int i = elementos - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temporal = orden[i];
+            orden[i] = orden[j];
+            orden[j] = temporal;
+        }
+        return orden;
+    }
+
+    private static long semillaBloque(long semilla, int tabla, int bloque) {
+        return semilla * 0x9E3779B97F4A7C15L + tabla * 0xC2B2AE3D27D4EB4FL + bloque;
+    }
+
+    private record Catalogo(long[] idsClientes, long[] idsProductos, double[] precios, double[] popularidadClientes,
+                            double[] popularidadProductos, int[] rangoCliente, int[] rangoProducto, long finFechas) {
+    }
+}
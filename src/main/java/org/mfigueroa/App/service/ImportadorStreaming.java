@@ -0,0 +1,138 @@
+package org.mfigueroa.App.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Importa registros leyendo el cuerpo de la petición de forma incremental (NDJSON o arreglo JSON).
+ * Solo se mantiene en memoria el bloque actual, que se entrega a {@link ProcesadorLotes}.
+ */
+@Component
+public class ImportadorStreaming {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Value("${app.lotes.max-errores:1000}")
+    private int maxErrores;
+
+    // Un registro JSON por línea; las líneas inválidas se reportan y se continúa con la siguiente
+    public <D, E> ResultadoLoteDTO importarNdjson(InputStream entrada, Class<D> tipo, Function<D, E> convertir) throws IOException {
+        return importarNdjson(entrada, tipo, convertir, confirmados -> { });
+    }
+
+    public <D, E> ResultadoLoteDTO importarNdjson(InputStream entrada, Class<D> tipo, Function<D, E> convertir,
+                                                  Consumer<List<E>> alConfirmar) throws IOException {
+        ObjectReader lector = objectMapper.readerFor(tipo);
+        Bloque<E> bloque = new Bloque<>(procesadorLotes.getTamanoBloque(), alConfirmar);
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(entrada, StandardCharsets.UTF_8));
+        String linea;
+        long numeroLinea = 0;
+        while ((linea = reader.readLine()) != null) {
+            numeroLinea++;
+            if (linea.isBlank()) {
+                continue;
+            }
+            try {
+                D dto = lector.readValue(linea);
+                agregar(bloque, resultado, numeroLinea, convertir.apply(dto));
+            } catch (JsonProcessingException | IllegalArgumentException ex) {
+                resultado.agregarError(numeroLinea, mensaje(ex), maxErrores);
+            }
+        }
+        cerrar(bloque, resultado);
+        return resultado;
+    }
+
+    // Arreglo JSON leído elemento por elemento; un error de sintaxis detiene la lectura
+    public <D, E> ResultadoLoteDTO importarArregloJson(InputStream entrada, Class<D> tipo, Function<D, E> convertir) throws IOException {
+        return importarArregloJson(entrada, tipo, convertir, confirmados -> { });
+    }
+
+    public <D, E> ResultadoLoteDTO importarArregloJson(InputStream entrada, Class<D> tipo, Function<D, E> convertir,
+                                                       Consumer<List<E>> alConfirmar) throws IOException {
+        Bloque<E> bloque = new Bloque<>(procesadorLotes.getTamanoBloque(), alConfirmar);
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+
+        try (JsonParser parser = objectMapper.getFactory().createParser(entrada)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalArgumentException("Se esperaba un arreglo JSON");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                long numeroLinea = parser.currentTokenLocation().getLineNr();
+                JsonNode nodo = parser.readValueAsTree();
+                try {
+                    D dto = objectMapper.treeToValue(nodo, tipo);
+                    agregar(bloque, resultado, numeroLinea, convertir.apply(dto));
+                } catch (JsonProcessingException | IllegalArgumentException ex) {
+                    resultado.agregarError(numeroLinea, mensaje(ex), maxErrores);
+                }
+            }
+        } catch (JsonProcessingException ex) {
+            resultado.agregarError(ex.getLocation() != null ? ex.getLocation().getLineNr() : -1,
+                    "JSON mal formado: " + ex.getOriginalMessage(), maxErrores);
+        }
+        cerrar(bloque, resultado);
+        return resultado;
+    }
+
+    private <E> void agregar(Bloque<E> bloque, ResultadoLoteDTO resultado, long numeroLinea, E entidad) {
+        if (bloque.entidades.isEmpty()) {
+            bloque.primeraLinea = numeroLinea;
+        }
+        bloque.entidades.add(entidad);
+        if (bloque.entidades.size() == bloque.capacidad) {
+            cerrar(bloque, resultado);
+        }
+    }
+
+    private <E> void cerrar(Bloque<E> bloque, ResultadoLoteDTO resultado) {
+        if (bloque.entidades.isEmpty()) {
+            return;
+        }
+        resultado.agregarBloque(procesadorLotes.persistirBloque(bloque.numero++, bloque.primeraLinea,
+                bloque.entidades, bloque.alConfirmar));
+        bloque.entidades.clear();
+    }
+
+    private String mensaje(Exception ex) {
+        return ex instanceof JsonProcessingException jpe ? jpe.getOriginalMessage() : ex.getMessage();
+    }
+
+    private static class Bloque<E> {
+        private final int capacidad;
+        private final List<E> entidades;
+        private final Consumer<List<E>> alConfirmar;
+        private int numero;
+        private long primeraLinea;
+
+        private Bloque(int capacidad, Consumer<List<E>> alConfirmar) {
+            this.capacidad = capacidad;
+            this.entidades = new ArrayList<>(capacidad);
+            this.alConfirmar = alConfirmar;
+        }
+    }
+}
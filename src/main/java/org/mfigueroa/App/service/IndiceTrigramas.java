@@ -0,0 +1,204 @@
+package org.mfigueroa.App.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Índice invertido de trigramas para búsqueda por subcadena (equivalente a {@code LOWER(texto) LIKE '%x%'}).
+ * Cada trigrama del texto en minúsculas apunta a una lista ordenada de ids; una búsqueda intersecta las
+ * listas de los trigramas de la consulta empezando por la más corta y verifica cada candidato contra el
+ * texto original, que se guarda tal cual para poder ordenar coincidencias en memoria.
+ * Consultas de menos de tres caracteres recorren los textos directamente.
+ */
+public class IndiceTrigramas {
+
+    private final Map<Long, ListaIds> posteos = new HashMap<>();
+    private final Map<Long, String> textos = new HashMap<>();
+    private final ReentrantReadWriteLock candado = new ReentrantReadWriteLock();
+
+    public void agregar(Long id, String texto) {
+        if (id == null) {
+            return;
+        }
+        candado.writeLock().lock();
+        try {
+            quitar(id);
+            if (texto == null) {
+                return;
+            }
+            textos.put(id, texto);
+            for (long trigrama : trigramas(normalizar(texto))) {
+                posteos.computeIfAbsent(trigrama, t -> new ListaIds()).agregar(id);
+            }
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void eliminar(Long id) {
+        candado.writeLock().lock();
+        try {
+            quitar(id);
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    public void limpiar() {
+        candado.writeLock().lock();
+        try {
+            posteos.clear();
+            textos.clear();
+        } finally {
+            candado.writeLock().unlock();
+        }
+    }
+
+    // Ids cuyo texto contiene la consulta (sin distinguir mayúsculas), en orden ascendente
+    public List<Long> buscar(String consulta) {
+        String normalizado = normalizar(consulta);
+        candado.readLock().lock();
+        try {
+            if (normalizado.length() < 3) {
+                return recorrer(normalizado);
+            }
+            long[] llaves = trigramas(normalizado);
+            ListaIds[] listas = new ListaIds[llaves.length];
+            for (int i = 0; i < llaves.length; i++) {
+                listas[i] = posteos.get(llaves[i]);
+                if (listas[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(listas, Comparator.comparingInt(lista -> lista.tamano));
+
+            List<Long> resultado = new ArrayList<>();
+            ListaIds menor = listas[0];
+            candidatos:
+            for (int i = 0; i < menor.tamano; i++) {
+                long id = menor.ids[i];
+                for (int j = 1; j < listas.length; j++) {
+                    if (!listas[j].contiene(id)) {
+                        continue candidatos;
+                    }
+                }
+                // Los trigramas pueden aparecer en otro orden, se confirma la subcadena completa
+                if (contiene(textos.get(id), normalizado)) {
+                    resultado.add(id);
+                }
+            }
+            return resultado;
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    // Texto original con el que se indexó el id
+    public String texto(Long id) {
+        candado.readLock().lock();
+        try {
+            return textos.get(id);
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    public int tamano() {
+        candado.readLock().lock();
+        try {
+            return textos.size();
+        } finally {
+            candado.readLock().unlock();
+        }
+    }
+
+    private List<Long> recorrer(String normalizado) {
+        List<Long> resultado = new ArrayList<>();
+        for (Map.Entry<Long, String> entrada : textos.entrySet()) {
+            if (contiene(entrada.getValue(), normalizado)) {
+                resultado.add(entrada.getKey());
+            }
+        }
+        resultado.sort(null);
+        return resultado;
+    }
+
+    private void quitar(Long id) {
+        String anterior = textos.remove(id);
+        if (anterior == null) {
+            return;
+        }
+        for (long trigrama : trigramas(normalizar(anterior))) {
+            ListaIds lista = posteos.get(trigrama);
+            if (lista != null && lista.quitar(id) && lista.tamano == 0) {
+                posteos.remove(trigrama);
+            }
+        }
+    }
+
+    // contains sin distinguir mayúsculas y sin crear una copia en minúsculas del texto
+    private static boolean contiene(String texto, String consulta) {
+        for (int i = 0; i + consulta.length() <= texto.length(); i++) {
+            if (texto.regionMatches(true, i, consulta, 0, consulta.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String normalizar(String texto) {
+        return texto == null ? "" : texto.toLowerCase(Locale.ROOT);
+    }
+
+    // Trigramas distintos del texto, cada uno empaquetado en un long (tres chars de 16 bits)
+    static long[] trigramas(String texto) {
+        if (texto.length() < 3) {
+            return new long[0];
+        }
+        long[] llaves = new long[texto.length() - 2];
+        for (int i = 0; i < llaves.length; i++) {
+            llaves[i] = ((long) texto.charAt(i) << 32) | ((long) texto.charAt(i + 1) << 16) | texto.charAt(i + 2);
+        }
+        return Arrays.stream(llaves).distinct().toArray();
+    }
+
+    // Lista de ids ordenada sobre un arreglo primitivo; los ids nuevos suelen ser mayores y se agregan al final
+    private static final class ListaIds {
+        private long[] ids = new long[4];
+        private int tamano;
+
+        private void agregar(long id) {
+            int posicion = tamano > 0 && ids[tamano - 1] < id ? -(tamano + 1) : Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion >= 0) {
+                return;
+            }
+            posicion = -(posicion + 1);
+            if (tamano == ids.length) {
+                ids = Arrays.copyOf(ids, tamano * 2);
+            }
+            System.arraycopy(ids, posicion, ids, posicion + 1, tamano - posicion);
+            ids[posicion] = id;
+            tamano++;
+        }
+
+        private boolean quitar(long id) {
+            int posicion = Arrays.binarySearch(ids, 0, tamano, id);
+            if (posicion < 0) {
+                return false;
+            }
+            System.arraycopy(ids, posicion + 1, ids, posicion, tamano - posicion - 1);
+            tamano--;
+            return true;
+        }
+
+        private boolean contiene(long id) {
+            return Arrays.binarySearch(ids, 0, tamano, id) >= 0;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package org.mfigueroa.App.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ingesta agrupada de ventas (opcional, {@code app.ventas.ingesta.activa=true}).
+ * <p>
+ * Las ventas se encolan en una cola acotada y un único hilo escritor las guarda en lotes de hasta
+ * {@code max-lote} ventas o lo que llegue en {@code max-espera-ms}, en una sola transacción: un commit por lote,
+ * las filas de ventas y venta_producto en batch JDBC y el stock y el resumen actualizados una vez por producto y
+ * cliente.
+ * Cada llamador recibe su venta con el id generado al confirmarse el lote. Si el lote se revierte se reintenta
+ * venta por venta, así solo falla la venta inválida; si falla después del commit no se reintenta. Sin
+ * confirmación en {@code espera-confirmacion-ms} la venta falla con {@link java.util.concurrent.TimeoutException}.
+ * <p>
+ * Con la cola llena se espera hasta {@code espera-encolar-ms} y luego se rechaza la venta
+ * ({@link RejectedExecutionException}, 503 en el controlador).
+ */
+@Component
+public class IngestaVentas {
+
+    private static final Logger logger = LoggerFactory.getLogger(IngestaVentas.class);
+
+    private record Pendiente(VentaDTO venta, CompletableFuture<VentaDTO> resultado) {
+    }
+
+    @Lazy
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.ventas.ingesta.activa:false}")
+    private boolean activa;
+
+    @Value("${app.ventas.ingesta.capacidad:10000}")
+    private int capacidad;
+
+    @Value("${app.ventas.ingesta.max-lote:100}")
+    private int maxLote;
+
+    @Value("${app.ventas.ingesta.max-espera-ms:5}")
+    private long maxEsperaMs;
+
+    @Value("${app.ventas.ingesta.espera-encolar-ms:100}")
+    private long esperaEncolarMs;
+
+    @Value("${app.ventas.ingesta.espera-confirmacion-ms:30000}")
+    private long esperaConfirmacionMs;
+
+    private BlockingQueue<Pendiente> cola;
+    private DistributionSummary tamanoLotes;
+    private Thread escritor;
+    private volatile boolean detenida;
+
+    @PostConstruct
+    void iniciar() {
+        if (!activa) {
+            return;
+        }
+        cola = new ArrayBlockingQueue<>(capacidad);
+        meterRegistry.gauge("ventas.ingesta.cola", cola, BlockingQueue::size);
+        tamanoLotes = DistributionSummary.builder("ventas.ingesta.lote")
+                .description("Ventas por transacción de la ingesta agrupada")
+                .register(meterRegistry);
+        escritor = new Thread(this::escribir, "ingesta-ventas");
+        escritor.setDaemon(true);
+        escritor.start();
+        logger.info("Ingesta agrupada de ventas activa (capacidad {}, lotes de hasta {} ventas o {} ms)",
+                capacidad, maxLote, maxEsperaMs);
+    }
+
+    public boolean isActiva() {
+        return activa;
+    }
+
+    public CompletableFuture<VentaDTO> encolar(VentaDTO venta) {
+        if (!activa || detenida || !escritor.isAlive()) {
+            throw new RejectedExecutionException("La ingesta de ventas no está activa");
+        }
+        CompletableFuture<VentaDTO> resultado = new CompletableFuture<VentaDTO>()
+                .orTimeout(esperaConfirmacionMs, TimeUnit.MILLISECONDS);
+        try {
+            if (!cola.offer(new Pendiente(venta, resultado), esperaEncolarMs, TimeUnit.MILLISECONDS)) {
+                throw new RejectedExecutionException("Cola de ventas llena (" + capacidad + " pendientes)");
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new RejectedExecutionException("Interrumpido esperando lugar en la cola de ventas");
+        }
+        return resultado;
+    }
+
+    // Al detenerse guarda lo que quede en la cola antes de terminar
+    private void escribir() {
+        List<Pendiente> lote = new ArrayList<>(maxLote);
+        while (!detenida || !cola.isEmpty()) {
+            try {
+                Pendiente primera = cola.poll(100, TimeUnit.MILLISECONDS);
+                if (primera == null) {
+                    continue;
+                }
+                lote.add(primera);
+                long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxEsperaMs);
+                while (lote.size() < maxLote) {
+                    if (cola.drainTo(lote, maxLote - lote.size()) > 0) {
+                        continue;
+                    }
+                    Pendiente siguiente = cola.poll(limite - System.nanoTime(), TimeUnit.NANOSECONDS);
+                    if (siguiente == null) {
+                        break;
+                    }
+                    lote.add(siguiente);
+                }
+            } catch (InterruptedException ex) {
+                detenida = true;
+            }
+            if (!lote.isEmpty()) {
+                // Un error inesperado no puede terminar el hilo: los llamadores esperarían para siempre
+                try {
+                    guardar(lote);
+                } catch (Throwable ex) {
+                    logger.error("Error al guardar un lote de {} ventas: {}", lote.size(), ex.getMessage(), ex);
+                    fallar(lote, ex);
+                }
+                lote.clear();
+            }
+        }
+    }
+
+    private void guardar(List<Pendiente> lote) {
+        tamanoLotes.record(lote.size());
+        // Si la transacción no llegó a iniciarse tampoco se guardó nada
+        AtomicInteger estado = new AtomicInteger(TransactionSynchronization.STATUS_ROLLED_BACK);
+        try {
+            List<VentaDTO> creadas = ventaService.crearVentas(lote.stream().map(Pendiente::venta).toList(), estado::set);
+            for (int i = 0; i < lote.size(); i++) {
+                lote.get(i).resultado().complete(creadas.get(i));
+            }
+            return;
+        } catch (Throwable ex) {
+            // Confirmado o con resultado desconocido (falló el commit o algo después): reintentar duplicaría ventas
+            if (estado.get() != TransactionSynchronization.STATUS_ROLLED_BACK) {
+                logger.error("Lote de {} ventas con error después del commit (estado {}), no se reintenta: {}",
+                        lote.size(), estado.get(), ex.getMessage(), ex);
+                fallar(lote, ex);
+                return;
+            }
+            if (lote.size() == 1 || ex instanceof Error) {
+                fallar(lote, ex);
+                return;
+            }
+            logger.warn("Lote de {} ventas rechazado, se guardan una por una: {}", lote.size(), ex.getMessage());
+        }
+        for (Pendiente pendiente : lote) {
+            try {
+                pendiente.resultado().complete(ventaService.guardarVenta(pendiente.venta()));
+            } catch (Throwable ex) {
+                pendiente.resultado().completeExceptionally(ex);
+            }
+        }
+    }
+
+    private static void fallar(List<Pendiente> lote, Throwable ex) {
+        for (Pendiente pendiente : lote) {
+            pendiente.resultado().completeExceptionally(ex);
+        }
+    }
+
+    @PreDestroy
+    void detener() throws InterruptedException {
+        if (escritor == null) {
+            return;
+        }
+        detenida = true;
+        escritor.join(TimeUnit.SECONDS.toMillis(10));
+        Pendiente pendiente;
+        while ((pendiente = cola.poll()) != null) {
+            pendiente.resultado().completeExceptionally(new RejectedExecutionException("Aplicación detenida"));
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.mfigueroa.App.service;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.mfigueroa.App.dto.ResultadoBloqueDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Persiste entidades en bloques, cada bloque en su propia transacción.
+ * Dentro del bloque se hace flush/clear cada {@code hibernate.jdbc.batch_size} registros
+ * para que los inserts salgan en batch y el contexto de persistencia no crezca sin límite.
+ */
+@Component
+public class ProcesadorLotes {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProcesadorLotes.class);
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${app.lotes.tamano-bloque:1000}")
+    private int tamanoBloque;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}")
+    private int tamanoBatch;
+
+    public int getTamanoBloque() {
+        return tamanoBloque;
+    }
+
+    // Divide la lista en bloques de tamanoBloque y persiste cada uno
+    public <T> ResultadoLoteDTO persistir(List<T> entidades) {
+        return persistir(entidades, confirmados -> { });
+    }
+
+    // alConfirmar recibe las entidades de cada bloque que se confirmó (ya con id asignado)
+    public <T> ResultadoLoteDTO persistir(List<T> entidades, Consumer<List<T>> alConfirmar) {
+        ResultadoLoteDTO resultado = new ResultadoLoteDTO();
+        int bloque = 0;
+        for (int inicio = 0; inicio < entidades.size(); inicio += tamanoBloque) {
+            int fin = Math.min(inicio + tamanoBloque, entidades.size());
+            resultado.agregarBloque(persistirBloque(bloque++, inicio, entidades.subList(inicio, fin), alConfirmar));
+        }
+        return resultado;
+    }
+
+    public <T> ResultadoBloqueDTO persistirBloque(int bloque, long primerRegistro, List<T> entidades) {
+        return persistirBloque(bloque, primerRegistro, entidades, confirmados -> { });
+    }
+
+    // Persiste un bloque en una sola transacción; si falla se revierte solo ese bloque
+    public <T> ResultadoBloqueDTO persistirBloque(int bloque, long primerRegistro, List<T> entidades,
+                                                  Consumer<List<T>> alConfirmar) {
+        long inicio = System.currentTimeMillis();
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        try {
+            transaccion.executeWithoutResult(status -> {
+                int pendientes = 0;
+                for (T entidad : entidades) {
+                    entityManager.persist(entidad);
+                    if (++pendientes == tamanoBatch) {
+                        entityManager.flush();
+                        entityManager.clear();
+                        pendientes = 0;
+                    }
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Error al persistir el bloque {}: {}", bloque, ex.getMessage());
+            return new ResultadoBloqueDTO(bloque, primerRegistro, entidades.size(), 0,
+                    System.currentTimeMillis() - inicio, ex.getMessage());
+        }
+        // El bloque ya está confirmado: un error del callback no lo convierte en un bloque fallido
+        try {
+            alConfirmar.accept(entidades);
+        } catch (RuntimeException ex) {
+            logger.error("Error al procesar el bloque confirmado {}: {}", bloque, ex.getMessage(), ex);
+        }
+        return new ResultadoBloqueDTO(bloque, primerRegistro, entidades.size(), entidades.size(),
+                System.currentTimeMillis() - inicio, null);
+    }
+}
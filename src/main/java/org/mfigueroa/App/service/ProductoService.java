@@ -1,21 +1,52 @@
 package org.mfigueroa.App.service;
 
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Cache;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.mfigueroa.App.dto.EstadisticasCacheDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.PaginaCursorDTO;
+import org.mfigueroa.App.dto.PrecioProductoDTO;
 import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.ReglaPrecioDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.dto.ResultadoPreciosDTO;
+import org.mfigueroa.App.dto.SugerenciaDTO;
 import org.mfigueroa.App.mappers.ProductoMapper;
 import org.mfigueroa.App.model.Producto;
 import org.mfigueroa.App.repository.ProductoRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.web.PagedResourcesAssembler;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class ProductoService {
@@ -23,40 +54,168 @@ public class ProductoService {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ImportadorStreaming importadorStreaming;
+
+    @Autowired
+    private EscritorStreaming escritorStreaming;
+
+    @Autowired
+    private BusquedaNombres busquedaNombres;
+
+    @Autowired
+    private Autocompletado autocompletado;
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Autowired
+    private AnaliticaVentas analiticaVentas;
+
+    // Máximo de ids por cláusula IN (límite de Oracle)
+    private static final int MAX_IDS_POR_CONSULTA = 1000;
+
+    // Sentencias por lote JDBC en la actualización masiva de precios
+    private static final int TAMANO_LOTE_PRECIOS = 500;
+
+    // Tamaño máximo de una página por cursor; fuera de 1..1000 se ajusta en vez de fallar
+    private static final int MAX_TAMANO_CURSOR = 1000;
+
+    // Las consultas de lectura proyectan directamente a DTO, sin entidades administradas
+    @Transactional(readOnly = true)
     public List<ProductoDTO> getAllProductos() {
-        List<Producto> productos = productoRepository.findAll();
-        List<ProductoDTO> productosDTO = new ArrayList<>();
-        for (Producto p: productos){
-            productosDTO.add(ProductoMapper.toDto(p));
-        }
+        return productoRepository.findAllDTO();
+    }
+
+    // ETag de los listados de productos; cambia con cada escritura confirmada, incluido el stock de las ventas
+    public String etagProductos(MediaType formato) {
+        return versionesTablas.etag(VersionesTablas.Tabla.PRODUCTOS, formato);
+    }
 
-        return productosDTO;
+    // Escribe todos los productos en la salida sin cargarlos en una lista
+    public void escribirProductos(OutputStream salida, boolean ndjson) {
+        escritorStreaming.escribir(productoRepository::streamAll, ProductoMapper::toDto, salida, ndjson);
     }
 
+    // Con un id existente se actualiza ese producto (cargado, así conserva su versión); si no, se crea uno nuevo
     public ProductoDTO saveProducto(ProductoDTO productoDTO) {
-       Producto producto = ProductoMapper.toEntity(productoDTO);
+       Producto producto = productoDTO.getId() != null
+               ? productoRepository.findById(productoDTO.getId()).orElse(null) : null;
+       if (producto == null) {
+           producto = ProductoMapper.toEntity(productoDTO);
+           producto.setId(null);
+       } else {
+           producto.setNombre(productoDTO.getNombre());
+           producto.setPrecio(productoDTO.getPrecio());
+           producto.setStock(productoDTO.getStock());
+       }
        Producto productoGuardado = productoRepository.save(producto);
+       indexar(List.of(productoGuardado));
        return ProductoMapper.toDto(productoGuardado);
     }
 
+    @Transactional(readOnly = true)
     public Page<ProductoDTO> buscarProductoPorNombre(String nombre, Pageable pageable) {
         if (nombre  == null || nombre.isEmpty()) {
-            return productoRepository.findAll(pageable).map(ProductoMapper::toDto);
+            return productoRepository.findAllDTO(pageable);
+        }
+        Optional<List<Long>> ids = busquedaNombres.buscarProductos(nombre);
+        if (ids.isPresent()) {
+            Page<ProductoDTO> pagina = paginarCoincidencias(ids.get(), pageable);
+            if (pagina != null) {
+                return pagina;
+            }
+        }
+       return productoRepository.findDTOByNombre(nombre, pageable);
+    }
+
+    // Pagina los ids que devolvió el índice de nombres. Con pocas coincidencias se consultan todas por id con
+    // el orden pedido; con muchas solo se puede ordenar en memoria por nombre o id. Devuelve null si no aplica.
+    private Page<ProductoDTO> paginarCoincidencias(List<Long> ids, Pageable pageable) {
+        if (ids.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (ids.size() <= MAX_IDS_POR_CONSULTA) {
+            List<ProductoDTO> coincidencias = productoRepository.findDTOByIdIn(ids, pageable.getSort());
+            if (pageable.isUnpaged()) {
+                return new PageImpl<>(coincidencias);
+            }
+            int desde = (int) Math.min(pageable.getOffset(), coincidencias.size());
+            int hasta = Math.min(desde + pageable.getPageSize(), coincidencias.size());
+            return new PageImpl<>(coincidencias.subList(desde, hasta), pageable, coincidencias.size());
+        }
+        Comparator<Long> orden = ordenEnMemoria(pageable.getSort());
+        if (orden == null || pageable.isUnpaged() || pageable.getPageSize() > MAX_IDS_POR_CONSULTA) {
+            return null;
+        }
+        List<Long> ordenados = new ArrayList<>(ids);
+        ordenados.sort(orden);
+        int desde = (int) Math.min(pageable.getOffset(), ordenados.size());
+        int hasta = Math.min(desde + pageable.getPageSize(), ordenados.size());
+        List<Long> idsPagina = ordenados.subList(desde, hasta);
+
+        Map<Long, ProductoDTO> porId = new HashMap<>();
+        if (!idsPagina.isEmpty()) {
+            for (ProductoDTO producto : productoRepository.findDTOByIdIn(idsPagina, Sort.unsorted())) {
+                porId.put(producto.getId(), producto);
+            }
+        }
+        List<ProductoDTO> contenido = new ArrayList<>(idsPagina.size());
+        for (Long id : idsPagina) {
+            ProductoDTO producto = porId.get(id);
+            if (producto != null) {
+                contenido.add(producto);
+            }
+        }
+        return new PageImpl<>(contenido, pageable, ids.size());
+    }
+
+    private Comparator<Long> ordenEnMemoria(Sort sort) {
+        Comparator<Long> comparador = null;
+        for (Sort.Order orden : sort) {
+            Comparator<Long> campo;
+            switch (orden.getProperty()) {
+                case "id" -> campo = Comparator.naturalOrder();
+                case "nombre" -> campo = Comparator.comparing(busquedaNombres::nombreProducto,
+                        Comparator.nullsLast(Comparator.naturalOrder()));
+                default -> {
+                    return null;
+                }
+            }
+            campo = orden.isDescending() ? campo.reversed() : campo;
+            comparador = comparador == null ? campo : comparador.thenComparing(campo);
         }
-       return productoRepository.findByNombre(nombre, pageable).map(ProductoMapper::toDto);
+        // El id desempata para que el orden sea estable entre páginas
+        Comparator<Long> porId = Comparator.naturalOrder();
+        return comparador == null ? porId : comparador.thenComparing(porId);
     }
 
 
     // Buscar productos por precio
+    @Transactional(readOnly = true)
     public List<ProductoDTO> buscarProductoPorPrecio(double precio) {
-        List<Producto> productos = productoRepository.findByPrecioMenorA(precio);
-        return productos.stream().map(ProductoMapper::toDto).collect(Collectors.toList());
+        return productoRepository.findDTOByPrecioMenorA(precio);
     }
 
     // Obtener productos en stock
+    @Transactional(readOnly = true)
     public List<ProductoDTO> obtenerProductosEnStock() {
-        List<Producto> productos = productoRepository.findProductosEnStock();
-        return productos.stream().map(ProductoMapper::toDto).collect(Collectors.toList());
+        return productoRepository.findDTOEnStock();
     }
 
 
@@ -64,9 +223,18 @@ public class ProductoService {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Producto no encontrado"));
         productoRepository.deleteById(id);
+        busquedaNombres.eliminarProducto(id);
+        autocompletado.eliminarProducto(id);
+        versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+        analiticaVentas.invalidar();
         return ProductoMapper.toDto(producto);
     }
 
+    // Eliminación masiva por ids o filtro; devuelve solo los conteos
+    public ResultadoEliminacionDTO eliminarProductos(FiltroEliminacionDTO filtro) {
+        return eliminacionMasiva.eliminarProductos(filtro);
+    }
+
     public ProductoDTO actualizarProducto(Long id, ProductoDTO productoDetails) {
         Producto producto = productoRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("El producto no existe"));
@@ -74,40 +242,197 @@ public class ProductoService {
         producto.setPrecio(productoDetails.getPrecio());
         producto.setStock(productoDetails.getStock());
         productoRepository.save(producto);
+        indexar(List.of(producto));
         return ProductoMapper.toDto(producto);
     }
 
     public boolean actualizarPrecioProducto(Long id, double nuevoPrecio){
         int updated = productoRepository.updateProductoPrecio(id, nuevoPrecio);
+        if (updated > 0) {
+            versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+        }
         return  updated > 0; // Si se actualizó, devuelve true
     }
 
-    // Método para crear múltiples productos
-    public void crearProductos(List<ProductoDTO> productosDTO) {
+    // Actualización masiva de precios por id: un UPDATE por producto enviado en lotes JDBC, en una transacción
+    public ResultadoPreciosDTO actualizarPrecios(List<PrecioProductoDTO> precios) {
+        if (precios == null || precios.isEmpty()) {
+            throw new IllegalArgumentException("La lista de precios está vacía");
+        }
+        for (PrecioProductoDTO precio : precios) {
+            if (precio.getId() == null || precio.getPrecio() < 0) {
+                throw new IllegalArgumentException("Precio inválido para el producto " + precio.getId());
+            }
+        }
+        long inicio = System.currentTimeMillis();
+        long actualizados = transactionTemplate.execute(estado -> {
+            long[] filas = new long[1];
+            entityManager.unwrap(Session.class).doWork(conexion -> {
+                try (PreparedStatement update = conexion.prepareStatement(
+                        "UPDATE productos SET precio = ?, version = version + 1 WHERE id = ?")) {
+                    for (int i = 0; i < precios.size(); i++) {
+                        update.setDouble(1, precios.get(i).getPrecio());
+                        update.setLong(2, precios.get(i).getId());
+                        update.addBatch();
+                        if ((i + 1) % TAMANO_LOTE_PRECIOS == 0 || i == precios.size() - 1) {
+                            filas[0] += contarFilas(update.executeBatch());
+                        }
+                    }
+                }
+            });
+            return filas[0];
+        });
+        // El UPDATE nativo no pasa por Hibernate, el cache se invalida después del commit
+        evictarCacheProductos();
+        versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+        return new ResultadoPreciosDTO(actualizados, System.currentTimeMillis() - inicio);
+    }
+
+    // Ajuste porcentual de los precios de un rango con un solo UPDATE
+    public ResultadoPreciosDTO ajustarPrecios(ReglaPrecioDTO regla) {
+        if (regla.getPorcentaje() <= -100) {
+            throw new IllegalArgumentException("El porcentaje debe ser mayor a -100");
+        }
+        double minPrecio = regla.getMinPrecio() != null ? regla.getMinPrecio() : 0;
+        double maxPrecio = regla.getMaxPrecio() != null ? regla.getMaxPrecio() : Double.MAX_VALUE;
+        if (minPrecio > maxPrecio) {
+            throw new IllegalArgumentException("El precio mínimo es mayor al máximo");
+        }
+        long inicio = System.currentTimeMillis();
+        int actualizados = productoRepository.ajustarPrecios(1 + regla.getPorcentaje() / 100, minPrecio, maxPrecio);
+        evictarCacheProductos();
+        versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+        return new ResultadoPreciosDTO(actualizados, System.currentTimeMillis() - inicio);
+    }
+
+    // Algunos drivers informan SUCCESS_NO_INFO en lugar del número de filas de cada sentencia del lote
+    private static long contarFilas(int[] resultados) {
+        long filas = 0;
+        for (int resultado : resultados) {
+            filas += resultado == Statement.SUCCESS_NO_INFO ? 1 : Math.max(resultado, 0);
+        }
+        return filas;
+    }
+
+    private void evictarCacheProductos() {
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        cache.evictEntityData(Producto.class);
+        cache.evictQueryRegions();
+    }
+
+    // Método para crear múltiples productos, se insertan en bloques usando JDBC batching
+    public ResultadoLoteDTO crearProductos(List<ProductoDTO> productosDTO) {
+        List<Producto> productos = new ArrayList<>(productosDTO.size());
         for (ProductoDTO productoDTO : productosDTO) {
-            Producto producto = new Producto();
-            producto.setNombre(productoDTO.getNombre());
-            producto.setPrecio(productoDTO.getPrecio());
-            producto.setStock(productoDTO.getStock());
-            productoRepository.save(producto); // Guardamos el producto en la base de datos
+            productos.add(nuevoProducto(productoDTO));
         }
+        return procesadorLotes.persistir(productos, this::indexar);
+    }
+
+    // Importación en streaming (NDJSON o arreglo JSON) sin cargar todo el cuerpo en memoria
+    public ResultadoLoteDTO importarProductos(InputStream entrada, boolean ndjson) throws IOException {
+        if (ndjson) {
+            return importadorStreaming.importarNdjson(entrada, ProductoDTO.class, this::nuevoProducto,
+                    this::indexar);
+        }
+        return importadorStreaming.importarArregloJson(entrada, ProductoDTO.class, this::nuevoProducto,
+                this::indexar);
+    }
+
+    // Actualiza la búsqueda por nombre, el autocompletado y la versión del listado con productos ya confirmados
+    private void indexar(List<Producto> productos) {
+        busquedaNombres.indexarProductos(productos);
+        autocompletado.indexarProductos(productos);
+        versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+    }
+
+    public List<SugerenciaDTO> sugerirProductos(String prefijo, int limite) {
+        return autocompletado.sugerirProductos(prefijo, limite);
+    }
+
+    private Producto nuevoProducto(ProductoDTO productoDTO) {
+        Producto producto = new Producto();
+        producto.setNombre(productoDTO.getNombre());
+        producto.setPrecio(productoDTO.getPrecio());
+        producto.setStock(productoDTO.getStock());
+        return producto;
     }
 
 
+    @Transactional(readOnly = true)
     public Page<ProductoDTO> obtenerProductosPorRangoDePrecio(String ordenarPor, Double minPrecio, Double maxPrecio, int pagina, int tamano){
 
         Pageable pageable = PageRequest.of(pagina, tamano, Sort.by(Sort.Order.by(ordenarPor)));
 
-        Page<Producto> productos = productoRepository.findByPrecioBetween(minPrecio, maxPrecio, pageable);
-        return productos.map(producto -> new ProductoDTO(producto.getId(), producto.getNombre(),
-                producto.getPrecio(), producto.getStock()));
+        return productoRepository.findDTOByPrecioBetween(minPrecio, maxPrecio, pageable);
     }
 
 
+    @Transactional(readOnly = true)
     public Page<ProductoDTO> obtenerTodos(Pageable pageable) {
-        return productoRepository.findAll(pageable).map(ProductoMapper::toDto);
+        return productoRepository.findAllDTO(pageable);
+    }
+
+
+    // Paginación por cursor, el costo de una página profunda es el mismo que el de la primera
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<ProductoDTO> obtenerTodosPorCursor(String cursor, int tamano, String ordenarPor, String orden) {
+        if (!CursorProductos.CAMPOS_NULABLES.contains(ordenarPor)) {
+            return paginarPorCursor(cursor, tamano, ordenarPor, orden, productoRepository::findBy, null);
+        }
+        return paginarPorCursor(cursor, tamano, ordenarPor, orden,
+                productoRepository::findByNombreIsNotNull, productoRepository::findByNombreIsNull);
+    }
+
+    @Transactional(readOnly = true)
+    public PaginaCursorDTO<ProductoDTO> obtenerPorRangoDePrecioConCursor(String cursor, Double minPrecio, Double maxPrecio,
+                                                                          int tamano, String ordenarPor, String orden) {
+        if (!CursorProductos.CAMPOS_NULABLES.contains(ordenarPor)) {
+            return paginarPorCursor(cursor, tamano, ordenarPor, orden,
+                    (posicion, sort, limite) -> productoRepository.findByPrecioBetween(minPrecio, maxPrecio, posicion, sort, limite),
+                    null);
+        }
+        return paginarPorCursor(cursor, tamano, ordenarPor, orden,
+                (posicion, sort, limite) -> productoRepository.findByPrecioBetweenAndNombreIsNotNull(
+                        minPrecio, maxPrecio, posicion, sort, limite),
+                (posicion, sort, limite) -> productoRepository.findByPrecioBetweenAndNombreIsNull(
+                        minPrecio, maxPrecio, posicion, sort, limite));
     }
 
+    // Recorre primero las filas con valor en el campo de orden y, si el campo admite nulos, después las nulas por id
+    private PaginaCursorDTO<ProductoDTO> paginarPorCursor(String cursor, int tamano, String ordenarPor, String orden,
+                                                          CursorProductos.Consulta conValor,
+                                                          CursorProductos.Consulta sinValor) {
+        int limite = Math.min(Math.max(tamano, 1), MAX_TAMANO_CURSOR);
+        Sort sort = CursorProductos.crearSort(ordenarPor, orden);
+        Sort.Direction direccion = sort.iterator().next().getDirection();
+        CursorProductos.Posicion posicion = CursorProductos.decodificar(cursor, ordenarPor, direccion);
+
+        List<Producto> contenido = new ArrayList<>();
+        boolean hayMas = false;
+        if (!posicion.enNulos()) {
+            Window<Producto> ventana = conValor.buscar(posicion.posicion(), sort, Limit.of(limite));
+            contenido.addAll(ventana.getContent());
+            hayMas = ventana.hasNext();
+        }
+        if (!hayMas && sinValor != null) {
+            ScrollPosition inicioNulos = posicion.enNulos() ? posicion.posicion() : ScrollPosition.keyset();
+            int restantes = limite - contenido.size();
+            // Con la página llena solo hace falta saber si quedan filas nulas
+            Window<Producto> nulos = sinValor.buscar(inicioNulos, Sort.by(direccion, "id"), Limit.of(Math.max(restantes, 1)));
+            if (restantes > 0) {
+                contenido.addAll(nulos.getContent());
+                hayMas = nulos.hasNext();
+            } else {
+                hayMas = !nulos.isEmpty();
+            }
+        }
+
+        String siguiente = hayMas && !contenido.isEmpty()
+                ? CursorProductos.codificar(ordenarPor, direccion, contenido.get(contenido.size() - 1))
+                : null;
+        return new PaginaCursorDTO<>(contenido.stream().map(ProductoMapper::toDto).toList(), siguiente, hayMas);
+    }
 
     public Pageable crearPageable(int pagina, int tamano, String ordenarPor, String orden) {
         Sort sort = Sort.by(Sort.Order.asc(ordenarPor));
@@ -117,4 +442,18 @@ public class ProductoService {
         return PageRequest.of(pagina, tamano, sort);
     }
 
+    // Aciertos y fallos del cache de productos y del cache de consultas
+    public List<EstadisticasCacheDTO> estadisticasCache() {
+        Statistics estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        List<EstadisticasCacheDTO> regiones = new ArrayList<>();
+        CacheRegionStatistics productos = estadisticas.getDomainDataRegionStatistics("producto");
+        if (productos != null) {
+            regiones.add(new EstadisticasCacheDTO("producto", productos.getHitCount(),
+                    productos.getMissCount(), productos.getPutCount()));
+        }
+        regiones.add(new EstadisticasCacheDTO("consultas", estadisticas.getQueryCacheHitCount(),
+                estadisticas.getQueryCacheMissCount(), estadisticas.getQueryCachePutCount()));
+        return regiones;
+    }
+
 }
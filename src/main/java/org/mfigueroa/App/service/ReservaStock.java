@@ -0,0 +1,288 @@
+package org.mfigueroa.App.service;
+
+import jakarta.annotation.PreDestroy;
+import org.mfigueroa.App.model.BloqueStock;
+import org.mfigueroa.App.model.ConsumoBloque;
+import org.mfigueroa.App.repository.BloqueStockRepository;
+import org.mfigueroa.App.repository.ConsumoBloqueRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Reserva el stock de los productos de una venta.
+ * <p>
+ * Por defecto descuenta en la BD con un UPDATE condicional ({@code stock >= cantidad}) dentro de la
+ * transacción de la venta, al final para mantener el bloqueo de la fila el menor tiempo posible.
+ * <p>
+ * Con {@code app.stock.reserva-por-bloques=true} (productos muy demandados) se toman bloques de
+ * unidades de la BD en transacciones cortas y se reparten desde memoria con operaciones atómicas,
+ * así las ventas de un mismo producto no esperan el bloqueo de su fila. Cada bloque queda registrado en
+ * {@code bloques_stock} a nombre de la instancia y cada venta inserta su {@code consumos_bloque} en su misma
+ * transacción, de modo que stock + bloques - consumos siempre cuadra con lo realmente disponible:
+ * <ul>
+ *     <li>cada {@code app.stock.bloque-devolucion-ms} la instancia regresa sus unidades sin vender (así no se
+ *     quedan ociosas mientras otra instancia rechaza ventas) y renueva sus bloques;</li>
+ *     <li>si una instancia se cae, sus bloques vencen tras {@code app.stock.bloque-vigencia-ms} y otra instancia
+ *     regresa al stock las unidades tomadas menos las consumidas.</li>
+ * </ul>
+ * Una instancia pausada más que la vigencia puede vender, hasta su siguiente devolución, unidades de un bloque
+ * ya recuperado; la vigencia debe ser varias veces el intervalo de devolución.
+ */
+@Component
+public class ReservaStock {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaStock.class);
+
+    private static final int FRANJAS = 64;
+
+    private static final int CONSUMOS_POR_CONSULTA = 1000;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private BloqueStockRepository bloqueStockRepository;
+
+    @Autowired
+    private ConsumoBloqueRepository consumoBloqueRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private VersionesTablas versionesTablas;
+
+    @Value("${app.stock.reserva-por-bloques:false}")
+    private boolean porBloques;
+
+    @Value("${app.stock.tamano-bloque:20}")
+    private int tamanoBloque;
+
+    @Value("${app.stock.bloque-vigencia-ms:60000}")
+    private long vigenciaMs;
+
+    // Identifica los bloques de esta instancia; uno nuevo en cada arranque
+    private final String instancia = UUID.randomUUID().toString();
+
+    private final Map<Long, AtomicInteger> reservasLocales = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] franjas = new ReentrantLock[FRANJAS];
+
+    public ReservaStock() {
+        for (int i = 0; i < FRANJAS; i++) {
+            franjas[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Ejecuta la venta en una transacción con el stock de sus productos reservado.
+     * Si no hay stock suficiente de algún producto se lanza IllegalStateException y no se guarda nada.
+     *
+     * @param unidades unidades por id de producto
+     * @param venta operación que guarda la venta
+     */
+    public <T> T ejecutarConReserva(Map<Long, Integer> unidades, Supplier<T> venta) {
+        // Orden fijo por id para evitar interbloqueos entre ventas con los mismos productos
+        Map<Long, Integer> ordenadas = new TreeMap<>(unidades);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+
+        if (!porBloques) {
+            return transaccion.execute(status -> {
+                T resultado = venta.get();
+                ordenadas.forEach((id, cantidad) -> {
+                    if (productoRepository.descontarStock(id, cantidad) == 0) {
+                        throw new IllegalStateException("Stock insuficiente para el producto " + id);
+                    }
+                });
+                versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+                return resultado;
+            });
+        }
+
+        tomarDeReservaLocal(ordenadas);
+        try {
+            return transaccion.execute(status -> {
+                T resultado = venta.get();
+                List<ConsumoBloque> consumos = new ArrayList<>();
+                ordenadas.forEach((id, cantidad) -> consumos.add(new ConsumoBloque(instancia, id, cantidad)));
+                consumoBloqueRepository.saveAll(consumos);
+                return resultado;
+            });
+        } catch (RuntimeException ex) {
+            ordenadas.forEach((id, cantidad) -> reservaLocal(id).addAndGet(cantidad));
+            throw ex;
+        }
+    }
+
+    private void tomarDeReservaLocal(Map<Long, Integer> unidades) {
+        List<Map.Entry<Long, Integer>> tomadas = new ArrayList<>();
+        try {
+            for (Map.Entry<Long, Integer> unidad : unidades.entrySet()) {
+                tomar(unidad.getKey(), unidad.getValue());
+                tomadas.add(unidad);
+            }
+        } catch (RuntimeException ex) {
+            tomadas.forEach(t -> reservaLocal(t.getKey()).addAndGet(t.getValue()));
+            throw ex;
+        }
+    }
+
+    private void tomar(Long id, int cantidad) {
+        AtomicInteger local = reservaLocal(id);
+        if (decrementar(local, cantidad)) {
+            return;
+        }
+        // Solo un hilo por franja rellena desde la BD, los demás esperan y reintentan en memoria
+        ReentrantLock franja = franjas[Math.floorMod(id.hashCode(), FRANJAS)];
+        franja.lock();
+        try {
+            while (!decrementar(local, cantidad)) {
+                int obtenidas = rellenar(id, Math.max(tamanoBloque, cantidad));
+                if (obtenidas == 0) {
+                    // Lo que quedó de un relleno parcial no alcanza: se regresa en vez de dejarlo ocioso
+                    devolver(id, local);
+                    throw new IllegalStateException("Stock insuficiente para el producto " + id);
+                }
+                local.addAndGet(obtenidas);
+            }
+        } finally {
+            franja.unlock();
+        }
+    }
+
+    // Toma hasta "deseadas" unidades de la BD y las anota en el bloque de la instancia, en una transacción propia;
+    // devuelve cuántas obtuvo
+    private int rellenar(Long id, int deseadas) {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Integer obtenidas = transaccion.execute(status -> {
+            while (true) {
+                int disponible = productoRepository.findStockById(id).orElse(0);
+                if (disponible <= 0) {
+                    return 0;
+                }
+                int cantidad = Math.min(deseadas, disponible);
+                if (productoRepository.descontarStock(id, cantidad) > 0) {
+                    Date expira = new Date(System.currentTimeMillis() + vigenciaMs);
+                    if (bloqueStockRepository.sumarUnidades(instancia, id, cantidad, expira) == 0) {
+                        bloqueStockRepository.save(new BloqueStock(instancia, id, cantidad, expira));
+                    }
+                    versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+                    return cantidad;
+                }
+            }
+        });
+        return obtenidas != null ? obtenidas : 0;
+    }
+
+    private boolean decrementar(AtomicInteger local, int cantidad) {
+        int actual;
+        do {
+            actual = local.get();
+            if (actual < cantidad) {
+                return false;
+            }
+        } while (!local.compareAndSet(actual, actual - cantidad));
+        return true;
+    }
+
+    private AtomicInteger reservaLocal(Long id) {
+        return reservasLocales.computeIfAbsent(id, k -> new AtomicInteger());
+    }
+
+    /**
+     * Regresa a la BD las unidades tomadas en bloque que no se han vendido, descuenta de los bloques lo vendido
+     * y los renueva; después recupera los bloques vencidos de instancias caídas. Se ejecuta periódicamente y al
+     * detener la aplicación.
+     */
+    @Scheduled(fixedDelayString = "${app.stock.bloque-devolucion-ms:5000}")
+    @PreDestroy
+    public void devolverReservas() {
+        reservasLocales.forEach((id, local) -> {
+            ReentrantLock franja = franjas[Math.floorMod(id.hashCode(), FRANJAS)];
+            franja.lock();
+            try {
+                devolver(id, local);
+            } catch (RuntimeException ex) {
+                logger.error("No se pudo devolver el bloque del producto {}: {}", id, ex.getMessage());
+            } finally {
+                franja.unlock();
+            }
+        });
+        try {
+            bloqueStockRepository.renovar(instancia, new Date(System.currentTimeMillis() + vigenciaMs));
+            recuperarVencidos();
+        } catch (RuntimeException ex) {
+            logger.error("No se pudieron renovar ni recuperar los bloques de stock: {}", ex.getMessage());
+        }
+    }
+
+    // Con la franja del producto tomada: cierra los consumos del bloque y regresa las unidades locales
+    private void devolver(Long id, AtomicInteger local) {
+        int pendientes = local.getAndSet(0);
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        try {
+            transaccion.executeWithoutResult(status -> {
+                List<ConsumoBloque> consumos;
+                do {
+                    consumos = consumoBloqueRepository.findPorBloque(instancia, id, Limit.of(CONSUMOS_POR_CONSULTA));
+                    if (!consumos.isEmpty()) {
+                        int vendidas = consumos.stream().mapToInt(ConsumoBloque::getUnidades).sum();
+                        bloqueStockRepository.restarUnidades(instancia, id, vendidas);
+                        consumoBloqueRepository.deleteByIdIn(consumos.stream().map(ConsumoBloque::getId).toList());
+                    }
+                } while (consumos.size() == CONSUMOS_POR_CONSULTA);
+                // Si el bloque ya no existe otra instancia lo dio por vencido y ya regresó sus unidades
+                if (pendientes > 0 && bloqueStockRepository.restarUnidades(instancia, id, pendientes) > 0) {
+                    productoRepository.devolverStock(id, pendientes);
+                    versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+                } else if (pendientes > 0) {
+                    logger.warn("El bloque del producto {} venció, se descartan {} unidades locales", id, pendientes);
+                }
+                bloqueStockRepository.eliminarVacio(instancia, id);
+            });
+        } catch (RuntimeException ex) {
+            local.addAndGet(pendientes);
+            throw ex;
+        }
+    }
+
+    private void recuperarVencidos() {
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        Date ahora = new Date();
+        for (BloqueStock bloque : bloqueStockRepository.findVencidos(ahora)) {
+            transaccion.executeWithoutResult(status -> {
+                if (bloqueStockRepository.eliminarVencido(bloque.getId(), ahora) == 0) {
+                    return;
+                }
+                long consumidas = consumoBloqueRepository.sumarPorBloque(bloque.getInstancia(), bloque.getProductoId());
+                consumoBloqueRepository.eliminarPorBloque(bloque.getInstancia(), bloque.getProductoId());
+                int sinVender = (int) (bloque.getUnidades() - consumidas);
+                if (sinVender > 0) {
+                    productoRepository.devolverStock(bloque.getProductoId(), sinVender);
+                    versionesTablas.incrementar(VersionesTablas.Tabla.PRODUCTOS);
+                }
+                logger.warn("Bloque vencido de la instancia {}: {} unidades del producto {} regresan al stock",
+                        bloque.getInstancia(), Math.max(sinVender, 0), bloque.getProductoId());
+            });
+        }
+    }
+}
@@ -0,0 +1,103 @@
+package org.mfigueroa.App.service;
+
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
+import org.mfigueroa.App.repository.ResumenVentasClienteRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Date;
+import java.util.List;
+import java.util.function.IntSupplier;
+
+/**
+ * Mantiene el acumulado de ventas por cliente (total, cantidad y fecha de la última venta)
+ * para consultarlo por llave primaria en lugar de sumar todas las ventas del cliente
+ */
+@Service
+public class ResumenVentasService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ResumenVentasService.class);
+
+    @Autowired
+    private ResumenVentasClienteRepository resumenRepository;
+
+    @Value("${app.resumen-ventas.tamano-bloque:500}")
+    private int tamanoBloque;
+
+    // Se invoca antes de la transacción de la venta para que esta solo haga UPDATE sobre el resumen
+    public void asegurarResumen(Long clienteId) {
+        if (clienteId == null || resumenRepository.existsById(clienteId)) {
+            return;
+        }
+        try {
+            resumenRepository.crearResumen(clienteId);
+        } catch (DataIntegrityViolationException ex) {
+            // Otra venta concurrente del mismo cliente ya lo creó
+            logger.debug("Resumen del cliente {} creado concurrentemente", clienteId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVenta(Long clienteId, double total, Date fecha) {
+        if (resumenRepository.sumarVenta(clienteId, total, fecha) == 0) {
+            crearYReintentar(clienteId, () -> resumenRepository.sumarVenta(clienteId, total, fecha));
+        }
+    }
+
+    // Varias ventas del mismo cliente en la misma transacción, fecha es la más reciente
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void registrarVentas(Long clienteId, double total, long cantidad, Date fecha) {
+        if (resumenRepository.sumarVentas(clienteId, total, cantidad, fecha) == 0) {
+            crearYReintentar(clienteId, () -> resumenRepository.sumarVentas(clienteId, total, cantidad, fecha));
+        }
+    }
+
+    // El resumen no existía (p. ej. el cliente no pasó por asegurarResumen): se crea dentro de la transacción
+    // de la venta y se vuelve a sumar; si tampoco así se actualiza, la venta falla en lugar de perderse
+    private void crearYReintentar(Long clienteId, IntSupplier sumar) {
+        resumenRepository.crearResumen(clienteId);
+        if (sumar.getAsInt() == 0) {
+            throw new IllegalStateException("No se pudo actualizar el resumen de ventas del cliente " + clienteId);
+        }
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void descontarVenta(Long clienteId, double total, Date fecha) {
+        resumenRepository.restarVenta(clienteId, total);
+        if (fecha != null) {
+            resumenRepository.recalcularUltimaVenta(clienteId, fecha);
+        }
+    }
+
+    public ResumenVentasClienteDTO obtenerResumen(Long clienteId) {
+        return resumenRepository.findById(clienteId)
+                .map(r -> new ResumenVentasClienteDTO(r.getClienteId(), r.getTotal(), r.getCantidad(), r.getUltimaVenta()))
+                .orElseGet(() -> new ResumenVentasClienteDTO(clienteId, 0, 0, null));
+    }
+
+    // Reconstruye los resúmenes desde la tabla de ventas y corrige cualquier desviación. Cada bloque de clientes
+    // se recalcula en su propia transacción corta sobre las filas existentes (nunca se borran), así las ventas
+    // concurrentes solo esperan el bloqueo de su fila y su suma se aplica sobre el valor recalculado
+    @Scheduled(cron = "${app.resumen-ventas.cron:0 0 3 * * *}")
+    public int reconstruir() {
+        resumenRepository.crearResumenesFaltantes();
+        resumenRepository.eliminarHuerfanos();
+        int clientes = 0;
+        long ultimo = Long.MIN_VALUE;
+        List<Long> ids;
+        while (!(ids = resumenRepository.findIdsDesde(ultimo, Limit.of(tamanoBloque))).isEmpty()) {
+            clientes += resumenRepository.recalcular(ids);
+            ultimo = ids.get(ids.size() - 1);
+        }
+        logger.info("Resumen de ventas reconstruido para {} clientes", clientes);
+        return clientes;
+    }
+}
@@ -1,19 +1,45 @@
 package org.mfigueroa.App.service;
 
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
 import org.mfigueroa.App.dto.VentaDTO;
 import org.mfigueroa.App.mappers.VentaMapper;
+import org.mfigueroa.App.model.Producto;
 import org.mfigueroa.App.model.Venta;
 import org.mfigueroa.App.repository.ClienteRepository;
 import org.mfigueroa.App.repository.ProductoRepository;
 import org.mfigueroa.App.repository.VentaRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
 
 @Service
 public class VentaService {
 
+    private static final int MAX_TAMANO_PAGINA = 1000;
+
     @Autowired
     private ClienteRepository clienteRepository;
 
@@ -26,30 +52,224 @@ public class VentaService {
     @Autowired
     private VentaMapper ventaMapper;
 
+    @Autowired
+    private ReservaStock reservaStock;
+
+    @Autowired
+    private ResumenVentasService resumenVentasService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EscritorStreaming escritorStreaming;
+
+    @Autowired
+    private Autocompletado autocompletado;
+
+    @Autowired
+    private EliminacionMasiva eliminacionMasiva;
+
+    @Autowired
+    private IngestaVentas ingestaVentas;
+
+    @Autowired
+    private AnaliticaVentas analiticaVentas;
+
+    // Con la ingesta agrupada activa la venta se encola y se espera a que se confirme su lote
     public VentaDTO crearVenta(VentaDTO ventaDTO) {
-        Venta venta = ventaRepository.save(ventaMapper.toEntity(ventaDTO));
-        return ventaMapper.toDto(venta);
+        if (!ingestaVentas.isActiva()) {
+            return guardarVenta(ventaDTO);
+        }
+        try {
+            return ingestaVentas.encolar(ventaDTO).join();
+        } catch (CompletionException ex) {
+            if (ex.getCause() instanceof RuntimeException causa) {
+                throw causa;
+            }
+            if (ex.getCause() instanceof TimeoutException) {
+                // El lote puede confirmarse después: no se rechaza como 503 para que el cliente no la duplique
+                throw new IllegalStateException("La venta no se confirmó a tiempo, puede haberse guardado", ex.getCause());
+            }
+            throw ex;
+        }
+    }
+
+    // Sin esperar la confirmación; con la cola llena lanza RejectedExecutionException
+    public CompletableFuture<VentaDTO> crearVentaAsync(VentaDTO ventaDTO) {
+        if (!ingestaVentas.isActiva()) {
+            try {
+                return CompletableFuture.completedFuture(guardarVenta(ventaDTO));
+            } catch (RuntimeException ex) {
+                return CompletableFuture.failedFuture(ex);
+            }
+        }
+        return ingestaVentas.encolar(ventaDTO);
+    }
+
+    // La venta y el descuento de stock de sus productos se confirman juntos
+    public VentaDTO guardarVenta(VentaDTO ventaDTO) {
+        Map<Long, Integer> unidades = contarUnidades(ventaDTO, new HashMap<>());
+        resumenVentasService.asegurarResumen(ventaDTO.getClienteId());
+        return reservaStock.ejecutarConReserva(unidades, () -> {
+            Venta venta = ventaRepository.save(ventaMapper.toEntity(ventaDTO));
+            analiticaVentas.registrarVenta(venta);
+            resumenVentasService.registrarVenta(venta.getCliente().getId(), venta.getTotal(), venta.getFecha());
+            autocompletado.contarVenta(venta.getCliente().getId(), unidades, 1);
+            return ventaMapper.toDto(venta);
+        });
+    }
+
+    // Varias ventas en una sola transacción: el stock se descuenta una vez por producto y el resumen una vez
+    // por cliente. Si alguna venta falla no se guarda ninguna. alTerminar recibe el estado final de la
+    // transacción (TransactionSynchronization.STATUS_*), también cuando falla algo después del commit
+    public List<VentaDTO> crearVentas(List<VentaDTO> ventasDTO, IntConsumer alTerminar) {
+        Map<Long, Integer> unidadesTotales = new HashMap<>();
+        Set<Long> clientes = new HashSet<>();
+        for (VentaDTO ventaDTO : ventasDTO) {
+            contarUnidades(ventaDTO, unidadesTotales);
+            if (clientes.add(ventaDTO.getClienteId())) {
+                resumenVentasService.asegurarResumen(ventaDTO.getClienteId());
+            }
+        }
+        return reservaStock.ejecutarConReserva(unidadesTotales, () -> {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int estado) {
+                    alTerminar.accept(estado);
+                }
+            });
+            List<VentaDTO> creadas = new ArrayList<>(ventasDTO.size());
+            Map<Long, List<Venta>> porCliente = new HashMap<>();
+            for (VentaDTO ventaDTO : ventasDTO) {
+                Venta venta = ventaRepository.save(ventaMapper.toEntity(ventaDTO));
+                porCliente.computeIfAbsent(venta.getCliente().getId(), id -> new ArrayList<>()).add(venta);
+                analiticaVentas.registrarVenta(venta);
+                autocompletado.contarVenta(venta.getCliente().getId(), contarUnidades(ventaDTO, new HashMap<>()), 1);
+                creadas.add(ventaMapper.toDto(venta));
+            }
+            porCliente.forEach((clienteId, ventas) -> resumenVentasService.registrarVentas(clienteId,
+                    ventas.stream().mapToDouble(Venta::getTotal).sum(), ventas.size(),
+                    ventas.stream().map(Venta::getFecha).max(Date::compareTo).orElse(null)));
+            return creadas;
+        });
     }
 
+    private static Map<Long, Integer> contarUnidades(VentaDTO ventaDTO, Map<Long, Integer> unidades) {
+        if (ventaDTO.getProductosId() != null) {
+            for (Long productoId : ventaDTO.getProductosId()) {
+                unidades.merge(productoId, 1, Integer::sum);
+            }
+        }
+        return unidades;
+    }
+
+    // Lectura con proyecciones: una consulta para las ventas y otra para sus ids de productos
+    @Transactional(readOnly = true)
     public List<VentaDTO> getAllVentas() {
-        List<Venta> ventas = ventaRepository.findAll();
-        List<VentaDTO> ventaDTOList = ventas.stream()
-                .map(v -> ventaMapper.toDto(v)).toList();
-        return ventaDTOList;
+        List<VentaDTO> ventas = ventaRepository.findAllDTO();
+        return asignarProductos(ventas, ventaRepository.findAllProductoIds());
+    }
+
+    // Escribe todas las ventas en la salida sin cargarlas en una lista
+    public void escribirVentas(OutputStream salida, boolean ndjson) {
+        escritorStreaming.escribir(ventaRepository::streamAll, ventaMapper::toDto, salida, ndjson);
     }
 
+    @Transactional(readOnly = true)
     public List<VentaDTO> findBiIdCliente(Long id) {
-        List<Venta> ventas = ventaRepository.findByClienteId(id);
-        return ventas.stream().map(v -> ventaMapper.toDto(v)).toList();
+        List<VentaDTO> ventas = ventaRepository.findDTOByClienteId(id);
+        return asignarProductos(ventas, ventaRepository.findProductoIdsByClienteId(id));
+    }
+
+    // Paginado: consulta de la página, su COUNT y los productos de esas ventas (3 consultas)
+    @Transactional(readOnly = true)
+    public Page<VentaDTO> obtenerVentasPaginadas(int pagina, int tamano) {
+        Page<VentaDTO> ventas = ventaRepository.findAllDTO(crearPageable(pagina, tamano));
+        return asignarProductos(ventas);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<VentaDTO> obtenerVentasPorClientePaginadas(Long id, int pagina, int tamano) {
+        Page<VentaDTO> ventas = ventaRepository.findDTOByClienteId(id, crearPageable(pagina, tamano));
+        return asignarProductos(ventas);
+    }
+
+    // El tamaño de página se limita a 1000 para que los ids quepan en una sola lista IN
+    private Pageable crearPageable(int pagina, int tamano) {
+        return PageRequest.of(pagina, Math.min(Math.max(tamano, 1), MAX_TAMANO_PAGINA), Sort.by("id"));
+    }
+
+    private Page<VentaDTO> asignarProductos(Page<VentaDTO> ventas) {
+        if (ventas.hasContent()) {
+            List<Long> ids = ventas.getContent().stream().map(VentaDTO::getId).toList();
+            asignarProductos(ventas.getContent(), ventaRepository.findProductoIdsByVentaIds(ids));
+        }
+        return ventas;
+    }
+
+    private List<VentaDTO> asignarProductos(List<VentaDTO> ventas, List<Object[]> pares) {
+        Map<Long, VentaDTO> ventasPorId = new HashMap<>(ventas.size() * 2);
+        for (VentaDTO venta : ventas) {
+            ventasPorId.put(venta.getId(), venta);
+        }
+        for (Object[] par : pares) {
+            VentaDTO venta = ventasPorId.get(((Number) par[0]).longValue());
+            if (venta != null) {
+                venta.getProductosId().add(((Number) par[1]).longValue());
+            }
+        }
+        return ventas;
     }
 
+    @Transactional
     public boolean deleteVentaById(Long id){
+        Venta venta = ventaRepository.findById(id).orElse(null);
+        if (venta == null) {
+            return false;
+        }
+        ventaRepository.deleteProductosDeVenta(id);
         int eliminado = ventaRepository.deleteVentaById(id);
+        resumenVentasService.descontarVenta(venta.getCliente().getId(), venta.getTotal(), venta.getFecha());
+        Map<Long, Integer> unidades = new HashMap<>();
+        for (Producto producto : venta.getProductos()) {
+            unidades.merge(producto.getId(), 1, Integer::sum);
+        }
+        autocompletado.contarVenta(venta.getCliente().getId(), unidades, -1);
+        analiticaVentas.eliminarVentas(List.of(id));
         return eliminado > 0;
     }
 
+    // Eliminación masiva por ids o filtro, con sus productos y los resúmenes de los clientes afectados
+    public ResultadoEliminacionDTO eliminarVentas(FiltroEliminacionDTO filtro) {
+        return eliminacionMasiva.eliminarVentas(filtro);
+    }
+
+    // Cambia el cliente de la venta y mueve su importe entre los resúmenes de ambos clientes
     public void updateVentaClienteId(Long idCliente, Long idVenta){
-        ventaRepository.actualizarClienteDeVenta(idCliente, idVenta);
+        resumenVentasService.asegurarResumen(idCliente);
+        transactionTemplate.executeWithoutResult(status ->
+                ventaRepository.findById(idVenta).ifPresent(venta -> {
+                    ventaRepository.actualizarClienteDeVenta(idCliente, idVenta);
+                    resumenVentasService.descontarVenta(venta.getCliente().getId(), venta.getTotal(), venta.getFecha());
+                    resumenVentasService.registrarVenta(idCliente, venta.getTotal(), venta.getFecha());
+                    autocompletado.moverVenta(venta.getCliente().getId(), idCliente);
+                    analiticaVentas.cambiarCliente(idVenta, idCliente);
+                }));
+    }
+
+    // Agregados calculados en memoria, sin consultar la BD
+    public AnaliticaVentasDTO analizarVentas(Date desde, Date hasta, int top) {
+        return analiticaVentas.analizar(desde, hasta, top);
+    }
+
+    // Acumulado de ventas del cliente, se consulta por llave primaria
+    public ResumenVentasClienteDTO obtenerResumenCliente(Long idCliente) {
+        return resumenVentasService.obtenerResumen(idCliente);
+    }
+
+    public int reconstruirResumenes() {
+        return resumenVentasService.reconstruir();
     }
 
 }
@@ -0,0 +1,50 @@
+package org.mfigueroa.App.service;
+
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Contador de versión por tabla para los GET condicionales (ETag / If-None-Match) de los listados.
+ * <p>
+ * Los servicios lo incrementan en cada escritura; dentro de una transacción el incremento se aplica al
+ * confirmarla, así una respuesta nunca lleva una versión más nueva que sus datos. Los contadores viven
+ * en memoria: cada arranque usa una época distinta para que las ETag de una ejecución anterior no
+ * coincidan, y con varias instancias cada una tiene sus propias ETag (el cliente solo recibe un 200 de más).
+ * <p>
+ * La ETag incluye el formato de la respuesta (JSON, CBOR o Smile), ya que cada formato es una representación
+ * distinta de los mismos datos; el controlador lo resuelve con la negociación de contenido de Spring MVC.
+ */
+@Component
+public class VersionesTablas {
+
+    public enum Tabla { CLIENTES, PRODUCTOS }
+
+    private final String epoca = Long.toString(ThreadLocalRandom.current().nextLong() >>> 1, 36);
+
+    private final AtomicLong[] versiones = new AtomicLong[Tabla.values().length];
+
+    public VersionesTablas() {
+        for (int i = 0; i < versiones.length; i++) {
+            versiones[i] = new AtomicLong();
+        }
+    }
+
+    public long version(Tabla tabla) {
+        return versiones[tabla.ordinal()].get();
+    }
+
+    // ETag fuerte: se lee antes de consultar, una escritura concurrente a lo sumo provoca una descarga de más
+    public String etag(Tabla tabla, MediaType formato) {
+        String sufijo = MediaType.APPLICATION_JSON.isCompatibleWith(formato) ? "" : "-" + formato.getSubtype();
+        return "\"" + tabla.name().toLowerCase(Locale.ROOT) + "-" + epoca + "-" + version(tabla) + sufijo + "\"";
+    }
+
+    public void incrementar(Tabla tabla) {
+        AtomicLong version = versiones[tabla.ordinal()];
+        AlConfirmar.ejecutar(version::incrementAndGet);
+    }
+}
@@ -0,0 +1,73 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.service.ColumnasVentas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Tiempo de los agregados de la analítica sobre una instantánea sintética en memoria, sin BD
+ * (por defecto 10 millones de ventas con 3 productos cada una, unos 450 MB de heap). Se ejecuta con:
+ * mvn test -Dbenchmark=true -Dtest=AnaliticaBenchmarkTests -Danalitica.ventas=10000000
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class AnaliticaBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnaliticaBenchmarkTests.class);
+
+    private static final int PRODUCTOS_POR_VENTA = 3;
+    private static final int CLIENTES = 100_000;
+    private static final int PRODUCTOS = 20_000;
+    private static final int ITERACIONES = 10;
+
+    @Test
+    void agregadosSobreDecenasDeMillonesDeLineas() {
+        int ventas = Integer.getInteger("analitica.ventas", 10_000_000);
+        ColumnasVentas columnas = new ColumnasVentas(ventas, ventas * PRODUCTOS_POR_VENTA);
+        SplittableRandom aleatorio = new SplittableRandom(42);
+        long[] productos = new long[PRODUCTOS_POR_VENTA];
+        double[] precios = new double[PRODUCTOS_POR_VENTA];
+        long inicio = System.currentTimeMillis();
+        for (int i = 0; i < ventas; i++) {
+            double total = 0;
+            for (int k = 0; k < PRODUCTOS_POR_VENTA; k++) {
+                productos[k] = aleatorio.nextInt(PRODUCTOS) + 1;
+                precios[k] = 10 + productos[k] % 1000;
+                total += precios[k];
+            }
+            columnas.agregar(i + 1, aleatorio.nextInt(CLIENTES) + 1, total, i * 1_000L, productos, precios);
+        }
+        logger.info("Instantánea de {} ventas y {} líneas construida en {} ms", ventas,
+                (long) ventas * PRODUCTOS_POR_VENTA, System.currentTimeMillis() - inicio);
+
+        medir("todas las ventas", columnas, null, null, ventas);
+        medir("mitad más reciente", columnas, ventas / 2 * 1_000L, null, ventas - ventas / 2);
+    }
+
+    private void medir(String nombre, ColumnasVentas columnas, Long desde, Long hasta, int esperadas) {
+        AnaliticaVentasDTO resultado = null;
+        for (int i = 0; i < 3; i++) {
+            resultado = columnas.analizar(desde, hasta, 10);
+        }
+        long mejor = Long.MAX_VALUE;
+        long suma = 0;
+        for (int i = 0; i < ITERACIONES; i++) {
+            long inicio = System.nanoTime();
+            resultado = columnas.analizar(desde, hasta, 10);
+            long nanos = System.nanoTime() - inicio;
+            mejor = Math.min(mejor, nanos);
+            suma += nanos;
+        }
+        assertEquals(esperadas, resultado.getVentas());
+        logger.info("{}: {} ventas, {} líneas, promedio {} ms, mejor {} ms ({} hilos)", nombre, resultado.getVentas(),
+                resultado.getLineas(), suma / ITERACIONES / 1_000_000, mejor / 1_000_000,
+                ForkJoinPool.getCommonPoolParallelism());
+    }
+}
@@ -0,0 +1,77 @@
+package org.mfigueroa.App.benchmark;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+/**
+ * Carga HTTP en lazo cerrado: {@code concurrencia} usuarios envían peticiones sin pausa durante
+ * {@code duracion}. Cada petición recibe un número de secuencia global para variar los datos.
+ */
+final class GeneradorCarga {
+
+    private GeneradorCarga() {
+    }
+
+    static Resultado ejecutar(HttpClient cliente, int concurrencia, Duration duracion,
+                              IntFunction<HttpRequest> peticiones) throws Exception {
+        long inicioCarga = System.nanoTime();
+        long fin = inicioCarga + duracion.toNanos();
+        AtomicInteger secuencia = new AtomicInteger();
+        AtomicLong errores = new AtomicLong();
+
+        ExecutorService usuarios = Executors.newFixedThreadPool(concurrencia);
+        List<Future<long[]>> tareas = new ArrayList<>();
+        for (int i = 0; i < concurrencia; i++) {
+            tareas.add(usuarios.submit(() -> {
+                long[] latencias = new long[1024];
+                int total = 0;
+                while (System.nanoTime() < fin) {
+                    HttpRequest peticion = peticiones.apply(secuencia.getAndIncrement());
+                    long inicio = System.nanoTime();
+                    HttpResponse<Void> respuesta = cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                    if (respuesta.statusCode() >= 400) {
+                        errores.incrementAndGet();
+                    }
+                    if (total == latencias.length) {
+                        latencias = Arrays.copyOf(latencias, total * 2);
+                    }
+                    latencias[total++] = System.nanoTime() - inicio;
+                }
+                return Arrays.copyOf(latencias, total);
+            }));
+        }
+        List<long[]> porUsuario = new ArrayList<>();
+        for (Future<long[]> tarea : tareas) {
+            porUsuario.add(tarea.get());
+        }
+        usuarios.shutdown();
+        double segundos = (System.nanoTime() - inicioCarga) / 1e9;
+
+        long[] todas = porUsuario.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        return new Resultado(todas.length, todas.length / segundos, percentil(todas, 0.50),
+                percentil(todas, 0.95), percentil(todas, 0.99), errores.get());
+    }
+
+    // Percentil en milisegundos
+    private static double percentil(long[] ordenadas, double percentil) {
+        if (ordenadas.length == 0) {
+            return 0;
+        }
+        int indice = (int) Math.ceil(percentil * ordenadas.length) - 1;
+        return ordenadas[Math.max(indice, 0)] / 1e6;
+    }
+
+    record Resultado(long peticiones, double throughput, double p50, double p95, double p99, long errores) {
+    }
+}
@@ -0,0 +1,40 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.dto.ResultadoGeneracionDTO;
+import org.mfigueroa.App.service.GeneradorDatos;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Velocidad de carga del generador de datos sobre H2 en memoria (perfil perf). Con los valores por defecto
+ * inserta alrededor de 3 millones de filas en venta_producto; para 10 millones hace falta más memoria:
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=GeneradorDatosBenchmarkTests
+ * mvn test -Dbenchmark=true -Dtest=GeneradorDatosBenchmarkTests -Dbenchmark.ventas=3300000 -DargLine=-Xmx6g
+ * </pre>
+ */
+@SpringBootTest
+@ActiveProfiles("perf")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class GeneradorDatosBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(GeneradorDatosBenchmarkTests.class);
+
+    @Autowired
+    private GeneradorDatos generadorDatos;
+
+    @Test
+    void cargaMasiva() {
+        ResultadoGeneracionDTO resultado = generadorDatos.generar(Integer.getInteger("benchmark.clientes", 100_000),
+                Integer.getInteger("benchmark.productos", 20_000), Integer.getInteger("benchmark.ventas", 1_000_000),
+                42);
+        logger.info("{} ventas, {} filas de venta_producto en {} ms ({} filas/s)", resultado.getVentas(),
+                resultado.getVentaProductos(), resultado.getMilisegundos(),
+                String.format("%.0f", resultado.getFilasPorSegundo()));
+    }
+}
@@ -0,0 +1,183 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.config.HilosConfig;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.service.ClienteServiceImpl;
+import org.mfigueroa.App.service.ProductoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Carga con concurrencia fija sobre GET /api/clientes y GET /api/productos, con una latencia artificial en
+ * cada consulta JDBC para simular una base de datos lenta. Reporta throughput y latencia p50/p99 y agrega
+ * una línea por endpoint a target/benchmark-hilos.csv para comparar ambos modos:
+ * <pre>
+ * mvn test -Dbenchmark=true -Dtest=HilosBenchmarkTests
+ * mvn test -Dbenchmark=true -Dtest=HilosBenchmarkTests -Dapp.hilos.virtuales=true   (requiere Java 21+)
+ * </pre>
+ * Parámetros (-D): benchmark.concurrencia, benchmark.segundos, benchmark.latencia-ms,
+ * server.tomcat.threads.max y app.jdbc.pool-maximo.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class HilosBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(HilosBenchmarkTests.class);
+
+    private static final int REGISTROS = 200;
+    private static final Path RESULTADOS = Path.of("target", "benchmark-hilos.csv");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtuales;
+
+    @Value("${server.tomcat.threads.max:200}")
+    private int hilosTomcat;
+
+    @Value("${app.jdbc.pool-maximo:20}")
+    private int pool;
+
+    @TestConfiguration
+    static class LatenciaJdbc {
+
+        // Envuelve el DataSource para que cada consulta tarde al menos benchmark.latencia-ms
+        @Bean
+        static BeanPostProcessor dataSourceLento(@Value("${benchmark.latencia-ms:20}") long latenciaMs) {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String nombre) {
+                    return bean instanceof DataSource dataSource ? new DataSourceLento(dataSource, latenciaMs) : bean;
+                }
+            };
+        }
+    }
+
+    @Test
+    void throughputYLatencia() throws Exception {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (int i = 0; i < REGISTROS; i++) {
+            clientes.add(new ClienteDTO(null, "Cliente " + i, "hilos" + i + "@mail.com"));
+            productos.add(new ProductoDTO(null, "Producto " + i, i, 10));
+        }
+        clienteService.crearClientes(clientes);
+        productoService.crearProductos(productos);
+
+        int concurrencia = Integer.getInteger("benchmark.concurrencia", 200);
+        int segundos = Integer.getInteger("benchmark.segundos", 15);
+        String modo = virtuales && HilosConfig.virtualesDisponibles() ? "virtual" : "plataforma";
+
+        for (String endpoint : List.of("/api/clientes", "/api/productos")) {
+            cargar(endpoint, concurrencia, 2);
+            GeneradorCarga.Resultado resultado = cargar(endpoint, concurrencia, segundos);
+            logger.info("{} [{}] concurrencia={} -> {} pet/s, p50={} ms, p99={} ms, errores={}", endpoint, modo,
+                    concurrencia, String.format("%.1f", resultado.throughput()), String.format("%.1f", resultado.p50()),
+                    String.format("%.1f", resultado.p99()), resultado.errores());
+            guardar(modo, endpoint, concurrencia, resultado);
+            assertEquals(0, resultado.errores());
+        }
+    }
+
+    private GeneradorCarga.Resultado cargar(String endpoint, int concurrencia, int segundos) throws Exception {
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5)).build();
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + endpoint)).GET().build();
+        return GeneradorCarga.ejecutar(cliente, concurrencia, Duration.ofSeconds(segundos), n -> peticion);
+    }
+
+    private void guardar(String modo, String endpoint, int concurrencia, GeneradorCarga.Resultado resultado) throws IOException {
+        Files.createDirectories(RESULTADOS.getParent());
+        if (Files.notExists(RESULTADOS)) {
+            Files.writeString(RESULTADOS, "modo,endpoint,concurrencia,hilos_tomcat,pool_jdbc,java,peticiones_s,p50_ms,p99_ms,errores\n");
+        }
+        String linea = String.join(",", modo, endpoint, String.valueOf(concurrencia), String.valueOf(hilosTomcat),
+                String.valueOf(pool), String.valueOf(Runtime.version().feature()),
+                String.format(Locale.ROOT, "%.1f", resultado.throughput()),
+                String.format(Locale.ROOT, "%.1f", resultado.p50()), String.format(Locale.ROOT, "%.1f", resultado.p99()),
+                String.valueOf(resultado.errores()));
+        Files.writeString(RESULTADOS, linea + "\n", StandardOpenOption.APPEND);
+    }
+
+    private static class DataSourceLento extends DelegatingDataSource {
+
+        private final long latenciaMs;
+
+        DataSourceLento(DataSource destino, long latenciaMs) {
+            super(destino);
+            this.latenciaMs = latenciaMs;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            Connection conexion = super.getConnection();
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, metodo, args) -> {
+                        Object resultado = invocar(conexion, metodo, args);
+                        if (resultado instanceof PreparedStatement sentencia && metodo.getName().equals("prepareStatement")) {
+                            return lento(sentencia);
+                        }
+                        return resultado;
+                    });
+        }
+
+        private PreparedStatement lento(PreparedStatement sentencia) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{PreparedStatement.class},
+                    (proxy, metodo, args) -> {
+                        if (metodo.getName().equals("executeQuery")) {
+                            Thread.sleep(latenciaMs);
+                        }
+                        return invocar(sentencia, metodo, args);
+                    });
+        }
+
+        private static Object invocar(Object destino, Method metodo, Object[] args) throws Throwable {
+            try {
+                return metodo.invoke(destino, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getCause();
+            }
+        }
+    }
+}
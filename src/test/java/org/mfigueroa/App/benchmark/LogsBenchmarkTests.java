@@ -0,0 +1,88 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.service.ProductoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalManagementPort;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Latencia de los listados de productos con 10 000 registros, para medir el costo del logging por fila y
+ * por petición, con el muestreo de app.logs.* y con el diagnóstico completo activado en caliente.
+ * Se ejecuta con:
+ * mvn test -Dbenchmark=true -Dtest=LogsBenchmarkTests
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "management.server.port=0")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class LogsBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(LogsBenchmarkTests.class);
+
+    private static final int REGISTROS = 10_000;
+    private static final int CALENTAMIENTO = 20;
+    private static final int ITERACIONES = 20;
+
+    @LocalServerPort
+    private int puerto;
+
+    @LocalManagementPort
+    private int puertoAdministracion;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Test
+    void listadosDeProductos() throws Exception {
+        List<ProductoDTO> productos = new ArrayList<>(REGISTROS);
+        for (int i = 0; i < REGISTROS; i++) {
+            productos.add(new ProductoDTO(null, "Producto " + i, i % 1000, 10));
+        }
+        productoService.crearProductos(productos);
+
+        HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        for (boolean diagnostico : new boolean[]{false, true}) {
+            HttpRequest cambio = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + puertoAdministracion + "/actuator/diagnostico"))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"diagnostico\":" + diagnostico + "}")).build();
+            assertEquals(200, cliente.send(cambio, HttpResponse.BodyHandlers.discarding()).statusCode());
+            medir(cliente, diagnostico ? "diagnostico" : "muestreo");
+        }
+    }
+
+    private void medir(HttpClient cliente, String modo) throws Exception {
+        for (String endpoint : List.of("/api/productos", "/api/productos/stream", "/api/productos/getPaged?tamano=100")) {
+            HttpRequest peticion = HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + endpoint)).GET().build();
+            for (int i = 0; i < CALENTAMIENTO; i++) {
+                cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+            }
+            long[] latencias = new long[ITERACIONES];
+            for (int i = 0; i < ITERACIONES; i++) {
+                long inicio = System.nanoTime();
+                cliente.send(peticion, HttpResponse.BodyHandlers.discarding());
+                latencias[i] = System.nanoTime() - inicio;
+            }
+            Arrays.sort(latencias);
+            logger.warn("[{}] {}: media {} ms, p50 {} ms, max {} ms", modo, endpoint,
+                    String.format("%.2f", Arrays.stream(latencias).average().orElse(0) / 1e6),
+                    String.format("%.2f", latencias[ITERACIONES / 2] / 1e6),
+                    String.format("%.2f", latencias[ITERACIONES - 1] / 1e6));
+        }
+    }
+}
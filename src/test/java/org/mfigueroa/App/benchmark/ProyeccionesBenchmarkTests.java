@@ -0,0 +1,93 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.mappers.ClienteMapper;
+import org.mfigueroa.App.mappers.ProductoMapper;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.mfigueroa.App.service.ClienteServiceImpl;
+import org.mfigueroa.App.service.ProductoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compara la lectura con entidades + mapper contra las proyecciones JPQL a DTO
+ * (latencia y bytes asignados por llamada). Se ejecuta con:
+ * mvn test -Dbenchmark=true -Dtest=ProyeccionesBenchmarkTests
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class ProyeccionesBenchmarkTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProyeccionesBenchmarkTests.class);
+
+    private static final int REGISTROS = 20_000;
+    private static final int CALENTAMIENTO = 5;
+    private static final int ITERACIONES = 20;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void entidadesContraProyecciones() {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (int i = 0; i < REGISTROS; i++) {
+            clientes.add(new ClienteDTO(null, "Cliente " + i, "bench" + i + "@mail.com"));
+            productos.add(new ProductoDTO(null, "Producto " + i, i % 1000, i % 50));
+        }
+        clienteService.crearClientes(clientes);
+        productoService.crearProductos(productos);
+
+        medir("clientes entidades", () -> transactionTemplate.execute(s ->
+                clienteRepository.findAllClientes().stream().map(ClienteMapper::toDto).toList()));
+        medir("clientes proyeccion", clienteRepository::findAllClientesDTO);
+        medir("productos entidades", () -> transactionTemplate.execute(s ->
+                productoRepository.findAll().stream().map(ProductoMapper::toDto).toList()));
+        medir("productos proyeccion", productoRepository::findAllDTO);
+    }
+
+    private void medir(String nombre, Supplier<List<?>> lectura) {
+        com.sun.management.ThreadMXBean hilos = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long hilo = Thread.currentThread().getId();
+        for (int i = 0; i < CALENTAMIENTO; i++) {
+            assertEquals(REGISTROS, lectura.get().size());
+        }
+        long bytesInicio = hilos.getThreadAllocatedBytes(hilo);
+        long t0 = System.nanoTime();
+        for (int i = 0; i < ITERACIONES; i++) {
+            lectura.get();
+        }
+        double ms = (System.nanoTime() - t0) / 1e6 / ITERACIONES;
+        double mb = (hilos.getThreadAllocatedBytes(hilo) - bytesInicio) / 1024.0 / 1024.0 / ITERACIONES;
+        logger.info("{}: {} ms/llamada, {} MB asignados/llamada", nombre,
+                String.format("%.2f", ms), String.format("%.2f", mb));
+    }
+}
@@ -0,0 +1,224 @@
+package org.mfigueroa.App.benchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.service.ClienteServiceImpl;
+import org.mfigueroa.App.service.ProductoService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Suite de regresión de rendimiento sobre los endpoints REST reales, con la base H2 embebida del perfil perf.
+ * Cada escenario se ejecuta con cada nivel de concurrencia fijo de {@code perf.concurrencias} y el resultado
+ * (peticiones/s, p50/p95/p99 en ms) se compara con la línea base: falla si el throughput baja o el p95 sube
+ * más de {@code perf.umbral}. Sin línea base, o con {@code perf.actualizar=true}, la ejecución la registra.
+ * <pre>
+ * mvn -Pperf test
+ * mvn -Pperf test -Dperf.actualizar=true
+ * </pre>
+ * Parámetros (-D): perf.concurrencias (1,8), perf.segundos (5), perf.calentamiento (2), perf.umbral (0.25),
+ * perf.tolerancia-ms (2, diferencia de latencia que no se considera regresión) y perf.linea-base
+ * (perf/linea-base.csv). El resultado de cada ejecución queda en target/perf-resultado.csv.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("perf")
+@EnabledIfSystemProperty(named = "perf", matches = "true")
+class RendimientoTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(RendimientoTests.class);
+
+    private static final int CLIENTES = 2_000;
+    private static final int PRODUCTOS = 2_000;
+    private static final int PRODUCTOS_POR_LOTE = 50;
+    private static final String CABECERA = "escenario,concurrencia,peticiones_s,p50_ms,p95_ms,p99_ms,errores";
+    private static final Path RESULTADO = Path.of("target", "perf-resultado.csv");
+
+    @LocalServerPort
+    private int puerto;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    private final HttpClient cliente = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5)).build();
+
+    @Test
+    void rendimientoContraLineaBase() throws Exception {
+        List<Long> clientes = new ArrayList<>();
+        List<Long> productos = new ArrayList<>();
+        cargarDatos(clientes, productos);
+
+        int[] concurrencias = Arrays.stream(System.getProperty("perf.concurrencias", "1,8").split(","))
+                .map(String::trim).mapToInt(Integer::parseInt).toArray();
+        Duration duracion = Duration.ofSeconds(Long.getLong("perf.segundos", 5));
+        Duration calentamiento = Duration.ofSeconds(Long.getLong("perf.calentamiento", 2));
+
+        Map<String, GeneradorCarga.Resultado> resultados = new LinkedHashMap<>();
+        for (Map.Entry<String, IntFunction<HttpRequest>> escenario : escenarios(clientes, productos).entrySet()) {
+            for (int concurrencia : concurrencias) {
+                GeneradorCarga.ejecutar(cliente, concurrencia, calentamiento, escenario.getValue());
+                GeneradorCarga.Resultado resultado = GeneradorCarga.ejecutar(cliente, concurrencia, duracion,
+                        escenario.getValue());
+                logger.info("{} concurrencia={} -> {} pet/s, p50={} ms, p95={} ms, p99={} ms, errores={}",
+                        escenario.getKey(), concurrencia, String.format("%.1f", resultado.throughput()),
+                        String.format("%.2f", resultado.p50()), String.format("%.2f", resultado.p95()),
+                        String.format("%.2f", resultado.p99()), resultado.errores());
+                resultados.put(escenario.getKey() + "," + concurrencia, resultado);
+            }
+        }
+        escribir(RESULTADO, resultados);
+
+        List<String> fallas = new ArrayList<>();
+        resultados.forEach((clave, resultado) -> {
+            if (resultado.errores() > 0) {
+                fallas.add(clave + ": " + resultado.errores() + " respuestas con error");
+            }
+        });
+
+        Path lineaBase = Path.of(System.getProperty("perf.linea-base", "perf/linea-base.csv"));
+        if (Files.notExists(lineaBase) || Boolean.getBoolean("perf.actualizar")) {
+            if (fallas.isEmpty()) {
+                escribir(lineaBase, resultados);
+                logger.info("Línea base registrada en {}", lineaBase.toAbsolutePath());
+            }
+        } else {
+            fallas.addAll(comparar(leer(lineaBase), resultados));
+        }
+        if (!fallas.isEmpty()) {
+            fail("Regresión de rendimiento:\n" + String.join("\n", fallas));
+        }
+    }
+
+    private Map<String, IntFunction<HttpRequest>> escenarios(List<Long> clientes, List<Long> productos) {
+        // La secuencia de GeneradorCarga se reinicia en cada ejecución; los emails deben ser únicos entre todas
+        AtomicInteger nuevos = new AtomicInteger();
+        Map<String, IntFunction<HttpRequest>> escenarios = new LinkedHashMap<>();
+        escenarios.put("clientes-crear", n -> {
+            int cliente = nuevos.incrementAndGet();
+            return post("/api/clientes/create",
+                    "{\"nombre\":\"Perf " + cliente + "\",\"email\":\"perf" + cliente + "@mail.com\"}");
+        });
+        escenarios.put("productos-lote", n -> {
+            StringBuilder cuerpo = new StringBuilder("[");
+            for (int i = 0; i < PRODUCTOS_POR_LOTE; i++) {
+                cuerpo.append(i == 0 ? "" : ",").append("{\"nombre\":\"Lote ").append(n).append('-').append(i)
+                        .append("\",\"precio\":").append(10 + i).append(",\"stock\":100}");
+            }
+            return post("/api/productos/batch", cuerpo.append(']').toString());
+        });
+        escenarios.put("productos-paginados", n -> get("/api/productos/getPaged?pagina=" + (n % 50)
+                + "&tamano=20&ordenarPor=nombre&orden=asc"));
+        escenarios.put("productos-busqueda", n -> get("/api/productos/findByName?tamano=20&nombre="
+                + URLEncoder.encode("Producto " + (n % 200), StandardCharsets.UTF_8)));
+        escenarios.put("clientes-busqueda", n -> get("/api/clientes/getByName?nombre="
+                + URLEncoder.encode("Cliente " + (n % 200), StandardCharsets.UTF_8)));
+        escenarios.put("ventas-crear", n -> post("/api/ventas/create",
+                "{\"clienteId\":" + clientes.get(n % clientes.size()) + ",\"productosId\":["
+                        + productos.get(n % productos.size()) + "," + productos.get((n * 7) % productos.size()) + ","
+                        + productos.get((n * 13) % productos.size()) + "]}"));
+        escenarios.put("ventas-paginadas", n -> get("/api/ventas/getPaged?tamano=20&pagina=" + (n % 20)));
+        return escenarios;
+    }
+
+    private void cargarDatos(List<Long> clientes, List<Long> productos) {
+        List<ClienteDTO> nuevosClientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            nuevosClientes.add(new ClienteDTO(null, "Cliente " + i, "cliente" + i + "@mail.com"));
+        }
+        clienteService.crearClientes(nuevosClientes);
+        List<ProductoDTO> nuevosProductos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            nuevosProductos.add(new ProductoDTO(null, "Producto " + i, 10 + i % 500, 10_000_000));
+        }
+        productoService.crearProductos(nuevosProductos);
+        clienteService.getAllClientes().forEach(c -> clientes.add(c.getId()));
+        productoService.getAllProductos().forEach(p -> productos.add(p.getId()));
+    }
+
+    private List<String> comparar(Map<String, double[]> base, Map<String, GeneradorCarga.Resultado> actuales) {
+        double umbral = Double.parseDouble(System.getProperty("perf.umbral", "0.25"));
+        double toleranciaMs = Double.parseDouble(System.getProperty("perf.tolerancia-ms", "2"));
+        List<String> fallas = new ArrayList<>();
+        actuales.forEach((clave, actual) -> {
+            double[] anterior = base.get(clave);
+            if (anterior == null) {
+                return;
+            }
+            double throughputBase = anterior[0];
+            double p95Base = anterior[2];
+            if (actual.throughput() < throughputBase * (1 - umbral)) {
+                fallas.add(String.format(Locale.ROOT, "%s: %.1f pet/s, línea base %.1f pet/s", clave,
+                        actual.throughput(), throughputBase));
+            }
+            if (actual.p95() > p95Base * (1 + umbral) && actual.p95() - p95Base > toleranciaMs) {
+                fallas.add(String.format(Locale.ROOT, "%s: p95 %.2f ms, línea base %.2f ms", clave,
+                        actual.p95(), p95Base));
+            }
+        });
+        return fallas;
+    }
+
+    private void escribir(Path archivo, Map<String, GeneradorCarga.Resultado> resultados) throws IOException {
+        if (archivo.getParent() != null) {
+            Files.createDirectories(archivo.getParent());
+        }
+        List<String> lineas = new ArrayList<>();
+        lineas.add(CABECERA);
+        resultados.forEach((clave, r) -> lineas.add(String.format(Locale.ROOT, "%s,%.1f,%.2f,%.2f,%.2f,%d",
+                clave, r.throughput(), r.p50(), r.p95(), r.p99(), r.errores())));
+        Files.write(archivo, lineas);
+    }
+
+    // escenario,concurrencia -> {peticiones_s, p50, p95, p99}
+    private Map<String, double[]> leer(Path archivo) throws IOException {
+        Map<String, double[]> base = new LinkedHashMap<>();
+        for (String linea : Files.readAllLines(archivo)) {
+            String[] campos = linea.split(",");
+            if (linea.isBlank() || linea.equals(CABECERA) || campos.length < 6) {
+                continue;
+            }
+            base.put(campos[0] + "," + campos[1], new double[]{Double.parseDouble(campos[2]),
+                    Double.parseDouble(campos[3]), Double.parseDouble(campos[4]), Double.parseDouble(campos[5])});
+        }
+        return base;
+    }
+
+    private HttpRequest get(String ruta) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta)).GET().build();
+    }
+
+    private HttpRequest post(String ruta, String json) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + puerto + ruta))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(json)).build();
+    }
+}
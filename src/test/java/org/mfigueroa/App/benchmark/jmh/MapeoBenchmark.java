@@ -0,0 +1,88 @@
+package org.mfigueroa.App.benchmark.jmh;
+
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.mappers.ClienteMapper;
+import org.mfigueroa.App.mappers.ProductoMapper;
+import org.mfigueroa.App.mappers.VentaMapper;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.model.Venta;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Costo de los mappers entidad/DTO (sin base de datos)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapeoBenchmark {
+
+    @Param({"5"})
+    private int productosPorVenta;
+
+    private final VentaMapper ventaMapper = new VentaMapper();
+
+    private Cliente cliente;
+    private ClienteDTO clienteDTO;
+    private Producto producto;
+    private ProductoDTO productoDTO;
+    private Venta venta;
+
+    @Setup
+    public void preparar() {
+        cliente = new Cliente(1L, "Juan Pérez", "juan@mail.com", null);
+        clienteDTO = new ClienteDTO(1L, "Juan Pérez", "juan@mail.com");
+        producto = new Producto(1L, "Monitor", 3500.0, 10, null);
+        productoDTO = new ProductoDTO(1L, "Monitor", 3500.0, 10);
+        List<Producto> productos = new ArrayList<>();
+        for (long i = 0; i < productosPorVenta; i++) {
+            productos.add(new Producto(i, "Producto " + i, 100.0 + i, 10, null));
+        }
+        venta = new Venta(1L, new Date(), 500.0, cliente, productos);
+    }
+
+    @Benchmark
+    public ClienteDTO clienteToDto() {
+        return ClienteMapper.toDto(cliente);
+    }
+
+    @Benchmark
+    public Cliente clienteToEntity() {
+        return ClienteMapper.toEntity(clienteDTO);
+    }
+
+    @Benchmark
+    public ProductoDTO productoToDto() {
+        return ProductoMapper.toDto(producto);
+    }
+
+    @Benchmark
+    public Producto productoToEntity() {
+        return ProductoMapper.toEntity(productoDTO);
+    }
+
+    @Benchmark
+    public VentaDTO ventaToDto() {
+        return ventaMapper.toDto(venta);
+    }
+}
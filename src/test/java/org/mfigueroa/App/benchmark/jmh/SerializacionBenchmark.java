@@ -0,0 +1,76 @@
+package org.mfigueroa.App.benchmark.jmh;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de las respuestas más grandes: una página de productos y la lista de ventas, en JSON y en los
+ * formatos binarios que se negocian con Accept (CBOR y Smile). El ObjectMapper se construye igual que los de
+ * los convertidores de Spring MVC (Jackson2ObjectMapperBuilder). El tamaño de cada carga se imprime al preparar.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializacionBenchmark {
+
+    @Param({"20", "1000"})
+    private int registros;
+
+    @Param({"json", "cbor", "smile"})
+    private String formato;
+
+    private ObjectMapper objectMapper;
+    private Page<ProductoDTO> paginaProductos;
+    private List<VentaDTO> ventas;
+
+    @Setup
+    public void preparar() throws Exception {
+        objectMapper = switch (formato) {
+            case "cbor" -> Jackson2ObjectMapperBuilder.cbor().build();
+            case "smile" -> Jackson2ObjectMapperBuilder.smile().build();
+            default -> Jackson2ObjectMapperBuilder.json().build();
+        };
+        List<ProductoDTO> productos = new ArrayList<>(registros);
+        ventas = new ArrayList<>(registros);
+        for (long i = 0; i < registros; i++) {
+            productos.add(new ProductoDTO(i, "Producto " + i, 100.0 + i, (int) (i % 50)));
+            ventas.add(new VentaDTO(i, i % 100, List.of(i, i + 1, i + 2), 300.0 + i));
+        }
+        paginaProductos = new PageImpl<>(productos, PageRequest.of(0, registros), registros * 10L);
+        System.out.printf("%n%s, %d registros: página de productos %d bytes, lista de ventas %d bytes%n", formato,
+                registros, paginaDeProductos().length, listaDeVentas().length);
+    }
+
+    @Benchmark
+    public byte[] paginaDeProductos() throws Exception {
+        return objectMapper.writeValueAsBytes(paginaProductos);
+    }
+
+    @Benchmark
+    public byte[] listaDeVentas() throws Exception {
+        return objectMapper.writeValueAsBytes(ventas);
+    }
+}
@@ -0,0 +1,123 @@
+package org.mfigueroa.App.benchmark.jmh;
+
+import org.mfigueroa.App.AppJpqlApplication;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.service.ClienteServiceImpl;
+import org.mfigueroa.App.service.ProductoService;
+import org.mfigueroa.App.service.VentaService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rutas de lectura de los servicios sobre H2 en memoria (perfil test), con la aplicación completa
+ * (JPA, repositorios e índices en memoria) pero sin servidor web.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ServiciosBenchmark {
+
+    private static final int CLIENTES = 2_000;
+    private static final int PRODUCTOS = 2_000;
+    private static final int VENTAS = 500;
+
+    private ConfigurableApplicationContext contexto;
+    private ClienteServiceImpl clienteService;
+    private ProductoService productoService;
+    private VentaService ventaService;
+
+    @Setup
+    public void iniciar() {
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        contexto = new SpringApplicationBuilder(AppJpqlApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run();
+        clienteService = contexto.getBean(ClienteServiceImpl.class);
+        productoService = contexto.getBean(ProductoService.class);
+        ventaService = contexto.getBean(VentaService.class);
+
+        List<ClienteDTO> clientes = new ArrayList<>(CLIENTES);
+        for (int i = 0; i < CLIENTES; i++) {
+            clientes.add(new ClienteDTO(null, "Cliente " + i, "cliente" + i + "@mail.com"));
+        }
+        clienteService.crearClientes(clientes);
+        List<ProductoDTO> productos = new ArrayList<>(PRODUCTOS);
+        for (int i = 0; i < PRODUCTOS; i++) {
+            productos.add(new ProductoDTO(null, "Producto " + i, 10 + i % 500, 1_000));
+        }
+        productoService.crearProductos(productos);
+
+        List<ClienteDTO> guardados = clienteService.getAllClientes();
+        List<ProductoDTO> catalogo = productoService.getAllProductos();
+        for (int i = 0; i < VENTAS; i++) {
+            List<Long> productosVenta = List.of(catalogo.get(i % PRODUCTOS).getId(),
+                    catalogo.get((i * 7) % PRODUCTOS).getId(), catalogo.get((i * 13) % PRODUCTOS).getId());
+            ventaService.crearVenta(new VentaDTO(null, guardados.get(i % CLIENTES).getId(), productosVenta, 0));
+        }
+    }
+
+    @TearDown
+    public void detener() {
+        contexto.close();
+    }
+
+    @Benchmark
+    public List<ClienteDTO> clientesTodos() {
+        return clienteService.getAllClientes();
+    }
+
+    @Benchmark
+    public List<ClienteDTO> clientesPorNombre() {
+        return clienteService.findByNombre("cliente 19");
+    }
+
+    @Benchmark
+    public List<ProductoDTO> productosTodos() {
+        return productoService.getAllProductos();
+    }
+
+    @Benchmark
+    public Page<ProductoDTO> productosPagina() {
+        return productoService.obtenerTodos(PageRequest.of(10, 50, Sort.by("nombre")));
+    }
+
+    @Benchmark
+    public Page<ProductoDTO> productosPorNombre() {
+        return productoService.buscarProductoPorNombre("producto 1", PageRequest.of(0, 20, Sort.by("nombre")));
+    }
+
+    @Benchmark
+    public List<VentaDTO> ventasTodas() {
+        return ventaService.getAllVentas();
+    }
+
+    @Benchmark
+    public Page<VentaDTO> ventasPagina() {
+        return ventaService.obtenerVentasPaginadas(2, 50);
+    }
+}
@@ -0,0 +1,37 @@
+package org.mfigueroa.App.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class DiagnosticoEndpointTests {
+
+    @Autowired
+    private DiagnosticoEndpoint diagnosticoEndpoint;
+
+    @Test
+    void unCampoInvalidoNoAplicaNingunCambio() {
+        MuestreoLogFilter filtro = MuestreoLogFilter.actual();
+        assertNotNull(filtro);
+        double tasa = filtro.getTasaMuestreo();
+        int maximo = filtro.getMaxPorSegundo();
+        String nivel = diagnosticoEndpoint.logs().getNivel();
+
+        assertThrows(InvalidEndpointRequestException.class,
+                () -> diagnosticoEndpoint.actualizarLogs(true, tasa / 2, maximo + 1, "RUIDOSO"));
+
+        assertEquals(tasa, filtro.getTasaMuestreo());
+        assertEquals(maximo, filtro.getMaxPorSegundo());
+        assertEquals(nivel, diagnosticoEndpoint.logs().getNivel());
+        assertFalse(filtro.isDiagnostico());
+    }
+}
@@ -0,0 +1,66 @@
+package org.mfigueroa.App.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MuestreoLogFilterTests {
+
+    private final LoggerContext contexto = new LoggerContext();
+    private final Logger controlador = contexto.getLogger("org.mfigueroa.App.controller.ProductoController");
+    private final Logger servicio = contexto.getLogger("org.mfigueroa.App.service.ProductoService");
+
+    @AfterEach
+    void limpiarMdc() {
+        MDC.clear();
+    }
+
+    @Test
+    void limitaPeticionesPorEndpointYSegundo() {
+        MuestreoLogFilter filtro = new MuestreoLogFilter();
+        filtro.setMaxPorSegundo(3);
+
+        int registradas = 0;
+        for (int i = 0; i < 10; i++) {
+            registradas += filtro.muestrear("GET /api/productos") ? 1 : 0;
+        }
+        // Endpoint distinto, cupo propio (la ventana puede cambiar de segundo entre llamadas)
+        assertTrue(filtro.muestrear("GET /api/clientes"));
+        assertTrue(registradas >= 3 && registradas <= 6, "registradas=" + registradas);
+        assertEquals(11, filtro.getRegistradas() + filtro.getDescartadas());
+
+        filtro.setTasaMuestreo(0);
+        assertFalse(filtro.muestrear("GET /api/ventas"));
+        filtro.setDiagnostico(true);
+        assertTrue(filtro.muestrear("GET /api/ventas"));
+    }
+
+    @Test
+    void descartaSoloInfoDeControladoresNoMuestreados() {
+        MuestreoLogFilter filtro = new MuestreoLogFilter();
+        MDC.put(MuestreoLogFilter.MDC_MUESTRA, "0");
+
+        assertEquals(FilterReply.DENY, filtro.decide(null, controlador, Level.INFO, "Consultando", null, null));
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controlador, Level.WARN, "No encontrado", null, null));
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controlador, Level.INFO, null, null, null));
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, servicio, Level.INFO, "Importando", null, null));
+
+        filtro.setDiagnostico(true);
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controlador, Level.INFO, "Consultando", null, null));
+
+        filtro.setDiagnostico(false);
+        MDC.put(MuestreoLogFilter.MDC_MUESTRA, "1");
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controlador, Level.INFO, "Consultando", null, null));
+        // Fuera de una petición no hay decisión de muestreo
+        MDC.clear();
+        assertEquals(FilterReply.NEUTRAL, filtro.decide(null, controlador, Level.INFO, "Consultando", null, null));
+    }
+}
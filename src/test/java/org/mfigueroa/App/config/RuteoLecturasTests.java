@@ -0,0 +1,146 @@
+package org.mfigueroa.App.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.service.ClienteServiceImpl;
+import org.mfigueroa.App.service.ProductoService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.not;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.cookie;
+
+// Dos bases H2 en memoria hacen de primaria y réplica; la replicación se simula copiando la primaria
+@SpringBootTest(properties = "app.datasource.replica.url=jdbc:h2:mem:replica-${random.uuid};MODE=Oracle")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class RuteoLecturasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private Replicacion replicacion;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Test
+    void lecturasVanALaReplicaYEscriturasALaPrimaria() {
+        productoService.saveProducto(new ProductoDTO(null, "Sin replicar", 10, 5));
+        assertFalse(nombres().contains("Sin replicar"));
+
+        replicacion.replicar();
+        assertTrue(nombres().contains("Sin replicar"));
+    }
+
+    @Test
+    void lecturaTrasEscrituraUsaLaPrimaria() throws Exception {
+        mockMvc.perform(post("/api/productos/create").contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"nombre\":\"Recien escrito\",\"precio\":10,\"stock\":5}"))
+                .andExpect(cookie().maxAge(LecturaTrasEscrituraFilter.COOKIE, 5));
+
+        mockMvc.perform(get("/api/productos/findByPrice").param("precio", "10"))
+                .andExpect(content().string(not(containsString("Recien escrito"))));
+        mockMvc.perform(get("/api/productos/findByPrice").param("precio", "10")
+                        .cookie(new Cookie(LecturaTrasEscrituraFilter.COOKIE, "1")))
+                .andExpect(content().string(containsString("Recien escrito")));
+    }
+
+    @Test
+    void listadosConEtagLeenDeLaPrimaria() throws Exception {
+        productoService.saveProducto(new ProductoDTO(null, "Con ETag", 10, 5));
+        clienteService.guardarCliente(new ClienteDTO(null, "Con ETag", "con.etag@mail.com"));
+
+        // Sin cookie: la ETag ya incluye la escritura, los datos no pueden ser los de la réplica atrasada
+        mockMvc.perform(get("/api/productos")).andExpect(content().string(containsString("Con ETag")));
+        mockMvc.perform(get("/api/productos/findByStock")).andExpect(content().string(containsString("Con ETag")));
+        mockMvc.perform(get("/api/clientes")).andExpect(content().string(containsString("Con ETag")));
+        assertFalse(RuteoLecturas.isPrimariaForzada());
+    }
+
+    @Test
+    void metricasPorPool() {
+        productoService.getAllProductos();
+        productoService.saveProducto(new ProductoDTO(null, "Medido", 10, 5));
+        for (String pool : new String[]{"primaria", "replica"}) {
+            Timer adquisicion = registro.find("hikaricp.connections.acquire").tag("pool", pool).timer();
+            assertNotNull(adquisicion, "hikaricp.connections.acquire del pool " + pool);
+            assertTrue(adquisicion.count() > 0);
+        }
+    }
+
+    private List<String> nombres() {
+        return productoService.getAllProductos().stream().map(ProductoDTO::getNombre).toList();
+    }
+
+    @TestConfiguration
+    static class ConfiguracionReplica {
+
+        @Bean
+        Replicacion replicacion(@Qualifier("primaria") DataSource primaria, @Qualifier("replica") DataSource replica) {
+            return new Replicacion(primaria, replica);
+        }
+    }
+
+    static class Replicacion {
+
+        private final JdbcTemplate primaria;
+        private final JdbcTemplate replica;
+
+        Replicacion(DataSource primaria, DataSource replica) {
+            this.primaria = new JdbcTemplate(primaria);
+            this.replica = new JdbcTemplate(replica);
+        }
+
+        // Antes de ApplicationReadyEvent, cuando se construyen los índices leyendo de la réplica
+        @EventListener(ContextRefreshedEvent.class)
+        public void replicar() {
+            try {
+                Path copia = Files.createTempFile("replica", ".sql");
+                try {
+                    primaria.execute("SCRIPT TO '" + copia.toAbsolutePath() + "'");
+                    replica.execute("DROP ALL OBJECTS");
+                    replica.execute("RUNSCRIPT FROM '" + copia.toAbsolutePath() + "'");
+                } finally {
+                    Files.deleteIfExists(copia);
+                }
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.AnaliticaVentasDTO;
+import org.mfigueroa.App.dto.IngresoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.analitica.activa=true")
+@ActiveProfiles("test")
+class AnaliticaVentasTests {
+
+    private static final long DIA = 86_400_000L;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private AnaliticaVentas analiticaVentas;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void agregaPorProductoYClienteRepartiendoElTotal() {
+        ColumnasVentas columnas = new ColumnasVentas(2, 2);
+        columnas.agregar(1, 10, 300.0, 0, new long[]{100, 200}, new double[]{100.0, 200.0});
+        columnas.agregar(2, 20, 100.0, DIA, new long[]{100}, new double[]{100.0});
+        columnas.agregar(3, 10, 150.0, 2 * DIA, new long[]{300, 300, 100}, new double[]{25.0, 25.0, 100.0});
+        columnas.agregar(4, 20, 0.0, 3 * DIA, new long[]{}, new double[]{});
+
+        AnaliticaVentasDTO todo = columnas.analizar(null, null, 2);
+        assertEquals(4, todo.getVentas());
+        assertEquals(6, todo.getLineas());
+        assertEquals(550.0, todo.getIngresoTotal(), 1e-9);
+        assertEquals(137.5, todo.getTicketPromedio(), 1e-9);
+        assertEquals(1.5, todo.getProductosPorVenta(), 1e-9);
+        // Producto 100: 100 + 100 + 150 * 100 / 150; el 300 (50) queda fuera del top 2
+        assertEquals(List.of(100L, 200L), todo.getTopProductos().stream().map(IngresoDTO::getId).toList());
+        assertEquals(300.0, todo.getTopProductos().get(0).getIngreso(), 1e-9);
+        assertEquals(3, todo.getTopProductos().get(0).getCantidad());
+        assertEquals(450.0, todo.getTopClientes().get(0).getIngreso(), 1e-9);
+        assertEquals(2, todo.getTopClientes().get(1).getCantidad());
+
+        AnaliticaVentasDTO rango = columnas.analizar(DIA, 2 * DIA, 5);
+        assertEquals(2, rango.getVentas());
+        assertEquals(250.0, rango.getIngresoTotal(), 1e-9);
+        assertEquals(List.of(100L, 300L), rango.getTopProductos().stream().map(IngresoDTO::getId).toList());
+
+        // Eliminaciones y cambios de cliente sobre ventas ya publicadas
+        columnas.cambiarCliente(2, 30);
+        columnas.eliminar(List.of(3L, 99L));
+        AnaliticaVentasDTO cambios = columnas.analizar(null, null, 5);
+        assertEquals(3, cambios.getVentas());
+        assertEquals(400.0, cambios.getIngresoTotal(), 1e-9);
+        assertEquals(List.of(10L, 30L, 20L), cambios.getTopClientes().stream().map(IngresoDTO::getId).toList());
+        columnas.eliminarClientes(List.of(20L));
+        assertEquals(2, columnas.analizar(null, null, 5).getVentas());
+    }
+
+    @Test
+    void incorporaVentasNuevasEliminacionesYCambiosDeCliente() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Analítica", UUID.randomUUID() + "@mail.com", null));
+        Producto caro = productoRepository.save(new Producto(null, "Caro", 90_000.0, 10, null));
+        Producto barato = productoRepository.save(new Producto(null, "Barato", 10_000.0, 10, null));
+        Date antes = new Date();
+
+        VentaDTO primera = ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(caro.getId(), barato.getId()), 0));
+        VentaDTO eliminada = ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(caro.getId()), 0));
+
+        // Sin reconstruir: las ventas confirmadas ya están en la instantánea
+        AnaliticaVentasDTO analitica = ventaService.analizarVentas(antes, null, 1);
+        assertEquals(2, analitica.getVentas());
+        assertEquals(190_000.0, analitica.getIngresoTotal(), 1e-6);
+        assertEquals(caro.getId(), analitica.getTopProductos().get(0).getId());
+        assertEquals(180_000.0, analitica.getTopProductos().get(0).getIngreso(), 1e-6);
+        assertEquals(cliente.getId(), analitica.getTopClientes().get(0).getId());
+
+        // Sin reconstruir: la eliminación se aplica al confirmarse
+        assertTrue(ventaService.deleteVentaById(eliminada.getId()));
+        analitica = ventaService.analizarVentas(antes, null, 1);
+        assertEquals(1, analitica.getVentas());
+        assertEquals(100_000.0, analitica.getIngresoTotal(), 1e-6);
+        assertEquals(2, analitica.getLineas());
+
+        Cliente otro = clienteRepository.save(new Cliente(null, "Analítica 2", UUID.randomUUID() + "@mail.com", null));
+        ventaService.updateVentaClienteId(otro.getId(), primera.getId());
+        analitica = ventaService.analizarVentas(antes, null, 1);
+        assertEquals(otro.getId(), analitica.getTopClientes().get(0).getId());
+
+        // Una reconstrucción completa llega al mismo resultado
+        analiticaVentas.reconstruir();
+        assertEquals(analitica.getTopClientes().get(0).getIngreso(),
+                ventaService.analizarVentas(antes, null, 1).getTopClientes().get(0).getIngreso(), 1e-6);
+    }
+}
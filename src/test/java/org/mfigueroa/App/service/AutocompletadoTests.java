@@ -0,0 +1,105 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.SugerenciaDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class AutocompletadoTests {
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Test
+    void arbolCoincideConBusquedaLineal() {
+        Random random = new Random(42);
+        String[] silabas = {"ma", "mar", "ta", "co", "ca", " ", "sa"};
+        ArbolPrefijos arbol = new ArbolPrefijos(12);
+        Map<Long, String> nombres = new HashMap<>();
+        Map<Long, Long> puntajes = new HashMap<>();
+
+        for (int paso = 0; paso < 3000; paso++) {
+            long id = random.nextInt(300);
+            int operacion = random.nextInt(4);
+            if (operacion == 0) {
+                arbol.eliminar(id);
+                nombres.remove(id);
+                puntajes.remove(id);
+            } else if (operacion == 1 && nombres.containsKey(id)) {
+                arbol.sumarPuntaje(id, 1);
+                puntajes.merge(id, 1L, Long::sum);
+            } else {
+                StringBuilder nombre = new StringBuilder();
+                for (int i = 0; i < 1 + random.nextInt(4); i++) {
+                    nombre.append(silabas[random.nextInt(silabas.length)]);
+                }
+                long puntaje = random.nextInt(10);
+                arbol.agregar(id, puntaje, nombre.toString());
+                nombres.put(id, nombre.toString());
+                puntajes.put(id, puntaje);
+            }
+        }
+
+        for (String prefijo : List.of("", "m", "ma", "mar", "mart", "c", "ca", "cos", "s", "x")) {
+            List<Long> esperados = nombres.entrySet().stream()
+                    .filter(e -> !e.getValue().isBlank() && ArbolPrefijos.claves(e.getValue()).stream().anyMatch(c -> c.startsWith(prefijo)))
+                    .sorted(Comparator.comparingLong((Map.Entry<Long, String> e) -> -puntajes.get(e.getKey()))
+                            .thenComparing(Map.Entry::getValue)
+                            .thenComparing(Map.Entry::getKey))
+                    .limit(3).map(Map.Entry::getKey).toList();
+            List<Long> obtenidos = arbol.buscar(prefijo, 3).stream().map(SugerenciaDTO::getId).toList();
+            assertEquals(esperados, obtenidos, "prefijo '" + prefijo + "'");
+        }
+    }
+
+    @Test
+    void sugerenciasSeActualizanConEscriturasYVentas() {
+        String marca = UUID.randomUUID().toString().substring(0, 8);
+        ClienteDTO ana = clienteService.guardarCliente(new ClienteDTO(null, marca + " Ana", "ana." + marca + "@correo.com"));
+        ClienteDTO luis = clienteService.guardarCliente(new ClienteDTO(null, marca + " Luis", "luis." + marca + "@correo.com"));
+        ProductoDTO teclado = productoService.saveProducto(new ProductoDTO(null, "Teclado " + marca, 10, 10));
+        ProductoDTO teclas = productoService.saveProducto(new ProductoDTO(null, "Teclas " + marca, 10, 10));
+
+        ventaService.crearVenta(new VentaDTO(null, luis.getId(), List.of(teclas.getId(), teclas.getId()), 0));
+
+        List<SugerenciaDTO> clientes = clienteService.sugerirClientes(marca, 10);
+        assertEquals(List.of(luis.getId(), ana.getId()), clientes.stream().map(SugerenciaDTO::getId).toList());
+        assertEquals(1, clientes.get(0).getPuntaje());
+
+        // Por email y por palabra del nombre
+        assertEquals(ana.getId(), clienteService.sugerirClientes("ANA." + marca, 10).get(0).getId());
+        clienteService.updateClienteNombre(ana.getId(), "Zoe " + marca);
+        assertTrue(clienteService.sugerirClientes("zoe " + marca, 10).stream().anyMatch(s -> s.getId().equals(ana.getId())));
+        assertTrue(clienteService.sugerirClientes(marca + " ana", 10).isEmpty());
+
+        List<SugerenciaDTO> productos = productoService.sugerirProductos("tecla", 10).stream()
+                .filter(s -> s.getTexto().endsWith(marca)).toList();
+        assertEquals(List.of(teclas.getId(), teclado.getId()), productos.stream().map(SugerenciaDTO::getId).toList());
+        assertEquals(2, productos.get(0).getPuntaje());
+
+        productoService.eliminarProducto(teclado.getId());
+        assertTrue(productoService.sugerirProductos("teclado " + marca, 10).isEmpty());
+    }
+}
@@ -0,0 +1,101 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BusquedaNombresTests {
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private BusquedaNombres busquedaNombres;
+
+    @Test
+    void indiceVerificaLaSubcadenaCompleta() {
+        IndiceTrigramas indice = new IndiceTrigramas();
+        indice.agregar(1L, "Abcd");
+        indice.agregar(2L, "cdab");
+        indice.agregar(3L, "xAB");
+
+        // "bcd" y "cda" están en el 2 pero no "bcda"
+        assertEquals(List.of(1L), indice.buscar("BCD"));
+        assertEquals(List.of(), indice.buscar("bcda"));
+        assertEquals(List.of(1L, 2L, 3L), indice.buscar("ab"));
+
+        indice.agregar(1L, "zzz");
+        indice.eliminar(3L);
+        assertEquals(List.of(2L), indice.buscar("ab"));
+        assertEquals(List.of(1L), indice.buscar("zz"));
+    }
+
+    @Test
+    void clientesSeMantienenAlEscribir() {
+        String marca = marca();
+        assertTrue(busquedaNombres.isListo());
+        ClienteDTO guardado = clienteService.guardarCliente(new ClienteDTO(null, "Ana " + marca, marca + "@correo.com"));
+        clienteService.crearClientes(List.of(new ClienteDTO(null, "Luis " + marca, "l" + marca + "@correo.com")));
+
+        assertEquals(2, clienteService.findByNombre(marca.toUpperCase()).size());
+
+        clienteService.updateClienteNombre(guardado.getId(), "Ana");
+        List<ClienteDTO> encontrados = clienteService.findByNombre(marca);
+        assertEquals(1, encontrados.size());
+        assertEquals("Luis " + marca, encontrados.get(0).getNombre());
+
+        clienteService.deleteById(encontrados.get(0).getId());
+        assertTrue(clienteService.findByNombre(marca).isEmpty());
+    }
+
+    @Test
+    void productosPaginadosIgualQueLaConsulta() {
+        String marca = marca();
+        List<ProductoDTO> productos = new ArrayList<>();
+        for (int i = 0; i < 1200; i++) {
+            productos.add(new ProductoDTO(null, "Prod " + (i % 7) + " " + marca, i, 1));
+        }
+        productoService.crearProductos(productos);
+
+        List<Long> esperados = productoService.getAllProductos().stream()
+                .filter(p -> p.getNombre().endsWith(marca))
+                .sorted(Comparator.comparing(ProductoDTO::getNombre).reversed().thenComparing(ProductoDTO::getId))
+                .map(ProductoDTO::getId).toList();
+        assertEquals(1200, esperados.size());
+
+        // Más de 1000 coincidencias: se ordena en memoria por nombre y se consulta solo la página
+        Page<ProductoDTO> pagina = productoService.buscarProductoPorNombre(marca,
+                PageRequest.of(3, 50, Sort.by(Sort.Direction.DESC, "nombre")));
+        assertEquals(1200, pagina.getTotalElements());
+        assertEquals(esperados.subList(150, 200), pagina.stream().map(ProductoDTO::getId).toList());
+
+        // Pocas coincidencias: se consultan por id con el orden pedido
+        Page<ProductoDTO> precio = productoService.buscarProductoPorNombre("prod 3 " + marca,
+                PageRequest.of(0, 5, Sort.by(Sort.Direction.DESC, "precio")));
+        assertEquals(171, precio.getTotalElements());
+        assertEquals(1193.0, precio.getContent().get(0).getPrecio());
+    }
+
+    private String marca() {
+        return UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,150 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.FiltroEliminacionDTO;
+import org.mfigueroa.App.dto.ResultadoEliminacionDTO;
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.mfigueroa.App.repository.VentaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Bloques de 2 ids para que cada eliminación use varias transacciones
+@SpringBootTest(properties = "app.eliminacion.tamano-bloque=2")
+@ActiveProfiles("test")
+class EliminacionMasivaTests {
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Test
+    void eliminaVentasPorIdsYPorClienteActualizandoResumen() {
+        Cliente cliente = cliente("Ana");
+        Producto monitor = producto("Monitor", 100.0, 10);
+        Producto mouse = producto("Mouse", 20.0, 10);
+        List<Long> ventas = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            ventas.add(ventaService.crearVenta(new VentaDTO(null, cliente.getId(),
+                    List.of(monitor.getId(), mouse.getId()), 0)).getId());
+        }
+        ventas.add(ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(mouse.getId()), 0)).getId());
+
+        ResultadoEliminacionDTO resultado = ventaService.eliminarVentas(
+                new FiltroEliminacionDTO(List.of(ventas.get(0), ventas.get(1), ventas.get(2), -1L)));
+        assertEquals(3, resultado.getVentas());
+        assertEquals(6, resultado.getVentaProductos());
+        assertEquals(2, resultado.getBloques());
+        ResumenVentasClienteDTO resumen = ventaService.obtenerResumenCliente(cliente.getId());
+        assertEquals(2, resumen.getCantidad());
+        assertEquals(140.0, resumen.getTotal());
+
+        FiltroEliminacionDTO anteriores = new FiltroEliminacionDTO();
+        anteriores.setClienteId(cliente.getId());
+        anteriores.setHasta(new Date(0));
+        assertEquals(0, ventaService.eliminarVentas(anteriores).getVentas());
+
+        FiltroEliminacionDTO porCliente = new FiltroEliminacionDTO();
+        porCliente.setClienteId(cliente.getId());
+        resultado = ventaService.eliminarVentas(porCliente);
+        assertEquals(2, resultado.getVentas());
+        assertEquals(3, resultado.getVentaProductos());
+        assertTrue(ventaRepository.findDTOByClienteId(cliente.getId()).isEmpty());
+        assertEquals(0, ventaService.obtenerResumenCliente(cliente.getId()).getCantidad());
+    }
+
+    @Test
+    void eliminaClientesConSusVentas() {
+        Producto teclado = producto("Teclado", 50.0, 10);
+        Cliente conVentas = cliente("Con ventas");
+        Cliente sinVentas = cliente("Sin ventas");
+        Cliente conserva = cliente("Conserva");
+        ventaService.crearVenta(new VentaDTO(null, conVentas.getId(), List.of(teclado.getId(), teclado.getId()), 0));
+        ventaService.crearVenta(new VentaDTO(null, conserva.getId(), List.of(teclado.getId()), 0));
+
+        ResultadoEliminacionDTO resultado = clienteService.eliminarClientes(
+                new FiltroEliminacionDTO(List.of(conVentas.getId(), sinVentas.getId())));
+        assertEquals(2, resultado.getClientes());
+        assertEquals(1, resultado.getVentas());
+        assertEquals(2, resultado.getVentaProductos());
+        assertFalse(clienteRepository.existsById(conVentas.getId()));
+        assertEquals(0, ventaService.obtenerResumenCliente(conVentas.getId()).getCantidad());
+        assertTrue(clienteService.findByNombre("Sin ventas").stream().noneMatch(c -> c.getId().equals(sinVentas.getId())));
+
+        Cliente nuevo = cliente("Nuevo sin ventas");
+        FiltroEliminacionDTO filtro = new FiltroEliminacionDTO();
+        filtro.setSinVentas(true);
+        clienteService.eliminarClientes(filtro);
+        assertFalse(clienteRepository.existsById(nuevo.getId()));
+        assertTrue(clienteRepository.existsById(conserva.getId()));
+    }
+
+    @Test
+    void eliminaProductosPorFiltroConservandoLasVentas() {
+        Cliente cliente = cliente("Luis");
+        for (int i = 0; i < 5; i++) {
+            producto("Agotado " + i, 7_000.0 + i, 0);
+        }
+        Producto conStock = producto("Con stock", 7_002.0, 3);
+        VentaDTO venta = ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(conStock.getId()), 0));
+
+        FiltroEliminacionDTO filtro = new FiltroEliminacionDTO();
+        filtro.setStockMaximo(0);
+        filtro.setMinPrecio(7_000.0);
+        filtro.setMaxPrecio(7_004.0);
+        ResultadoEliminacionDTO resultado = productoService.eliminarProductos(filtro);
+        assertEquals(5, resultado.getProductos());
+        assertEquals(3, resultado.getBloques());
+        assertTrue(productoRepository.existsById(conStock.getId()));
+
+        resultado = productoService.eliminarProductos(new FiltroEliminacionDTO(List.of(conStock.getId())));
+        assertEquals(1, resultado.getProductos());
+        assertEquals(1, resultado.getVentaProductos());
+        assertTrue(ventaRepository.existsById(venta.getId()));
+    }
+
+    @Test
+    void rechazaEliminacionSinIdsNiFiltro() {
+        assertThrows(IllegalArgumentException.class, () -> clienteService.eliminarClientes(new FiltroEliminacionDTO()));
+        assertThrows(IllegalArgumentException.class, () -> productoService.eliminarProductos(new FiltroEliminacionDTO()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ventaService.eliminarVentas(new FiltroEliminacionDTO(List.of())));
+    }
+
+    private Cliente cliente(String nombre) {
+        return clienteRepository.save(new Cliente(null, nombre, UUID.randomUUID() + "@mail.com", null));
+    }
+
+    private Producto producto(String nombre, double precio, int stock) {
+        return productoRepository.save(new Producto(null, nombre, precio, stock, null));
+    }
+}
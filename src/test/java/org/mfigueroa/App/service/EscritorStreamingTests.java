@@ -0,0 +1,49 @@
+package org.mfigueroa.App.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EscritorStreamingTests {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void escribirProductosEnNdjsonYArreglo() throws Exception {
+        for (int i = 0; i < 1200; i++) {
+            productoService.saveProducto(new ProductoDTO(null, "Stream " + i, i, 1));
+        }
+        long total = productoRepository.count();
+
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        productoService.escribirProductos(ndjson, true);
+        String[] lineas = ndjson.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(total, lineas.length);
+        assertTrue(objectMapper.readTree(lineas[0]).has("nombre"));
+
+        ByteArrayOutputStream arreglo = new ByteArrayOutputStream();
+        productoService.escribirProductos(arreglo, false);
+        JsonNode nodos = objectMapper.readTree(arreglo.toByteArray());
+        assertEquals(total, nodos.size());
+    }
+}
@@ -0,0 +1,107 @@
+package org.mfigueroa.App.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class EtagListadosTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Test
+    void respondeNoModificadoSinConsultarLaBd() throws Exception {
+        productoService.saveProducto(new ProductoDTO(null, "Monitor", 100, 5));
+        String etag = mockMvc.perform(get("/api/productos")).andExpect(status().isFound())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        double consultas = consultas("findAllDTO");
+
+        mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag))
+                .andExpect(content().string(""));
+        assertEquals(consultas, consultas("findAllDTO"));
+
+        productoService.saveProducto(new ProductoDTO(null, "Teclado", 50, 5));
+        String nueva = mockMvc.perform(get("/api/productos").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isFound())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertNotEquals(etag, nueva);
+    }
+
+    @Test
+    void lasVentasCambianLaEtagDelStockSoloAlConfirmarse() throws Exception {
+        ProductoDTO mouse = productoService.saveProducto(new ProductoDTO(null, "Mouse", 20, 1));
+        ClienteDTO cliente = clienteService.guardarCliente(new ClienteDTO(null, "Ana", "ana.etag@mail.com"));
+        String etag = etag("/api/productos/findByStock");
+        mockMvc.perform(get("/api/productos/findByStock").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(mouse.getId()), 0));
+        String trasVenta = etag("/api/productos/findByStock");
+        assertNotEquals(etag, trasVenta);
+
+        // Sin stock la venta se revierte y la versión no cambia
+        assertThrows(IllegalStateException.class,
+                () -> ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(mouse.getId()), 0)));
+        assertEquals(trasVenta, etag("/api/productos/findByStock"));
+    }
+
+    @Test
+    void lasEscriturasDeClientesCambianSuEtag() throws Exception {
+        String etag = etag("/api/clientes");
+        mockMvc.perform(get("/api/clientes").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        ClienteDTO cliente = clienteService.guardarCliente(new ClienteDTO(null, "Luis", "luis.etag@mail.com"));
+        String trasAlta = etag("/api/clientes");
+        assertNotEquals(etag, trasAlta);
+
+        clienteService.updateClienteNombre(cliente.getId(), "Luis Pérez");
+        assertNotEquals(trasAlta, etag("/api/clientes"));
+    }
+
+    private String etag(String url) throws Exception {
+        return mockMvc.perform(get(url)).andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+
+    private double consultas(String metodo) {
+        return registro.find("spring.data.repository.invocations")
+                .tag("repository", "ProductoRepository").tag("method", metodo).timer().count();
+    }
+}
@@ -0,0 +1,101 @@
+package org.mfigueroa.App.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.fasterxml.jackson.dataformat.smile.databind.SmileMapper;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FormatosBinariosTests {
+
+    private static final String CBOR = "application/cbor";
+    private static final String SMILE = "application/x-jackson-smile";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Test
+    void negociaCborYSmileConJsonPorDefecto() throws Exception {
+        ProductoDTO producto = productoService.saveProducto(new ProductoDTO(null, "Monitor", 100, 50));
+        ClienteDTO cliente = clienteService.guardarCliente(new ClienteDTO(null, "Ana", "ana.cbor@mail.com"));
+        for (int i = 0; i < 20; i++) {
+            ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(producto.getId(), producto.getId()), 0));
+        }
+
+        for (String url : List.of("/api/ventas", "/api/productos", "/api/clientes", "/api/productos/getPaged")) {
+            MockHttpServletResponse json = peticion(url, null);
+            assertTrue(json.getContentType().startsWith("application/json"), url);
+            JsonNode esperado = objectMapper.readTree(json.getContentAsByteArray());
+
+            MockHttpServletResponse cbor = peticion(url, CBOR);
+            assertEquals(CBOR, cbor.getContentType(), url);
+            assertEquals(esperado, new CBORMapper().readTree(cbor.getContentAsByteArray()), url);
+
+            MockHttpServletResponse smile = peticion(url, SMILE);
+            assertEquals(SMILE, smile.getContentType(), url);
+            assertEquals(esperado, new SmileMapper().readTree(smile.getContentAsByteArray()), url);
+        }
+
+        // Los ids de productos de cada venta van como enteros binarios en lugar de texto
+        assertTrue(peticion("/api/ventas", CBOR).getContentAsByteArray().length
+                < peticion("/api/ventas", null).getContentAsByteArray().length);
+        // Cada formato es una representación distinta y lleva su propia ETag
+        assertNotEquals(peticion("/api/productos", null).getHeader(HttpHeaders.ETAG),
+                peticion("/api/productos", CBOR).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void laEtagSigueAlFormatoNegociadoYVariaPorAccept() throws Exception {
+        MockHttpServletResponse json = peticion("/api/clientes", null);
+        assertEquals(HttpHeaders.ACCEPT, json.getHeader(HttpHeaders.VARY));
+
+        // CBOR aparece en Accept pero con menos calidad: se responde JSON y con la ETag de JSON
+        MockHttpServletResponse preferido = peticion("/api/clientes", "application/json, " + CBOR + ";q=0.1");
+        assertTrue(preferido.getContentType().startsWith("application/json"));
+        assertEquals(json.getHeader(HttpHeaders.ETAG), preferido.getHeader(HttpHeaders.ETAG));
+
+        MockHttpServletResponse smile = peticion("/api/clientes", "application/json;q=0.5, " + SMILE);
+        assertEquals(SMILE, smile.getContentType());
+        assertEquals(peticion("/api/clientes", SMILE).getHeader(HttpHeaders.ETAG), smile.getHeader(HttpHeaders.ETAG));
+        assertNotEquals(json.getHeader(HttpHeaders.ETAG), smile.getHeader(HttpHeaders.ETAG));
+        // Un comodín se resuelve a JSON
+        assertEquals(json.getHeader(HttpHeaders.ETAG), peticion("/api/clientes", "application/*").getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletResponse peticion(String url, String accept) throws Exception {
+        return mockMvc.perform(accept == null ? get(url) : get(url).header(HttpHeaders.ACCEPT, accept))
+                .andReturn().getResponse();
+    }
+}
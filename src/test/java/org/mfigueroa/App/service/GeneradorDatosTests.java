@@ -0,0 +1,92 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.ResultadoGeneracionDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {"app.generador.tamano-bloque=300", "app.generador.tamano-lote=100",
+        "app.generador.hilos=3", "app.generador.fecha-fin=2026-01-01"})
+@ActiveProfiles("test")
+class GeneradorDatosTests {
+
+    @Autowired
+    private GeneradorDatos generadorDatos;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ResumenVentasService resumenVentasService;
+
+    @Test
+    void generaDatosDeterministasConSesgo() {
+        long desde = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM ventas", Long.class);
+        List<Map<String, Object>> primera = generar(7);
+        long hasta = desde + primera.size();
+        List<Map<String, Object>> repetida = generar(7);
+        List<Map<String, Object>> otraSemilla = generar(8);
+
+        assertEquals(2000, primera.size());
+        assertEquals(primera, repetida);
+        assertNotEquals(primera, otraSemilla);
+
+        // Con Zipf(1.1) sobre 100 productos el más vendido concentra cerca del 20% de las unidades (1% si fuera uniforme)
+        long unidades = primera.stream().mapToLong(v -> ((Number) v.get("unidades")).longValue()).sum();
+        long masVendido = jdbcTemplate.queryForObject("SELECT MAX(c) FROM (SELECT COUNT(*) c FROM venta_producto "
+                + "WHERE venta_id > ? AND venta_id <= ? GROUP BY producto_id) t", Long.class, desde, hasta);
+        assertTrue(unidades > 4000, "unidades " + unidades);
+        assertTrue(masVendido > unidades / 10, "más vendido " + masVendido + " de " + unidades);
+    }
+
+    @Test
+    void convivenConLasEscriturasDeLaAplicacion() {
+        ResultadoGeneracionDTO resultado = generadorDatos.generar(50, 20, 300, 11);
+        assertEquals(300, resultado.getVentas());
+
+        Long clienteId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM clientes", Long.class);
+        Long productoId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM productos", Long.class);
+        long ventasCliente = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM ventas WHERE cliente_id = ?",
+                Long.class, clienteId);
+        assertEquals(ventasCliente, resumenVentasService.obtenerResumen(clienteId).getCantidad());
+
+        // Las secuencias quedan por delante de los ids generados
+        ClienteDTO nuevo = clienteService.guardarCliente(new ClienteDTO(null, "Posterior", "posterior@correo.com"));
+        assertTrue(nuevo.getId() > clienteId);
+        VentaDTO venta = ventaService.crearVenta(new VentaDTO(null, clienteId, List.of(productoId), 0));
+        assertTrue(venta.getId() > jdbcTemplate.queryForObject("SELECT MAX(id) FROM ventas WHERE id <> ?",
+                Long.class, venta.getId()));
+        assertTrue(clienteService.findByNombre(nombre(clienteId)).stream().anyMatch(c -> c.getId().equals(clienteId)));
+    }
+
+    // Ventas de una generación en orden de id: total, fecha y unidades
+    private List<Map<String, Object>> generar(long semilla) {
+        long desde = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM ventas", Long.class);
+        generadorDatos.generar(200, 100, 2000, semilla);
+        return jdbcTemplate.queryForList("SELECT v.total, v.fecha, "
+                + "(SELECT COUNT(*) FROM venta_producto vp WHERE vp.venta_id = v.id) unidades "
+                + "FROM ventas v WHERE v.id > ? ORDER BY v.id", desde);
+    }
+
+    private String nombre(Long clienteId) {
+        return jdbcTemplate.queryForObject("SELECT nombre FROM clientes WHERE id = ?", String.class, clienteId);
+    }
+}
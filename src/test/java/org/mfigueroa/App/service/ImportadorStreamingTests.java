@@ -0,0 +1,65 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "app.lotes.tamano-bloque=2")
+@ActiveProfiles("test")
+class ImportadorStreamingTests {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void importarNdjsonReportaLineasInvalidas() throws Exception {
+        long antes = productoRepository.count();
+        String cuerpo = """
+                {"nombre":"Monitor","precio":100.0,"stock":3}
+                {"nombre":"Teclado","precio":"caro","stock":1}
+
+                {"nombre":"Mouse","precio":20.0,"stock":5}
+                {"nombre":"SSD",
+                {"nombre":"Cable","precio":5.0,"stock":50}
+                """;
+
+        ResultadoLoteDTO resultado = productoService.importarProductos(
+                new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8)), true);
+
+        assertEquals(3, resultado.getInsertados());
+        assertEquals(2, resultado.getFallidos());
+        assertEquals(2, resultado.getBloques().size());
+        assertEquals(2, resultado.getErrores().get(0).getLinea());
+        assertEquals(5, resultado.getErrores().get(1).getLinea());
+        assertEquals(antes + 3, productoRepository.count());
+    }
+
+    @Test
+    void importarArregloJson() throws Exception {
+        String cuerpo = """
+                [
+                  {"nombre":"Monitor","precio":100.0,"stock":3},
+                  {"nombre":"Teclado","precio":"caro","stock":1},
+                  {"nombre":"Mouse","precio":20.0,"stock":5}
+                ]
+                """;
+
+        ResultadoLoteDTO resultado = productoService.importarProductos(
+                new ByteArrayInputStream(cuerpo.getBytes(StandardCharsets.UTF_8)), false);
+
+        assertEquals(2, resultado.getInsertados());
+        assertEquals(1, resultado.getErrores().size());
+        assertEquals(3, resultado.getErrores().get(0).getLinea());
+    }
+}
@@ -0,0 +1,184 @@
+package org.mfigueroa.App.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.model.Venta;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+
+// Cola pequeña y sin espera al encolar para poder provocar el rechazo
+@SpringBootTest(properties = {
+        "app.ventas.ingesta.activa=true",
+        "app.ventas.ingesta.capacidad=8",
+        "app.ventas.ingesta.max-lote=8",
+        "app.ventas.ingesta.max-espera-ms=20",
+        "app.ventas.ingesta.espera-encolar-ms=0"
+})
+@ActiveProfiles("test")
+class IngestaVentasTests {
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    // Para provocar errores dentro de la transacción del lote y después de su commit
+    @MockitoSpyBean
+    private AnaliticaVentas analiticaVentas;
+
+    @Test
+    void agrupaVentasConcurrentesEnLotes() throws Exception {
+        Cliente ana = cliente("Ana");
+        Cliente luis = cliente("Luis");
+        Producto monitor = producto("Monitor", 100.0, 50);
+        long lotesPrevios = meterRegistry.summary("ventas.ingesta.lote").count();
+
+        // 6 hilos con 3 ventas cada uno: nunca hay más ventas pendientes que la capacidad de la cola
+        ExecutorService hilos = Executors.newFixedThreadPool(6);
+        List<Future<VentaDTO>> ventas = new ArrayList<>();
+        for (int i = 0; i < 18; i++) {
+            Long clienteId = (i % 2 == 0 ? ana : luis).getId();
+            ventas.add(hilos.submit(() -> ventaService.crearVenta(new VentaDTO(null, clienteId, List.of(monitor.getId()), 0))));
+        }
+        Set<Long> ids = new HashSet<>();
+        for (Future<VentaDTO> venta : ventas) {
+            ids.add(venta.get().getId());
+        }
+        hilos.shutdown();
+
+        assertEquals(18, ids.size());
+        assertTrue(meterRegistry.summary("ventas.ingesta.lote").count() - lotesPrevios < 18);
+        assertEquals(32, productoRepository.findStockById(monitor.getId()).orElseThrow());
+        ResumenVentasClienteDTO resumen = ventaService.obtenerResumenCliente(ana.getId());
+        assertEquals(9, resumen.getCantidad());
+        assertEquals(900.0, resumen.getTotal());
+        assertEquals(9, ventaService.findBiIdCliente(luis.getId()).size());
+    }
+
+    @Test
+    void unaVentaInvalidaNoRechazaSuLote() {
+        Cliente cliente = cliente("Eva");
+        Producto teclado = producto("Teclado", 50.0, 10);
+        Producto agotado = producto("Agotado", 10.0, 0);
+
+        CompletableFuture<VentaDTO> primera = ventaService.crearVentaAsync(
+                new VentaDTO(null, cliente.getId(), List.of(teclado.getId()), 0));
+        CompletableFuture<VentaDTO> invalida = ventaService.crearVentaAsync(
+                new VentaDTO(null, cliente.getId(), List.of(agotado.getId()), 0));
+        CompletableFuture<VentaDTO> ultima = ventaService.crearVentaAsync(
+                new VentaDTO(null, cliente.getId(), List.of(teclado.getId(), teclado.getId()), 0));
+
+        assertEquals(50.0, primera.join().getTotal());
+        assertEquals(100.0, ultima.join().getTotal());
+        CompletionException error = assertThrows(CompletionException.class, invalida::join);
+        assertInstanceOf(IllegalStateException.class, error.getCause());
+        assertEquals(7, productoRepository.findStockById(teclado.getId()).orElseThrow());
+        assertEquals(2, ventaService.obtenerResumenCliente(cliente.getId()).getCantidad());
+        // Sin la cola de por medio la excepción llega tal cual al llamador
+        assertThrows(IllegalStateException.class,
+                () -> ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(agotado.getId()), 0)));
+    }
+
+    @Test
+    void unLoteConfirmadoNoSeReintentaYUnErrorNoDetieneElEscritor() {
+        Cliente confirmado = cliente("Tras commit");
+        Cliente conError = cliente("Con error");
+        Producto cable = producto("Cable", 5.0, 20);
+        doAnswer(invocacion -> {
+            Long clienteId = invocacion.<Venta>getArgument(0).getCliente().getId();
+            if (clienteId.equals(conError.getId())) {
+                throw new AssertionError("fallo dentro de la transacción");
+            }
+            if (clienteId.equals(confirmado.getId())) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        throw new IllegalStateException("fallo después del commit");
+                    }
+                });
+            }
+            return invocacion.callRealMethod();
+        }).when(analiticaVentas).registrarVenta(any());
+
+        List<CompletableFuture<VentaDTO>> ventas = List.of(
+                ventaService.crearVentaAsync(new VentaDTO(null, confirmado.getId(), List.of(cable.getId()), 0)),
+                ventaService.crearVentaAsync(new VentaDTO(null, confirmado.getId(), List.of(cable.getId()), 0)));
+        ventas.forEach(venta -> assertThrows(CompletionException.class, venta::join));
+        // Las dos ventas quedaron guardadas una sola vez
+        assertEquals(2, ventaService.findBiIdCliente(confirmado.getId()).size());
+
+        CompletableFuture<VentaDTO> fallida = ventaService.crearVentaAsync(
+                new VentaDTO(null, conError.getId(), List.of(cable.getId()), 0));
+        assertInstanceOf(AssertionError.class, assertThrows(CompletionException.class, fallida::join).getCause());
+        assertEquals(0, ventaService.findBiIdCliente(conError.getId()).size());
+        // El hilo escritor sigue atendiendo la cola
+        Cliente otro = cliente("Después");
+        assertEquals(5.0, ventaService.crearVenta(new VentaDTO(null, otro.getId(), List.of(cable.getId()), 0)).getTotal());
+        assertEquals(17, productoRepository.findStockById(cable.getId()).orElseThrow());
+    }
+
+    @Test
+    void rechazaVentasConLaColaLlena() {
+        Cliente cliente = cliente("Rosa");
+        Producto mouse = producto("Mouse", 20.0, 200);
+
+        List<CompletableFuture<VentaDTO>> aceptadas = new ArrayList<>();
+        int rechazadas = 0;
+        for (int i = 0; i < 200; i++) {
+            try {
+                aceptadas.add(ventaService.crearVentaAsync(new VentaDTO(null, cliente.getId(), List.of(mouse.getId()), 0)));
+            } catch (RejectedExecutionException ex) {
+                rechazadas++;
+            }
+        }
+        aceptadas.forEach(CompletableFuture::join);
+
+        assertTrue(rechazadas > 0);
+        assertEquals(200 - aceptadas.size(), productoRepository.findStockById(mouse.getId()).orElseThrow());
+        assertEquals(aceptadas.size(), ventaService.obtenerResumenCliente(cliente.getId()).getCantidad());
+    }
+
+    private Cliente cliente(String nombre) {
+        return clienteRepository.save(new Cliente(null, nombre, UUID.randomUUID() + "@mail.com", null));
+    }
+
+    private Producto producto(String nombre, double precio, int stock) {
+        return productoRepository.save(new Producto(null, nombre, precio, stock, null));
+    }
+}
@@ -0,0 +1,49 @@
+package org.mfigueroa.App.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class MetricasTests {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry registro;
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Test
+    void registraEndpointsRepositoriosPoolEHibernate() throws Exception {
+        productoService.saveProducto(new ProductoDTO(null, "Medido", 10, 5));
+        mockMvc.perform(get("/api/productos")).andExpect(status().isFound());
+
+        Timer endpoint = registro.find("http.server.requests").tag("uri", "/api/productos").timer();
+        assertNotNull(endpoint);
+        assertTrue(endpoint.count() >= 1);
+
+        Timer repositorio = registro.find("spring.data.repository.invocations")
+                .tag("repository", "ProductoRepository").tag("method", "findAllDTO").timer();
+        assertNotNull(repositorio, "timer de ProductoRepository.findAllDTO");
+        assertTrue(repositorio.count() >= 1);
+
+        assertNotNull(registro.find("hikaricp.connections.active").gauge());
+        assertTrue(registro.find("hibernate.statements").functionCounter().count() > 0);
+    }
+}
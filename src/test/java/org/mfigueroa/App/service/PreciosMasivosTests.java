@@ -0,0 +1,101 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.PrecioProductoDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.dto.ReglaPrecioDTO;
+import org.mfigueroa.App.dto.ResultadoPreciosDTO;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Con el cache de productos activo, para comprobar que las actualizaciones masivas lo invalidan
+@SpringBootTest(properties = "app.cache.productos=true")
+@ActiveProfiles("test")
+class PreciosMasivosTests {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void actualizaPreciosPorIdEnLotes() {
+        List<ProductoDTO> nuevos = new ArrayList<>();
+        for (int i = 0; i < 1_200; i++) {
+            nuevos.add(new ProductoDTO(null, "Lote " + i, 10, 5));
+        }
+        productoService.crearProductos(nuevos);
+        List<PrecioProductoDTO> precios = new ArrayList<>();
+        for (ProductoDTO producto : productoService.getAllProductos()) {
+            if (producto.getNombre().startsWith("Lote ")) {
+                precios.add(new PrecioProductoDTO(producto.getId(), 20 + precios.size()));
+            }
+        }
+        // Un id inexistente no cuenta como actualizado
+        precios.add(new PrecioProductoDTO(-1L, 99));
+
+        ResultadoPreciosDTO resultado = productoService.actualizarPrecios(precios);
+
+        assertEquals(1_200, resultado.getActualizados());
+        assertEquals(21.0, precio(productoService.getAllProductos(), precios.get(1).getId()));
+        // eliminarProducto lee la entidad con findById, que usa el cache de entidades
+        assertEquals(1_219.0, productoService.eliminarProducto(precios.get(1_199).getId()).getPrecio());
+    }
+
+    @Test
+    void ajustaPreciosDeUnRangoConUnaSentencia() {
+        ProductoDTO barato = productoService.saveProducto(new ProductoDTO(null, "Barato", 5_000.0, 5));
+        ProductoDTO medio = productoService.saveProducto(new ProductoDTO(null, "Medio", 5_100.0, 5));
+        ProductoDTO caro = productoService.saveProducto(new ProductoDTO(null, "Caro", 5_300.0, 5));
+        productoService.buscarProductoPorPrecio(6_000);
+
+        ResultadoPreciosDTO resultado = productoService.ajustarPrecios(new ReglaPrecioDTO(5, 5_050.0, 5_200.0));
+
+        assertEquals(1, resultado.getActualizados());
+        List<ProductoDTO> productos = productoService.buscarProductoPorPrecio(6_000);
+        assertEquals(5_000.0, precio(productos, barato.getId()));
+        assertEquals(5_355.0, precio(productos, medio.getId()));
+        assertEquals(5_300.0, precio(productos, caro.getId()));
+    }
+
+    @Test
+    void saveConIdExistenteActualizaYElPrecioSubeLaVersion() {
+        ProductoDTO creado = productoService.saveProducto(new ProductoDTO(null, "Teclado", 300.0, 5));
+        ProductoDTO guardado = productoService.saveProducto(new ProductoDTO(creado.getId(), "Teclado RGB", 350.0, 7));
+        assertEquals(creado.getId(), guardado.getId());
+        assertEquals(350.0, productoRepository.findById(creado.getId()).orElseThrow().getPrecio());
+
+        // Una lectura anterior al cambio de precio ya no puede sobrescribirlo
+        Producto leido = productoRepository.findById(creado.getId()).orElseThrow();
+        productoService.actualizarPrecioProducto(creado.getId(), 400.0);
+        leido.setStock(9);
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> productoRepository.save(leido));
+        assertEquals(400.0, productoRepository.findById(creado.getId()).orElseThrow().getPrecio());
+    }
+
+    @Test
+    void rechazaEntradasInvalidas() {
+        assertThrows(IllegalArgumentException.class, () -> productoService.actualizarPrecios(List.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> productoService.actualizarPrecios(List.of(new PrecioProductoDTO(1L, -1))));
+        assertThrows(IllegalArgumentException.class,
+                () -> productoService.ajustarPrecios(new ReglaPrecioDTO(-100, null, null)));
+        assertThrows(IllegalArgumentException.class,
+                () -> productoService.ajustarPrecios(new ReglaPrecioDTO(5, 10.0, 1.0)));
+    }
+
+    private double precio(List<ProductoDTO> productos, Long id) {
+        return productos.stream().filter(p -> p.getId().equals(id)).findFirst().orElseThrow().getPrecio();
+    }
+}
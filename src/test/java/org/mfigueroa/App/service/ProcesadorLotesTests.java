@@ -0,0 +1,82 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ClienteDTO;
+import org.mfigueroa.App.dto.ResultadoLoteDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest(properties = "app.lotes.tamano-bloque=100")
+@ActiveProfiles("test")
+class ProcesadorLotesTests {
+
+    @Autowired
+    private ClienteServiceImpl clienteService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProcesadorLotes procesadorLotes;
+
+    @Test
+    void crearClientesPorBloques() {
+        long antes = clienteRepository.count();
+        List<ClienteDTO> clientes = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            clientes.add(new ClienteDTO(null, "Cliente " + i, "lote" + i + "@mail.com"));
+        }
+
+        ResultadoLoteDTO resultado = clienteService.crearClientes(clientes);
+
+        assertEquals(250, resultado.getInsertados());
+        assertEquals(3, resultado.getBloques().size());
+        assertEquals(200, resultado.getBloques().get(2).getPrimerRegistro());
+        assertEquals(antes + 250, clienteRepository.count());
+    }
+
+    @Test
+    void bloqueConErrorNoAfectaALosDemas() {
+        List<ClienteDTO> clientes = new ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            clientes.add(new ClienteDTO(null, "Cliente " + i, "error" + i + "@mail.com"));
+        }
+        // email duplicado dentro del segundo bloque
+        clientes.get(120).setEmail("error110@mail.com");
+
+        ResultadoLoteDTO resultado = clienteService.crearClientes(clientes);
+
+        assertEquals(100, resultado.getInsertados());
+        assertEquals(50, resultado.getFallidos());
+        assertNull(resultado.getBloques().get(0).getError());
+        assertNotNull(resultado.getBloques().get(1).getError());
+    }
+
+    @Test
+    void errorTrasConfirmarNoMarcaElBloqueComoFallido() {
+        long antes = clienteRepository.count();
+        List<Cliente> clientes = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            clientes.add(new Cliente(null, "Cliente " + i, "confirmado" + i + "@mail.com", null));
+        }
+
+        ResultadoLoteDTO resultado = procesadorLotes.persistir(clientes, confirmados -> {
+            throw new IllegalStateException("índice no disponible");
+        });
+
+        assertEquals(10, resultado.getInsertados());
+        assertEquals(0, resultado.getFallidos());
+        assertNull(resultado.getBloques().get(0).getError());
+        assertEquals(antes + 10, clienteRepository.count());
+    }
+}
@@ -0,0 +1,48 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.EstadisticasCacheDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "app.cache.productos=true")
+@ActiveProfiles("test")
+class ProductoCacheTests {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Test
+    void cacheSeInvalidaAlActualizarYEliminar() {
+        ProductoDTO producto = productoService.saveProducto(new ProductoDTO(null, "Cacheado", 10.0, 5));
+
+        productoService.obtenerProductosEnStock();
+        productoService.obtenerProductosEnStock();
+        EstadisticasCacheDTO consultas = region("consultas");
+        assertTrue(consultas.getAciertos() > 0);
+
+        assertTrue(productoService.actualizarPrecioProducto(producto.getId(), 25.0));
+        assertEquals(25.0, buscar(productoService.obtenerProductosEnStock(), producto.getId()).getPrecio());
+        assertEquals(25.0, buscar(productoService.buscarProductoPorPrecio(30.0), producto.getId()).getPrecio());
+
+        productoService.eliminarProducto(producto.getId());
+        assertFalse(productoService.getAllProductos().stream().anyMatch(p -> p.getId().equals(producto.getId())));
+    }
+
+    private EstadisticasCacheDTO region(String nombre) {
+        return productoService.estadisticasCache().stream()
+                .filter(r -> r.getRegion().equals(nombre)).findFirst().orElseThrow();
+    }
+
+    private ProductoDTO buscar(List<ProductoDTO> productos, Long id) {
+        return productos.stream().filter(p -> p.getId().equals(id)).findFirst().orElseThrow();
+    }
+}
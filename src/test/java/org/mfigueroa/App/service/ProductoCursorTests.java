@@ -0,0 +1,83 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.PaginaCursorDTO;
+import org.mfigueroa.App.dto.ProductoDTO;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ProductoCursorTests {
+
+    @Autowired
+    private ProductoService productoService;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Test
+    void recorrerTodasLasPaginasConCursor() {
+        // nombres y precios repetidos para que el desempate por id sea necesario
+        for (int i = 0; i < 23; i++) {
+            productoService.saveProducto(new ProductoDTO(null, "Cursor " + (i % 5), 7000 + (i % 3), 1));
+        }
+
+        // también productos sin nombre: van al final, ordenados por id
+        for (int i = 0; i < 6; i++) {
+            productoService.saveProducto(new ProductoDTO(null, null, 7000 + (i % 3), 1));
+        }
+
+        List<Long> esperados = new ArrayList<>(productoRepository.findAll(Sort.by(Sort.Direction.DESC, "nombre").and(Sort.by(Sort.Direction.DESC, "id")))
+                .stream().filter(p -> p.getNombre() != null).map(p -> p.getId()).toList());
+        productoRepository.findAll(Sort.by(Sort.Direction.DESC, "id")).stream()
+                .filter(p -> p.getNombre() == null).forEach(p -> esperados.add(p.getId()));
+        assertEquals(esperados, recorrer(null, null, "nombre", "desc"));
+
+        List<Long> porNombreEnRango = new ArrayList<>(productoRepository.findAll(Sort.by("nombre", "id")).stream()
+                .filter(p -> p.getNombre() != null && p.getPrecio() >= 7000 && p.getPrecio() <= 7001).map(p -> p.getId()).toList());
+        productoRepository.findAll(Sort.by("id")).stream()
+                .filter(p -> p.getNombre() == null && p.getPrecio() >= 7000 && p.getPrecio() <= 7001)
+                .forEach(p -> porNombreEnRango.add(p.getId()));
+        assertEquals(porNombreEnRango, recorrer(7000.0, 7001.0, "nombre", "asc"));
+
+        List<Long> enRango = productoRepository.findAll(Sort.by("precio", "id")).stream()
+                .filter(p -> p.getPrecio() >= 7000 && p.getPrecio() <= 7001).map(p -> p.getId()).toList();
+        assertEquals(enRango, recorrer(7000.0, 7001.0, "precio", "asc"));
+    }
+
+    @Test
+    void elTamanoDePaginaSeAjusta() {
+        productoService.saveProducto(new ProductoDTO(null, "Ajuste", 1, 1));
+        assertEquals(1, productoService.obtenerTodosPorCursor(null, 0, "id", "asc").getContenido().size());
+        assertEquals(1, productoService.obtenerTodosPorCursor(null, -5, "id", "asc").getContenido().size());
+    }
+
+    @Test
+    void soloCamposIndexados() {
+        assertThrows(IllegalArgumentException.class,
+                () -> productoService.obtenerTodosPorCursor(null, 5, "stock", "asc"));
+    }
+
+    private List<Long> recorrer(Double min, Double max, String ordenarPor, String orden) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PaginaCursorDTO<ProductoDTO> pagina = min == null
+                    ? productoService.obtenerTodosPorCursor(cursor, 4, ordenarPor, orden)
+                    : productoService.obtenerPorRangoDePrecioConCursor(cursor, min, max, 4, ordenarPor, orden);
+            pagina.getContenido().forEach(p -> ids.add(p.getId()));
+            cursor = pagina.getSiguienteCursor();
+        } while (cursor != null);
+        return ids;
+    }
+}
@@ -0,0 +1,57 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.BloqueStock;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.ConsumoBloque;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.BloqueStockRepository;
+import org.mfigueroa.App.repository.ConsumoBloqueRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Misma prueba de estrés con la reserva por bloques en memoria
+ */
+@SpringBootTest(properties = {"app.stock.reserva-por-bloques=true", "app.stock.tamano-bloque=7"})
+@ActiveProfiles("test")
+class ReservaStockPorBloquesTests extends ReservaStockTests {
+
+    @Autowired
+    private BloqueStockRepository bloqueStockRepository;
+
+    @Autowired
+    private ConsumoBloqueRepository consumoBloqueRepository;
+
+    @Test
+    void elBloqueDeUnaInstanciaCaidaRegresaLoNoVendido() {
+        Producto producto = productoRepository.save(new Producto(null, "Caída", 10.0, 0, null));
+        bloqueStockRepository.save(new BloqueStock("caida", producto.getId(), 7, new Date(System.currentTimeMillis() - 1000)));
+        consumoBloqueRepository.save(new ConsumoBloque("caida", producto.getId(), 2));
+
+        reservaStock.devolverReservas();
+
+        assertEquals(5, productoRepository.findStockById(producto.getId()).orElseThrow());
+        assertEquals(0, consumoBloqueRepository.sumarPorBloque("caida", producto.getId()));
+    }
+
+    @Test
+    void unRellenoParcialInsuficienteSeRegresaAlStock() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Parcial", UUID.randomUUID() + "@mail.com", null));
+        Producto producto = productoRepository.save(new Producto(null, "Escaso", 10.0, 3, null));
+
+        assertThrows(IllegalStateException.class, () -> ventaService.guardarVenta(
+                new VentaDTO(null, cliente.getId(), Collections.nCopies(4, producto.getId()), 0)));
+
+        assertEquals(3, productoRepository.findStockById(producto.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,101 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Prueba de estrés: muchas ventas concurrentes de un mismo producto nunca dejan el stock negativo
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+class ReservaStockTests {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservaStockTests.class);
+
+    private static final int STOCK_INICIAL = 200;
+    private static final int HILOS = 16;
+    private static final int INTENTOS_POR_HILO = 25;
+
+    @Autowired
+    protected VentaService ventaService;
+
+    @Autowired
+    protected ProductoRepository productoRepository;
+
+    @Autowired
+    protected ClienteRepository clienteRepository;
+
+    @Autowired
+    protected ReservaStock reservaStock;
+
+    @Test
+    void ventasConcurrentesNoSobrevendenStock() throws Exception {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Comprador", UUID.randomUUID() + "@mail.com", null));
+        Producto producto = productoRepository.save(new Producto(null, "Oferta", 10.0, STOCK_INICIAL, null));
+
+        AtomicInteger vendidas = new AtomicInteger();
+        AtomicInteger rechazadas = new AtomicInteger();
+        CountDownLatch inicio = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(HILOS);
+        for (int h = 0; h < HILOS; h++) {
+            executor.submit(() -> {
+                inicio.await();
+                for (int i = 0; i < INTENTOS_POR_HILO; i++) {
+                    try {
+                        ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(producto.getId()), 0));
+                        vendidas.incrementAndGet();
+                    } catch (IllegalStateException ex) {
+                        rechazadas.incrementAndGet();
+                    }
+                }
+                return null;
+            });
+        }
+        long t0 = System.nanoTime();
+        inicio.countDown();
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+        double segundos = (System.nanoTime() - t0) / 1e9;
+        logger.info("{}: {} ventas, {} rechazadas, {} ventas/s", getClass().getSimpleName(),
+                vendidas.get(), rechazadas.get(), String.format("%.1f", vendidas.get() / segundos));
+
+        reservaStock.devolverReservas();
+        int stockFinal = productoRepository.findStockById(producto.getId()).orElseThrow();
+        assertEquals(STOCK_INICIAL, vendidas.get());
+        assertEquals(HILOS * INTENTOS_POR_HILO - STOCK_INICIAL, rechazadas.get());
+        assertEquals(0, stockFinal);
+    }
+
+    @Test
+    void ventaSinStockNoSeGuarda() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Comprador", UUID.randomUUID() + "@mail.com", null));
+        Producto producto = productoRepository.save(new Producto(null, "Escaso", 5.0, 1, null));
+
+        assertThrows(IllegalStateException.class, () -> ventaService.crearVenta(
+                new VentaDTO(null, cliente.getId(), List.of(producto.getId(), producto.getId()), 0)));
+
+        reservaStock.devolverReservas();
+        assertEquals(1, productoRepository.findStockById(producto.getId()).orElseThrow());
+    }
+}
@@ -0,0 +1,108 @@
+package org.mfigueroa.App.service;
+
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.ResumenVentasClienteDTO;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.mfigueroa.App.repository.ResumenVentasClienteRepository;
+import org.mfigueroa.App.repository.VentaRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class ResumenVentasServiceTests {
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private VentaRepository ventaRepository;
+
+    @Autowired
+    private ResumenVentasService resumenVentasService;
+
+    @Autowired
+    private ResumenVentasClienteRepository resumenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void resumenSeMantieneConLasVentas() {
+        Cliente ana = clienteRepository.save(new Cliente(null, "Ana", UUID.randomUUID() + "@mail.com", null));
+        Cliente luis = clienteRepository.save(new Cliente(null, "Luis", UUID.randomUUID() + "@mail.com", null));
+        Producto monitor = productoRepository.save(new Producto(null, "Monitor", 100.0, 10, null));
+        Producto mouse = productoRepository.save(new Producto(null, "Mouse", 20.0, 10, null));
+
+        assertEquals(0, ventaService.obtenerResumenCliente(ana.getId()).getCantidad());
+        assertEquals(0, ventaRepository.findTotalVentasByClienteId(ana.getId()));
+
+        VentaDTO primera = ventaService.crearVenta(new VentaDTO(null, ana.getId(), List.of(monitor.getId()), 0));
+        VentaDTO segunda = ventaService.crearVenta(new VentaDTO(null, ana.getId(), List.of(mouse.getId(), mouse.getId()), 0));
+
+        ResumenVentasClienteDTO resumen = ventaService.obtenerResumenCliente(ana.getId());
+        assertEquals(140.0, resumen.getTotal());
+        assertEquals(2, resumen.getCantidad());
+        assertNotNull(resumen.getUltimaVenta());
+
+        assertTrue(ventaService.deleteVentaById(primera.getId()));
+        resumen = ventaService.obtenerResumenCliente(ana.getId());
+        assertEquals(40.0, resumen.getTotal());
+        assertEquals(1, resumen.getCantidad());
+
+        ventaService.updateVentaClienteId(luis.getId(), segunda.getId());
+        resumen = ventaService.obtenerResumenCliente(ana.getId());
+        assertEquals(0.0, resumen.getTotal());
+        assertEquals(0, resumen.getCantidad());
+        assertNull(resumen.getUltimaVenta());
+        assertEquals(40.0, ventaService.obtenerResumenCliente(luis.getId()).getTotal());
+
+        ventaService.reconstruirResumenes();
+        assertEquals(40.0, ventaService.obtenerResumenCliente(luis.getId()).getTotal());
+        assertEquals(ventaRepository.findTotalVentasByClienteId(luis.getId()),
+                ventaService.obtenerResumenCliente(luis.getId()).getTotal());
+    }
+
+    @Test
+    void registrarSinResumenLoCreaYReconstruirConservaLasFilas() {
+        Cliente cliente = clienteRepository.save(new Cliente(null, "Eva", UUID.randomUUID() + "@mail.com", null));
+        Producto teclado = productoRepository.save(new Producto(null, "Teclado", 30.0, 10, null));
+        ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(teclado.getId()), 0));
+        resumenRepository.deleteById(cliente.getId());
+
+        TransactionTemplate transaccion = new TransactionTemplate(transactionManager);
+        transaccion.executeWithoutResult(status -> resumenVentasService.registrarVenta(cliente.getId(), 5.0, new Date()));
+        assertEquals(5.0, ventaService.obtenerResumenCliente(cliente.getId()).getTotal());
+        // Un cliente inexistente no puede tener resumen: la transacción de la venta falla
+        assertThrows(IllegalStateException.class, () -> transaccion.executeWithoutResult(
+                status -> resumenVentasService.registrarVentas(-1L, 5.0, 1, new Date())));
+
+        // La reconstrucción corrige la fila existente sin borrarla
+        assertTrue(resumenVentasService.reconstruir() > 0);
+        assertEquals(30.0, ventaService.obtenerResumenCliente(cliente.getId()).getTotal());
+        assertEquals(1, ventaService.obtenerResumenCliente(cliente.getId()).getCantidad());
+    }
+}
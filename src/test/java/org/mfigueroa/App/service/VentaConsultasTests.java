@@ -0,0 +1,89 @@
+package org.mfigueroa.App.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mfigueroa.App.dto.VentaDTO;
+import org.mfigueroa.App.model.Cliente;
+import org.mfigueroa.App.model.Producto;
+import org.mfigueroa.App.repository.ClienteRepository;
+import org.mfigueroa.App.repository.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Las consultas de ventas ejecutan un número constante de sentencias, sin importar cuántas ventas haya
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+class VentaConsultasTests {
+
+    private static final int VENTAS = 30;
+
+    @Autowired
+    private VentaService ventaService;
+
+    @Autowired
+    private ClienteRepository clienteRepository;
+
+    @Autowired
+    private ProductoRepository productoRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private Statistics estadisticas;
+
+    private Cliente cliente;
+
+    @BeforeEach
+    void crearVentas() {
+        estadisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        cliente = clienteRepository.save(new Cliente(null, "Cliente", UUID.randomUUID() + "@mail.com", null));
+        Producto a = productoRepository.save(new Producto(null, "A", 1.0, 1000, null));
+        Producto b = productoRepository.save(new Producto(null, "B", 2.0, 1000, null));
+        for (int i = 0; i < VENTAS; i++) {
+            ventaService.crearVenta(new VentaDTO(null, cliente.getId(), List.of(a.getId(), b.getId()), 0));
+        }
+        estadisticas.clear();
+    }
+
+    @Test
+    void consultasConNumeroConstanteDeSentencias() throws Exception {
+        List<VentaDTO> ventas = ventaService.findBiIdCliente(cliente.getId());
+        assertEquals(VENTAS, ventas.size());
+        assertEquals(2, ventas.get(0).getProductosId().size());
+        assertEquals(2, estadisticas.getPrepareStatementCount());
+
+        estadisticas.clear();
+        Page<VentaDTO> pagina = ventaService.obtenerVentasPorClientePaginadas(cliente.getId(), 1, 10);
+        assertEquals(10, pagina.getNumberOfElements());
+        assertEquals(VENTAS, pagina.getTotalElements());
+        assertTrue(pagina.getContent().stream().allMatch(v -> v.getProductosId().size() == 2));
+        assertEquals(3, estadisticas.getPrepareStatementCount());
+
+        estadisticas.clear();
+        ByteArrayOutputStream salida = new ByteArrayOutputStream();
+        ventaService.escribirVentas(salida, false);
+        JsonNode nodos = objectMapper.readTree(salida.toByteArray());
+        assertTrue(nodos.size() >= VENTAS);
+        assertEquals(2, nodos.get(0).get("productosId").size());
+        assertEquals(1, estadisticas.getPrepareStatementCount());
+    }
+}